@@ -0,0 +1,43 @@
+package com.example.ludogoriesoft.lukeriaerpapi.config;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Read-only transactions may be served by a replica that lags the primary, so their sessions read the
+ * second-level cache but never put into it. Otherwise a row read before the replica caught up would stay
+ * cached until the region expires.
+ */
+class ReadOnlyCacheModeJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new CacheModeReset(session, previousCacheMode, transactionData);
+    }
+
+    @Override
+    public void cleanupTransaction(@Nullable Object transactionData) {
+        if (transactionData instanceof CacheModeReset reset) {
+            reset.session().setCacheMode(reset.previousCacheMode());
+            super.cleanupTransaction(reset.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record CacheModeReset(Session session, CacheMode previousCacheMode, Object transactionData) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ludogoriesoft.lukeriaerpapi.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections inside read-only transactions while {@link ReplicaLagMonitor} considers the
+ * replica current, and primary connections everywhere else. If the replica refuses a connection it is taken out
+ * of rotation until the next lag check and the read falls back to the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    public static final String ROUTED_METRIC = "datasource.routed.connections";
+    public static final String FALLBACK_METRIC = "datasource.replica.fallbacks";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = meterRegistry.counter(ROUTED_METRIC, "pool", PRIMARY);
+        this.replicaConnections = meterRegistry.counter(ROUTED_METRIC, "pool", REPLICA);
+        this.fallbacks = meterRegistry.counter(FALLBACK_METRIC);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isUsable()) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException exception) {
+                log.warn("Replica connection failed, reading from the primary: {}", exception.getMessage());
+                lagMonitor.markUnavailable();
+                fallbacks.increment();
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryConnections.increment();
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ludogoriesoft.lukeriaerpapi.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Decides whether the replica may serve reads: it has to answer and be no more than {@code maxLag} behind the
+ * primary. Until the first check succeeds, and whenever replication is stopped, reads stay on the primary.
+ * A replica that reports no replication status at all (a standalone copy) counts as current.
+ * Servers older than MySQL 8.0.22 and MariaDB 10.5.1 only know {@code SHOW SLAVE STATUS}; a replica that rejects
+ * both statements is taken out of rotation for good.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    public static final String LAG_METRIC = "datasource.replica.lag";
+
+    private static final String STATUS_QUERY = "SHOW REPLICA STATUS";
+    private static final String LEGACY_STATUS_QUERY = "SHOW SLAVE STATUS";
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private volatile String statusQuery = STATUS_QUERY;
+    private volatile boolean disabled;
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        Gauge.builder(LAG_METRIC, this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        if (disabled) {
+            return;
+        }
+        Duration lag = currentLag();
+        lagSeconds = lag == null ? Double.NaN : lag.toSeconds();
+        boolean current = lag != null && lag.compareTo(maxLag) <= 0;
+        if (current != usable) {
+            log.info("Read replica {} (lag {})", current ? "back in rotation" : "taken out of rotation", lag);
+        }
+        usable = current;
+    }
+
+    public void markUnavailable() {
+        usable = false;
+        lagSeconds = Double.NaN;
+    }
+
+    private Duration currentLag() {
+        try {
+            return readLag();
+        } catch (SQLException exception) {
+            if (!isSyntaxError(exception)) {
+                log.warn("Could not read the replica status: {}", exception.getMessage());
+            } else if (STATUS_QUERY.equals(statusQuery)) {
+                log.info("Replica does not support {}, falling back to {}", STATUS_QUERY, LEGACY_STATUS_QUERY);
+                statusQuery = LEGACY_STATUS_QUERY;
+                return currentLag();
+            } else {
+                disabled = true;
+                log.warn("Read replica disabled until restart: it supports neither {} nor {} ({})",
+                        STATUS_QUERY, LEGACY_STATUS_QUERY, exception.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private Duration readLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery(statusQuery)) {
+            if (!status.next()) {
+                return Duration.ZERO;
+            }
+            long seconds = status.getLong(lagColumn(status.getMetaData()));
+            return status.wasNull() ? null : Duration.ofSeconds(seconds);
+        }
+    }
+
+    private static boolean isSyntaxError(SQLException exception) {
+        return exception instanceof SQLSyntaxErrorException || "42000".equals(exception.getSQLState());
+    }
+
+    private static String lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            String label = metaData.getColumnLabel(column);
+            if (LAG_COLUMNS.stream().anyMatch(label::equalsIgnoreCase)) {
+                return label;
+            }
+        }
+        throw new SQLException("Replica status has none of the columns " + LAG_COLUMNS);
+    }
+}
@@ -78,6 +78,7 @@ public class SecurityConfiguration {
                         "/api/v1/user/forgot-password",
                         "/api/v1/user/reset-password")
                 .permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/v1/invoice/export", "/api/v1/orderProduct/export", "/api/v1/manufactured-product/export").hasAnyRole(ADMIN.name())
                 .requestMatchers(HttpMethod.GET, "/api/v1/user/me").authenticated()
                 .requestMatchers(HttpMethod.GET, "/api/v1/user/{id}").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/v1/user/authenticated/{id}").authenticated()
@@ -145,6 +146,7 @@ public class SecurityConfiguration {
                 .requestMatchers(HttpMethod.DELETE, MONTHLY_ORDER_PRODUCT_URL).hasAnyRole(ADMIN.name())
 
                 .requestMatchers("/api/v1/material-order/**").hasAnyRole(PRODUCTION_MANAGER.name(), ADMIN.name())
+                .requestMatchers(HttpMethod.GET, "/api/v1/stock/**").hasAnyRole(PRODUCTION_MANAGER.name(), ADMIN.name())
 
                 .requestMatchers("/api/v1/shoppingCart/**").hasAnyRole(CUSTOMER.name())
 
@@ -155,6 +157,7 @@ public class SecurityConfiguration {
                 .requestMatchers(HttpMethod.DELETE, INVOICE_URL).hasAnyRole(ADMIN.name())
                 .requestMatchers("/api/v1/invoiceOrderProduct/**").hasAnyRole(ADMIN.name(), TRANSPORT_MANAGER.name(), PRODUCTION_MANAGER.name())
                 .requestMatchers(HttpMethod.POST, "/api/v1/upload/**").hasAnyRole(ADMIN.name())
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAnyRole(ADMIN.name())
                 .anyRequest()
                 .permitAll()
                 .and()
@@ -1,6 +1,7 @@
 package com.example.ludogoriesoft.lukeriaerpapi.controllers;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
 import com.example.ludogoriesoft.lukeriaerpapi.services.InvoiceService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -8,6 +9,7 @@ import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +24,12 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getAllInvoices());
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(@RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format, @RequestHeader("Authorization") String auth) {
+        StreamingResponseBody body = outputStream -> invoiceService.exportInvoices(outputStream, format);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InvoiceDTO> getInvoiceById(@PathVariable(name = "id") Long id, @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
         return ResponseEntity.ok(invoiceService.getInvoiceById(id));
@@ -1,6 +1,7 @@
 package com.example.ludogoriesoft.lukeriaerpapi.controllers;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ManufacturedProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ManufacturedProduct;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.services.ManufacturedProductService;
@@ -15,7 +16,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -31,6 +34,14 @@ public class ManufacturedProductController {
     private final ProductRepository productRepository;
 
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportManufacturedProducts(
+            @RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader("Authorization") String auth) {
+        StreamingResponseBody body = outputStream -> manufacturedProductService.exportManufacturedProducts(outputStream, format);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ManufacturedProductDTO> getManufacturedProductById(
             @PathVariable(name = "id") Long id,
@@ -1,7 +1,10 @@
 package com.example.ludogoriesoft.lukeriaerpapi.controllers;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDetailsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialReceiptDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.services.MaterialOrderService;
+import com.example.ludogoriesoft.lukeriaerpapi.services.MaterialRequirementsService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.crossstore.ChangeSetPersister;
@@ -16,12 +19,18 @@ import java.util.List;
 @AllArgsConstructor
 public class MaterialOrderController {
     private final MaterialOrderService materialOrderService;
+    private final MaterialRequirementsService materialRequirementsService;
 
     @GetMapping
     public ResponseEntity<List<MaterialOrderDTO>> getAllMaterialOrders(@RequestHeader("Authorization") String auth) {
         return ResponseEntity.ok(materialOrderService.getAllMaterialOrders());
     }
 
+    @GetMapping("/details")
+    public ResponseEntity<List<MaterialOrderDetailsDTO>> getAllMaterialOrderDetails(@RequestHeader("Authorization") String auth) {
+        return ResponseEntity.ok(materialOrderService.getAllMaterialOrderDetails());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MaterialOrderDTO> getMaterialOrderById(@PathVariable(name = "id") Long id, @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
         return ResponseEntity.ok(materialOrderService.getMaterialOrderById(id));
@@ -32,6 +41,11 @@ public class MaterialOrderController {
         return new ResponseEntity<>(materialOrderService.createMaterialOrder(materialOrderDTO), HttpStatus.CREATED);
     }
 
+    @PutMapping("/receive")
+    public ResponseEntity<List<MaterialOrderDTO>> receiveMaterialOrders(@RequestBody List<MaterialReceiptDTO> receipts, @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
+        return ResponseEntity.ok(materialOrderService.receiveMaterialOrders(receipts));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MaterialOrderDTO> updateMaterialOrder(@PathVariable("id") Long id, @Valid @RequestBody MaterialOrderDTO materialOrderDTO, @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
         return ResponseEntity.ok(materialOrderService.updateMaterialOrder(id, materialOrderDTO));
@@ -60,4 +74,9 @@ public class MaterialOrderController {
         return materialOrderService.allMissingMaterials(allOrderedProducts);
     }
 
+    @GetMapping("/purchase-plan")
+    public List<MaterialOrderDTO> purchasePlan(@RequestHeader("Authorization") String auth) {
+        return materialRequirementsService.planPurchases();
+    }
+
 }
@@ -1,6 +1,8 @@
 package com.example.ludogoriesoft.lukeriaerpapi.controllers;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderPageRequestDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.services.OrderService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -22,6 +24,11 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPageDTO<OrderDTO>> getOrdersPage(OrderPageRequestDTO pageRequest, @RequestHeader("Authorization") String auth) {
+        return ResponseEntity.ok(orderService.getOrdersPage(pageRequest));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable(name = "id") Long id, @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
         return ResponseEntity.ok(orderService.getOrderById(id));
@@ -1,8 +1,10 @@
 package com.example.ludogoriesoft.lukeriaerpapi.controllers;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderWithProductsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
 import com.example.ludogoriesoft.lukeriaerpapi.models.InvoiceOrderProduct;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
 import com.example.ludogoriesoft.lukeriaerpapi.services.OrderProductService;
@@ -13,6 +15,7 @@ import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +33,20 @@ public class OrderProductController {
         return ResponseEntity.ok(orderProductService.getAllOrderProducts());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPageDTO<OrderProductDTO>> getOrderProductsPage(@RequestParam(name = "cursorId", required = false) Long cursorId,
+                                                                              @RequestParam(name = "orderId", required = false) Long orderId,
+                                                                              @RequestParam(name = "size", required = false) Integer size,
+                                                                              @RequestHeader("Authorization") String auth) {
+        return ResponseEntity.ok(orderProductService.getOrderProductsPage(cursorId, orderId, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrderProducts(@RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format, @RequestHeader("Authorization") String auth) {
+        StreamingResponseBody body = outputStream -> orderProductService.exportOrderProducts(outputStream, format);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderProductDTO> getOrderProductById(@PathVariable(name = "id") Long id, @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
         return ResponseEntity.ok(orderProductService.getOrderProductById(id));
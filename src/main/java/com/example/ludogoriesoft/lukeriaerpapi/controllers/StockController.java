@@ -0,0 +1,32 @@
+package com.example.ludogoriesoft.lukeriaerpapi.controllers;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.services.StockService;
+import lombok.AllArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/stock")
+@AllArgsConstructor
+public class StockController {
+
+    private final StockService stockService;
+
+    @GetMapping("/{type}/{id}")
+    public ResponseEntity<Integer> getQuantityAt(@PathVariable(name = "type") StockItemType type,
+                                                 @PathVariable(name = "id") Long id,
+                                                 @RequestParam(name = "at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                                 @RequestHeader("Authorization") String auth) throws ChangeSetPersister.NotFoundException {
+        return ResponseEntity.ok(stockService.getQuantityAt(type, id, at));
+    }
+}
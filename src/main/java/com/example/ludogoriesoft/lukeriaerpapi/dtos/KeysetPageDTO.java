@@ -0,0 +1,19 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing, newest first. The next slice is requested with the
+ * cursor taken from the last item (its id, plus its order date when sorting by date).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPageDTO<T> {
+    private List<T> items;
+    private boolean hasNext;
+}
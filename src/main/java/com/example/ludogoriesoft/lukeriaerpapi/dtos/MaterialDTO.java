@@ -0,0 +1,19 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialDTO {
+    private Long id;
+    private String name;
+    private String photo;
+    private Integer availableQuantity;
+
+    public MaterialDTO(Long id, String name, Integer availableQuantity) {
+        this(id, name, null, availableQuantity);
+    }
+}
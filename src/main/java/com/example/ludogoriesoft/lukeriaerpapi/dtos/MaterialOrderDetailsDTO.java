@@ -0,0 +1,26 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialOrderDetailsDTO {
+
+    private Long id;
+    private int orderedQuantity;
+    private Integer receivedQuantity;
+    private Long materialId;
+    private String materialType;
+    private BigDecimal materialPrice;
+    private LocalDate arrivalDate;
+    private String materialName;
+    private String materialPhoto;
+    private Integer materialAvailableQuantity;
+
+}
@@ -0,0 +1,15 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialQuantityDTO {
+    private MaterialType materialType;
+    private Long materialId;
+    private Long quantity;
+}
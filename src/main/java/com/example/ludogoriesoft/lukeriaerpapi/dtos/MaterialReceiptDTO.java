@@ -0,0 +1,16 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialReceiptDTO {
+    private Long materialOrderId;
+    private Integer receivedQuantity;
+    private LocalDate arrivalDate;
+}
@@ -0,0 +1,24 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One order line with the stock of its product and of the package, plate and carton it is made from.
+ * {@code productQuantity} is null when the package has no active product.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLineMaterialsDTO {
+    private Long packageId;
+    private Integer number;
+    private Integer productQuantity;
+    private Integer packageQuantity;
+    private Long plateId;
+    private Integer plateQuantity;
+    private Long cartonId;
+    private Integer cartonQuantity;
+    private Integer piecesCarton;
+}
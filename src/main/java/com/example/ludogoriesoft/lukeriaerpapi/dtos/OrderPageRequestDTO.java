@@ -0,0 +1,26 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.OrderPageSort;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageRequestDTO {
+    private OrderPageSort sort = OrderPageSort.ID;
+    private Long cursorId;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate cursorOrderDate;
+    private Long clientId;
+    private Boolean invoiced;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private Integer size;
+}
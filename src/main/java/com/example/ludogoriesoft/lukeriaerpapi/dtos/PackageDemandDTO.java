@@ -0,0 +1,16 @@
+package com.example.ludogoriesoft.lukeriaerpapi.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total number of a package ordered on orders that are not invoiced yet.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PackageDemandDTO {
+    private Long packageId;
+    private Long quantity;
+}
@@ -0,0 +1,14 @@
+package com.example.ludogoriesoft.lukeriaerpapi.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    JSON(MediaType.APPLICATION_JSON);
+
+    private final MediaType mediaType;
+}
@@ -0,0 +1,6 @@
+package com.example.ludogoriesoft.lukeriaerpapi.enums;
+
+public enum OrderPageSort {
+    ID,
+    ORDER_DATE;
+}
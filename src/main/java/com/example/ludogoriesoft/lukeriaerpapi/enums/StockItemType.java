@@ -0,0 +1,24 @@
+package com.example.ludogoriesoft.lukeriaerpapi.enums;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockItemType {
+    PRODUCT("product", Product.class),
+    PACKAGE("package", Package.class),
+    PLATE("plate", Plate.class),
+    CARTON("carton", Carton.class);
+
+    private final String table;
+    private final Class<?> entityClass;
+
+    public static StockItemType of(MaterialType materialType) {
+        return valueOf(materialType.name());
+    }
+}
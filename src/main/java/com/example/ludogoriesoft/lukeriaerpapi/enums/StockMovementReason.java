@@ -0,0 +1,9 @@
+package com.example.ludogoriesoft.lukeriaerpapi.enums;
+
+public enum StockMovementReason {
+    PRODUCTION,
+    INVOICE,
+    CHECKOUT,
+    MATERIAL_RECEIPT,
+    ADJUSTMENT
+}
@@ -26,6 +26,11 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(errorMessage, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<String> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException ex) {
+        return new ResponseEntity<>(ex.getMessage(), ex.getStatus());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> alertSlackChannelWhenUnexpectedErrorOccurs(Exception ex) {
         slackService.publishMessage("lukeria-notifications","Error occurred from the BACKEND application ->" + ex.getMessage());
@@ -0,0 +1,18 @@
+package com.example.ludogoriesoft.lukeriaerpapi.exeptions;
+
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustment;
+import jakarta.validation.ValidationException;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InsufficientStockException extends ValidationException {
+
+    private final transient List<StockAdjustment> rejected;
+
+    public InsufficientStockException(List<StockAdjustment> rejected) {
+        super("Insufficient stock or unknown item: " + rejected);
+        this.rejected = List.copyOf(rejected);
+    }
+}
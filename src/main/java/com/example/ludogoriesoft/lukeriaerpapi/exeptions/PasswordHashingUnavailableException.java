@@ -0,0 +1,10 @@
+package com.example.ludogoriesoft.lukeriaerpapi.exeptions;
+
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.common.ApiException;
+import org.springframework.http.HttpStatus;
+
+public class PasswordHashingUnavailableException extends ApiException {
+    public PasswordHashingUnavailableException() {
+        super("Too many password checks in progress, try again later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ludogoriesoft.lukeriaerpapi.mappers;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartItemDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientUserDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CustomerCustomPriceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceOrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CartItem;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
+import com.example.ludogoriesoft.lukeriaerpapi.models.ClientUser;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CustomerCustomPrice;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Invoice;
+import com.example.ludogoriesoft.lukeriaerpapi.models.InvoiceOrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.MaterialOrder;
+import com.example.ludogoriesoft.lukeriaerpapi.models.MonthlyOrder;
+import com.example.ludogoriesoft.lukeriaerpapi.models.MonthlyOrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
+import com.example.ludogoriesoft.lukeriaerpapi.models.OrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Entity to DTO mappings generated at compile time. Reference columns are flattened to their id,
+ * the same way ModelMapper's standard matching resolves {@code clientId -> clientId.id}.
+ */
+@Mapper
+public interface EntityDtoMapper {
+
+    CartonDTO toCartonDTO(Carton carton);
+
+    PlateDTO toPlateDTO(Plate plate);
+
+    @Mapping(target = "cartonId", source = "cartonId.id")
+    @Mapping(target = "plateId", source = "plateId.id")
+    PackageDTO toPackageDTO(Package packageEntity);
+
+    @Mapping(target = "packageId", source = "packageId.id")
+    ProductDTO toProductDTO(Product product);
+
+    @Mapping(target = "isBulgarianClient", ignore = true)
+    ClientDTO toClientDTO(Client client);
+
+    @Mapping(target = "clientId", source = "client.id")
+    @Mapping(target = "userId", source = "user.id")
+    ClientUserDTO toClientUserDTO(ClientUser clientUser);
+
+    @Mapping(target = "clientId", source = "clientId.id")
+    @Mapping(target = "productId", source = "productId.id")
+    CustomerCustomPriceDTO toCustomerCustomPriceDTO(CustomerCustomPrice customerCustomPrice);
+
+    @Mapping(target = "clientId", source = "clientId.id")
+    OrderDTO toOrderDTO(Order order);
+
+    @Mapping(target = "orderId", source = "orderId.id")
+    @Mapping(target = "packageId", source = "packageId.id")
+    OrderProductDTO toOrderProductDTO(OrderProduct orderProduct);
+
+    @Mapping(target = "clientId", source = "clientId.id")
+    MonthlyOrderDTO toMonthlyOrderDTO(MonthlyOrder monthlyOrder);
+
+    @Mapping(target = "packageId", source = "packageId.id")
+    @Mapping(target = "monthlyOrderId", source = "monthlyOrderId.id")
+    MonthlyOrderProductDTO toMonthlyOrderProductDTO(MonthlyOrderProduct monthlyOrderProduct);
+
+    InvoiceDTO toInvoiceDTO(Invoice invoice);
+
+    @Mapping(target = "invoiceId", source = "invoiceId.id")
+    @Mapping(target = "orderProductId", source = "orderProductId.id")
+    InvoiceOrderProductDTO toInvoiceOrderProductDTO(InvoiceOrderProduct invoiceOrderProduct);
+
+    MaterialOrderDTO toMaterialOrderDTO(MaterialOrder materialOrder);
+
+    @Mapping(target = "productId", source = "productId.id")
+    CartItemDTO toCartItemDTO(CartItem cartItem);
+}
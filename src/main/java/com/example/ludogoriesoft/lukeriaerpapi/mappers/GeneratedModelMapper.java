@@ -0,0 +1,94 @@
+package com.example.ludogoriesoft.lukeriaerpapi.mappers;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartItemDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientUserDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CustomerCustomPriceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceOrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CartItem;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
+import com.example.ludogoriesoft.lukeriaerpapi.models.ClientUser;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CustomerCustomPrice;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Invoice;
+import com.example.ludogoriesoft.lukeriaerpapi.models.InvoiceOrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.MaterialOrder;
+import com.example.ludogoriesoft.lukeriaerpapi.models.MonthlyOrder;
+import com.example.ludogoriesoft.lukeriaerpapi.models.MonthlyOrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
+import com.example.ludogoriesoft.lukeriaerpapi.models.OrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import org.modelmapper.ModelMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * ModelMapper that serves entity to DTO conversions from {@link EntityDtoMapper} and falls back to
+ * reflective mapping for every other pair (DTO to entity, users, ...). Services keep calling
+ * {@code modelMapper.map(entity, Dto.class)} unchanged.
+ */
+public class GeneratedModelMapper extends ModelMapper {
+
+    private final Map<MappingKey, Function<Object, ?>> mappings = new HashMap<>();
+
+    public GeneratedModelMapper(EntityDtoMapper mapper) {
+        register(Carton.class, CartonDTO.class, mapper::toCartonDTO);
+        register(Plate.class, PlateDTO.class, mapper::toPlateDTO);
+        register(Package.class, PackageDTO.class, mapper::toPackageDTO);
+        register(Product.class, ProductDTO.class, mapper::toProductDTO);
+        register(Client.class, ClientDTO.class, mapper::toClientDTO);
+        register(ClientUser.class, ClientUserDTO.class, mapper::toClientUserDTO);
+        register(CustomerCustomPrice.class, CustomerCustomPriceDTO.class, mapper::toCustomerCustomPriceDTO);
+        register(Order.class, OrderDTO.class, mapper::toOrderDTO);
+        register(OrderProduct.class, OrderProductDTO.class, mapper::toOrderProductDTO);
+        register(MonthlyOrder.class, MonthlyOrderDTO.class, mapper::toMonthlyOrderDTO);
+        register(MonthlyOrderProduct.class, MonthlyOrderProductDTO.class, mapper::toMonthlyOrderProductDTO);
+        register(Invoice.class, InvoiceDTO.class, mapper::toInvoiceDTO);
+        register(InvoiceOrderProduct.class, InvoiceOrderProductDTO.class, mapper::toInvoiceOrderProductDTO);
+        register(MaterialOrder.class, MaterialOrderDTO.class, mapper::toMaterialOrderDTO);
+        register(CartItem.class, CartItemDTO.class, mapper::toCartItemDTO);
+    }
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        if (source != null) {
+            Function<Object, ?> generated = find(source.getClass(), destinationType);
+            if (generated != null) {
+                return destinationType.cast(generated.apply(source));
+            }
+        }
+        return super.map(source, destinationType);
+    }
+
+    private <S, D> void register(Class<S> sourceType, Class<D> destinationType, Function<S, D> mapping) {
+        mappings.put(new MappingKey(sourceType, destinationType), source -> mapping.apply(sourceType.cast(source)));
+    }
+
+    private Function<Object, ?> find(Class<?> sourceType, Class<?> destinationType) {
+        // walks up so Hibernate proxies (subclasses of the entity) resolve to the entity's mapping
+        for (Class<?> type = sourceType; type != null && type != Object.class; type = type.getSuperclass()) {
+            Function<Object, ?> mapping = mappings.get(new MappingKey(type, destinationType));
+            if (mapping != null) {
+                return mapping;
+            }
+        }
+        return null;
+    }
+
+    private record MappingKey(Class<?> sourceType, Class<?> destinationType) {
+    }
+}
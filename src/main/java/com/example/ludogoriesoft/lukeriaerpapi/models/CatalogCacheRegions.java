@@ -0,0 +1,17 @@
+package com.example.ludogoriesoft.lukeriaerpapi.models;
+
+/**
+ * Second-level cache regions of the catalog entities and their cached queries.
+ * Sizes and TTLs are configured per region in application.conf.
+ */
+public final class CatalogCacheRegions {
+
+    public static final String CARTON = "catalog-carton";
+    public static final String PLATE = "catalog-plate";
+    public static final String PACKAGE = "catalog-package";
+    public static final String PRODUCT = "catalog-product";
+    public static final String QUERIES = "catalog-queries";
+
+    private CatalogCacheRegions() {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.ludogoriesoft.lukeriaerpapi.models;
+
+/**
+ * Shared settings for the pooled table generator used by the bulk-written tables.
+ * IDENTITY ids force Hibernate to insert row by row; ids handed out in blocks of
+ * {@link #ALLOCATION_SIZE} from {@code id_generator} let inserts be sent in JDBC batches.
+ * Rows of these tables must be inserted through JPA; the AUTO_INCREMENT on their id columns
+ * does not see the ids handed out here (see V41).
+ */
+final class IdGenerators {
+
+    static final String TABLE = "id_generator";
+    static final String PK_COLUMN = "sequence_name";
+    static final String VALUE_COLUMN = "next_val";
+    static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -19,11 +19,11 @@ public class Image {
 
     private UUID name;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "package_id")
     private Package packageImage;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "plate_id")
     private Plate plateImage;
 
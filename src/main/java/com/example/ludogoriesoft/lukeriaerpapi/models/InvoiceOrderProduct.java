@@ -9,17 +9,26 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@NamedEntityGraph(name = InvoiceOrderProduct.INVOICE_LINES_GRAPH, attributeNodes = {
+        @NamedAttributeNode("invoiceId"),
+        @NamedAttributeNode(value = "orderProductId", subgraph = "orderProduct")
+}, subgraphs = @NamedSubgraph(name = "orderProduct", attributeNodes = @NamedAttributeNode("packageId")))
 @Table(name = "invoice_order_product")
 public class InvoiceOrderProduct {
+    public static final String INVOICE_LINES_GRAPH = "InvoiceOrderProduct.invoiceLines";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "invoice_order_product_id")
+    @TableGenerator(name = "invoice_order_product_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "invoice_order_product",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "invoice_id")
     private Invoice invoiceId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_product_id")
     private OrderProduct orderProductId;
 
@@ -16,7 +16,10 @@ import java.time.LocalDate;
 @Table(name = "material_order")
 public class MaterialOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "material_order_id")
+    @TableGenerator(name = "material_order_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "material_order",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "ordered_quantity")
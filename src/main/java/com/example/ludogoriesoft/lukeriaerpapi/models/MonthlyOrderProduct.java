@@ -14,12 +14,12 @@ public class MonthlyOrderProduct {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "package_id")
     private Package packageId;
     private Integer orderedQuantity;
     private Integer sentQuantity;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "monthly_order_id")
     private MonthlyOrder monthlyOrderId;
     @Column(name = "is_deleted")
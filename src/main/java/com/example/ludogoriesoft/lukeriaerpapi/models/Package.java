@@ -3,26 +3,39 @@ package com.example.ludogoriesoft.lukeriaerpapi.models;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CatalogCacheRegions.PACKAGE)
 @Data
 @NoArgsConstructor
+@NamedEntityGraph(name = Package.STOCK_REPORT_GRAPH, attributeNodes = {
+        @NamedAttributeNode("cartonId"),
+        @NamedAttributeNode("plateId")
+})
 @Table(name = "package")
 public class Package {
+    public static final String STOCK_REPORT_GRAPH = "Package.stockReport";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "package_id")
+    @TableGenerator(name = "package_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "package",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     private String name;
     @Column(name = "english_name")
     private String englishName;
     @Column(name = "available_quantity")
     private int availableQuantity;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "carton_id")
     private Carton cartonId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "plate_id")
     private Plate plateId;
     @Column(name = "pieces_carton")
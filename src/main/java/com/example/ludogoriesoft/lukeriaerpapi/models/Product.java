@@ -6,19 +6,33 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CatalogCacheRegions.PRODUCT)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@NamedEntityGraph(name = Product.STOCK_REPORT_GRAPH, attributeNodes = @NamedAttributeNode(value = "packageId", subgraph = "package"),
+        subgraphs = @NamedSubgraph(name = "package", attributeNodes = {
+                @NamedAttributeNode("cartonId"),
+                @NamedAttributeNode("plateId")
+        }))
 @Table(name = "product")
 public class Product {
+    public static final String STOCK_REPORT_GRAPH = "Product.stockReport";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "product",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "package_id")
     private Package packageId;
     @Min(value = 1, message = "Цената не може да бъде отрицателно число!")
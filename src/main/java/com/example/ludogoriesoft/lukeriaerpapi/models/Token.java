@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -32,6 +33,9 @@ public class Token {
     @Column(nullable = false)
     public boolean expired;
 
+    @Column(name = "expires_at")
+    public LocalDateTime expiresAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     public User user;
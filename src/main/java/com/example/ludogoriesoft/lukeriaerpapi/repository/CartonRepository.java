@@ -1,13 +1,31 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CartonRepository extends JpaRepository<Carton, Long> {
+    @CatalogQuery
     List<Carton> findByDeletedFalse();
 
+    @CatalogQuery
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO(c.id, c.name, c.size, c.availableQuantity, c.price) " +
+            "FROM Carton c WHERE c.deleted = false")
+    List<CartonDTO> findAllActiveDTOs();
+
+    @CatalogQuery
     Optional<Carton> findByIdAndDeletedFalse(Long id);
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO(c.id, c.name, c.availableQuantity) FROM Carton c")
+    List<MaterialDTO> findAllMaterials();
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO(c.id, c.name, c.availableQuantity) FROM Carton c WHERE c.id IN :ids")
+    List<MaterialDTO> findMaterialsByIdIn(@Param("ids") Collection<Long> ids);
 }
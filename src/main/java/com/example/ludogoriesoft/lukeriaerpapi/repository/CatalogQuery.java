@@ -0,0 +1,22 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.CatalogCacheRegions;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the finder's results in the catalog query region. Hibernate drops them whenever
+ * one of the queried tables is written through JPA.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CatalogCacheRegions.QUERIES)})
+public @interface CatalogQuery {
+}
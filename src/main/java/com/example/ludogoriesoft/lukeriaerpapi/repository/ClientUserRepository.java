@@ -1,8 +1,7 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
-import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientUserDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ClientUser;
-import com.example.ludogoriesoft.lukeriaerpapi.models.User;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +13,13 @@ import org.springframework.data.repository.query.Param;
 public interface ClientUserRepository extends JpaRepository<ClientUser, Long> {
   List<ClientUser> findByDeletedFalse();
 
+  @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientUserDTO(cu.id, cu.client.id, cu.user.id) " +
+          "FROM ClientUser cu WHERE cu.deleted = false")
+  List<ClientUserDTO> findAllActiveDTOs();
+
   Optional<ClientUser> findByIdAndDeletedFalse(Long id);
 
-  Optional<ClientUser> findByClientIdAndUserIdAndDeletedFalse(Client client, User user);
+  Optional<ClientUser> findByClientIdAndUserIdAndDeletedFalse(Long clientId, Long userId);
 
   @Query("SELECT cu FROM ClientUser cu WHERE cu.user.id = :userId AND cu.client.id = :clientId")
   ClientUser findByUserIdAndClientId(
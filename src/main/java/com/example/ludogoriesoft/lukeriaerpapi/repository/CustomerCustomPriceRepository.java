@@ -7,6 +7,7 @@ import com.example.ludogoriesoft.lukeriaerpapi.models.Invoice;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +15,10 @@ import java.util.Optional;
 public interface CustomerCustomPriceRepository extends JpaRepository<CustomerCustomPrice, Long> {
     List<CustomerCustomPrice> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.CustomerCustomPriceDTO(ccp.id, ccp.clientId.id, ccp.productId.id, ccp.price) " +
+            "FROM CustomerCustomPrice ccp WHERE ccp.deleted = false")
+    List<CustomerCustomPriceDTO> findAllActiveDTOs();
+
     Optional<CustomerCustomPrice> findByIdAndDeletedFalse(Long id);
 
     List<CustomerCustomPrice> findByClientIdAndDeletedFalse(Client clientId);
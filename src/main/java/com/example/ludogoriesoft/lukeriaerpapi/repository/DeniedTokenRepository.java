@@ -0,0 +1,23 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.DeniedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DeniedTokenRepository extends JpaRepository<DeniedToken, Long> {
+
+    List<DeniedToken> findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(Long id, LocalDateTime now);
+
+    boolean existsByJti(String jti);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM token_denylist WHERE expires_at < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
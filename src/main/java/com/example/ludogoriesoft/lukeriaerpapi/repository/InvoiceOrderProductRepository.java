@@ -1,7 +1,11 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceOrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.InvoiceOrderProduct;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,5 +14,13 @@ public interface InvoiceOrderProductRepository extends JpaRepository<InvoiceOrde
 
     List<InvoiceOrderProduct> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceOrderProductDTO(iop.id, iop.invoiceId.id, iop.orderProductId.id, iop.deleted) " +
+            "FROM InvoiceOrderProduct iop WHERE iop.deleted = false")
+    List<InvoiceOrderProductDTO> findAllActiveDTOs();
+
     Optional<InvoiceOrderProduct> findByIdAndDeletedFalse(Long id);
+
+    @EntityGraph(InvoiceOrderProduct.INVOICE_LINES_GRAPH)
+    @Query("SELECT iop FROM InvoiceOrderProduct iop WHERE iop.invoiceId.id = :invoiceId")
+    List<InvoiceOrderProduct> findInvoiceLines(@Param("invoiceId") Long invoiceId);
 }
@@ -1,17 +1,31 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Invoice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     List<Invoice> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO(i.id, i.invoiceDate, i.invoiceNumber, i.totalPrice, i.isCashPayment, i.deadline, i.created, i.bankAccount) " +
+            "FROM Invoice i WHERE i.deleted = false")
+    List<InvoiceDTO> findAllActiveDTOs();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO(i.id, i.invoiceDate, i.invoiceNumber, i.totalPrice, i.isCashPayment, i.deadline, i.created, i.bankAccount) " +
+            "FROM Invoice i WHERE i.deleted = false ORDER BY i.id")
+    Stream<InvoiceDTO> streamAllActiveDTOs();
+
     Optional<Invoice> findByIdAndDeletedFalse(Long id);
 
     @Query("SELECT MAX(i.invoiceNumber) FROM Invoice i")
@@ -1,15 +1,26 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ManufacturedProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ManufacturedProduct;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ManufacturedProductRepository extends JpaRepository<ManufacturedProduct, Long> {
     List<ManufacturedProduct> findByDeletedFalse();
 
     Optional<ManufacturedProduct> findByIdAndDeletedFalse(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.ManufacturedProductDTO(mp.id, mp.Product.id, mp.quantity, mp.manufacture_date) " +
+            "FROM ManufacturedProduct mp ORDER BY mp.id")
+    Stream<ManufacturedProductDTO> streamAllDTOs();
 }
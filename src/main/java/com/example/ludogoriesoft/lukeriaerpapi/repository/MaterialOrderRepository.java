@@ -1,8 +1,13 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialQuantityDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.MaterialOrder;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +15,12 @@ public interface MaterialOrderRepository extends JpaRepository<MaterialOrder, Lo
     List<MaterialOrder> findByDeletedFalse();
 
     Optional<MaterialOrder> findByIdAndDeletedFalse(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<MaterialOrder> findAllByIdInAndDeletedFalse(Collection<Long> ids);
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialQuantityDTO(mo.materialType, mo.materialId, SUM(mo.orderedQuantity)) " +
+            "FROM MaterialOrder mo WHERE mo.deleted = false AND mo.receivedQuantity IS NULL " +
+            "GROUP BY mo.materialType, mo.materialId")
+    List<MaterialQuantityDTO> sumOpenOrdersByMaterial();
 }
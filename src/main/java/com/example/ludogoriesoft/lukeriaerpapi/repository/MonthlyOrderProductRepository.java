@@ -1,7 +1,9 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.MonthlyOrderProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,5 +11,9 @@ import java.util.Optional;
 public interface MonthlyOrderProductRepository extends JpaRepository<MonthlyOrderProduct, Long> {
     List<MonthlyOrderProduct> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderProductDTO(mop.id, mop.packageId.id, mop.orderedQuantity, mop.sentQuantity, mop.monthlyOrderId.id) " +
+            "FROM MonthlyOrderProduct mop WHERE mop.deleted = false")
+    List<MonthlyOrderProductDTO> findAllActiveDTOs();
+
     Optional<MonthlyOrderProduct> findByIdAndDeletedFalse(Long id);
 }
@@ -1,7 +1,9 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.MonthlyOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,6 +11,10 @@ import java.util.Optional;
 public interface MonthlyOrderRepository extends JpaRepository<MonthlyOrder, Long> {
     List<MonthlyOrder> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderDTO(mo.id, mo.clientId.id, mo.startDate, mo.endDate, mo.invoiced) " +
+            "FROM MonthlyOrder mo WHERE mo.deleted = false")
+    List<MonthlyOrderDTO> findAllActiveDTOs();
+
     Optional<MonthlyOrder> findByIdAndDeletedFalse(Long id);
 
     MonthlyOrder findFirstByDeletedFalseOrderByIdDesc();
@@ -1,15 +1,49 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderLineMaterialsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
 import com.example.ludogoriesoft.lukeriaerpapi.models.OrderProduct;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderProductRepository extends JpaRepository<OrderProduct, Long> {
     List<OrderProduct> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO(op.id, op.number, op.orderId.id, op.packageId.id, op.sellingPrice) " +
+            "FROM OrderProduct op WHERE op.deleted = false")
+    List<OrderProductDTO> findAllActiveDTOs();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO(op.id, op.number, op.orderId.id, op.packageId.id, op.sellingPrice) " +
+            "FROM OrderProduct op WHERE op.deleted = false ORDER BY op.id")
+    Stream<OrderProductDTO> streamAllActiveDTOs();
+
     Optional<OrderProduct> findByIdAndDeletedFalse(Long id);
     List<OrderProduct> findAllByOrderId(Order order);
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderLineMaterialsDTO(p.id, op.number, pr.availableQuantity, " +
+            "p.availableQuantity, pl.id, pl.availableQuantity, c.id, c.availableQuantity, p.piecesCarton) " +
+            "FROM OrderProduct op JOIN op.packageId p LEFT JOIN p.plateId pl LEFT JOIN p.cartonId c " +
+            "LEFT JOIN Product pr ON pr.packageId = p AND pr.deleted = false " +
+            "WHERE op.deleted = false AND op.orderId.id = :orderId ORDER BY op.id")
+    List<OrderLineMaterialsDTO> findMaterialsByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO(op.id, op.number, op.orderId.id, op.packageId.id, op.sellingPrice) " +
+            "FROM OrderProduct op WHERE op.deleted = false " +
+            "AND (:cursorId IS NULL OR op.id < :cursorId) " +
+            "AND (:orderId IS NULL OR op.orderId.id = :orderId) " +
+            "ORDER BY op.id DESC")
+    List<OrderProductDTO> findPageOrderedById(@Param("cursorId") Long cursorId,
+                                              @Param("orderId") Long orderId,
+                                              Pageable pageable);
 }
@@ -1,20 +1,58 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByDeletedFalse();
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO(o.id, o.clientId.id, o.orderDate, o.invoiced) " +
+            "FROM Order o WHERE o.deleted = false")
+    List<OrderDTO> findAllActiveDTOs();
+
     Order findFirstByDeletedFalseOrderByIdDesc();
 
     Optional<Order> findByIdAndDeletedFalse(Long id);
     List<Order> findAllByClientId(Client client);
 
-
-
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO(o.id, o.clientId.id, o.orderDate, o.invoiced) " +
+            "FROM Order o WHERE o.deleted = false " +
+            "AND (:cursorId IS NULL OR o.id < :cursorId) " +
+            "AND (:clientId IS NULL OR o.clientId.id = :clientId) " +
+            "AND (:invoiced IS NULL OR o.invoiced = :invoiced) " +
+            "AND (:fromDate IS NULL OR o.orderDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR o.orderDate <= :toDate) " +
+            "ORDER BY o.id DESC")
+    List<OrderDTO> findPageOrderedById(@Param("cursorId") Long cursorId,
+                                       @Param("clientId") Long clientId,
+                                       @Param("invoiced") Boolean invoiced,
+                                       @Param("fromDate") LocalDate fromDate,
+                                       @Param("toDate") LocalDate toDate,
+                                       Pageable pageable);
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO(o.id, o.clientId.id, o.orderDate, o.invoiced) " +
+            "FROM Order o WHERE o.deleted = false AND o.orderDate IS NOT NULL " +
+            "AND (:cursorOrderDate IS NULL OR o.orderDate < :cursorOrderDate " +
+            "OR (o.orderDate = :cursorOrderDate AND o.id < :cursorId)) " +
+            "AND (:clientId IS NULL OR o.clientId.id = :clientId) " +
+            "AND (:invoiced IS NULL OR o.invoiced = :invoiced) " +
+            "AND (:fromDate IS NULL OR o.orderDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR o.orderDate <= :toDate) " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderDTO> findPageOrderedByOrderDate(@Param("cursorOrderDate") LocalDate cursorOrderDate,
+                                              @Param("cursorId") Long cursorId,
+                                              @Param("clientId") Long clientId,
+                                              @Param("invoiced") Boolean invoiced,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              Pageable pageable);
 }
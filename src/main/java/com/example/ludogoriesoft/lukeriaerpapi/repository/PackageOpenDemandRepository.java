@@ -0,0 +1,125 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDemandDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code package_open_demand} holds, per package, the number ordered on order lines that are not deleted and whose
+ * order is neither deleted nor invoiced. Writers keep it current inside their own transaction: line changes go
+ * through {@link #addLine}, an order that opens or closes as a whole through {@link #openOrder}/{@link #closeOrder}.
+ * {@link #rebuild} recomputes it from the orders and corrects any drift.
+ */
+@Repository
+public class PackageOpenDemandRepository {
+
+    private static final String UPSERT = "ON DUPLICATE KEY UPDATE quantity = package_open_demand.quantity + VALUES(quantity)";
+    private static final String ADD_LINE_SQL = "INSERT INTO package_open_demand (package_id, quantity) "
+            + "SELECT ?, ? FROM order_table WHERE id = ? AND is_deleted = FALSE AND is_invoiced = FALSE " + UPSERT;
+    private static final String ADD_ORDER_SQL = "INSERT INTO package_open_demand (package_id, quantity) "
+            + "SELECT package_id, ? * SUM(number) FROM order_product "
+            + "WHERE order_id = ? AND is_deleted = FALSE AND package_id IS NOT NULL GROUP BY package_id " + UPSERT;
+    private static final String FIND_ALL_SQL =
+            "SELECT package_id, quantity FROM package_open_demand WHERE quantity > 0 ORDER BY package_id";
+    private static final String LOCK_ALL_SQL = "SELECT package_id, quantity FROM package_open_demand FOR UPDATE";
+    private static final String RECOMPUTE_SQL = "SELECT op.package_id, SUM(op.number) FROM order_product op "
+            + "JOIN order_table o ON o.id = op.order_id "
+            + "WHERE op.is_deleted = FALSE AND o.is_deleted = FALSE AND o.is_invoiced = FALSE AND op.package_id IS NOT NULL "
+            + "GROUP BY op.package_id";
+    private static final String CORRECT_SQL = "INSERT INTO package_open_demand (package_id, quantity) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PackageOpenDemandRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds {@code quantity} of the package when the order is open; does nothing for a deleted or invoiced order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addLine(Long orderId, Long packageId, Integer quantity) {
+        if (orderId == null || packageId == null || quantity == null || quantity == 0) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.update(ADD_LINE_SQL, packageId, quantity, orderId);
+    }
+
+    /**
+     * Adds the order's active lines. Call when an order stops being deleted or invoiced.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void openOrder(Long orderId) {
+        addOrder(orderId, 1);
+    }
+
+    /**
+     * Removes the order's active lines. Call before an open order is deleted or invoiced.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void closeOrder(Long orderId) {
+        addOrder(orderId, -1);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PackageDemandDTO> findAll() {
+        return jdbcTemplate.query(FIND_ALL_SQL,
+                (resultSet, rowNum) -> new PackageDemandDTO(resultSet.getLong(1), resultSet.getLong(2)));
+    }
+
+    /**
+     * Locks every stored row, and under REPEATABLE READ the gaps between them, before reading the orders. A writer
+     * that changed an order line but has not reached this table yet is left out of the recomputed total and adds its
+     * change on top once the lock is released. Returns the number of packages that had to be corrected.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int rebuild() {
+        Map<Long, Long> stored = quantitiesByPackage(LOCK_ALL_SQL);
+        Map<Long, Long> recomputed = quantitiesByPackage(RECOMPUTE_SQL);
+        Set<Long> packageIds = new HashSet<>(stored.keySet());
+        packageIds.addAll(recomputed.keySet());
+        List<Object[]> corrections = new ArrayList<>();
+        for (Long packageId : packageIds) {
+            long quantity = recomputed.getOrDefault(packageId, 0L);
+            if (quantity != stored.getOrDefault(packageId, 0L)) {
+                corrections.add(new Object[]{packageId, quantity});
+            }
+        }
+        if (!corrections.isEmpty()) {
+            jdbcTemplate.batchUpdate(CORRECT_SQL, corrections);
+        }
+        return corrections.size();
+    }
+
+    private void addOrder(Long orderId, int sign) {
+        if (orderId == null) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.update(ADD_ORDER_SQL, sign, orderId);
+    }
+
+    private Map<Long, Long> quantitiesByPackage(String sql) {
+        Map<Long, Long> quantities = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> quantities.put(resultSet.getLong(1), resultSet.getLong(2)));
+        return quantities;
+    }
+}
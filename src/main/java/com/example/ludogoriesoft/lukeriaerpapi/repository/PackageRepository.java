@@ -1,17 +1,41 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PackageRepository extends JpaRepository<Package, Long> {
+    @CatalogQuery
     List<Package> findByDeletedFalse();
 
+    @CatalogQuery
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO(p.id, p.name, p.englishName, p.availableQuantity, p.cartonId.id, p.plateId.id, p.piecesCarton, p.photo, p.price, p.productCode) " +
+            "FROM Package p WHERE p.deleted = false")
+    List<PackageDTO> findAllActiveDTOs();
+
+    @CatalogQuery
     Optional<Package> findByIdAndDeletedFalse(Long id);
 
+    @CatalogQuery
+    @EntityGraph(Package.STOCK_REPORT_GRAPH)
+    Optional<Package> findStockReportByIdAndDeletedFalse(Long id);
+
+    @CatalogQuery
     Package findFirstByDeletedFalseOrderByIdDesc();
+    @CatalogQuery
     List<Package> findAllByAvailableQuantityLessThan(int quantity);
 
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO(p.id, p.name, p.photo, p.availableQuantity) FROM Package p")
+    List<MaterialDTO> findAllMaterials();
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO(p.id, p.name, p.photo, p.availableQuantity) FROM Package p WHERE p.id IN :ids")
+    List<MaterialDTO> findMaterialsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -2,10 +2,20 @@ package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
 import com.example.ludogoriesoft.lukeriaerpapi.models.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     PasswordResetToken findByToken(String token);
 
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_token WHERE expiry_date < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
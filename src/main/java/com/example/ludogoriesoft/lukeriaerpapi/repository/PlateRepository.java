@@ -1,15 +1,34 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PlateRepository extends JpaRepository<Plate, Long> {
+    @CatalogQuery
     List<Plate> findByDeletedFalse();
 
+    @CatalogQuery
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO(p.id, p.name, p.availableQuantity, p.photo, p.price) " +
+            "FROM Plate p WHERE p.deleted = false")
+    List<PlateDTO> findAllActiveDTOs();
+
+    @CatalogQuery
     Optional<Plate> findByIdAndDeletedFalse(Long id);
 
+    @CatalogQuery
     Plate findFirstByDeletedFalseOrderByIdDesc();
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO(p.id, p.name, p.photo, p.availableQuantity) FROM Plate p")
+    List<MaterialDTO> findAllMaterials();
+
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO(p.id, p.name, p.photo, p.availableQuantity) FROM Plate p WHERE p.id IN :ids")
+    List<MaterialDTO> findMaterialsByIdIn(@Param("ids") Collection<Long> ids);
 }
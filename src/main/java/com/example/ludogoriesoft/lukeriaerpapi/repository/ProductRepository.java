@@ -1,7 +1,9 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -9,16 +11,31 @@ import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    @CatalogQuery
     List<Product> findByDeletedFalse();
 
+    @CatalogQuery
+    @Query("SELECT new com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO(p.id, p.price, p.packageId.id, p.availableQuantity, p.productCode, p.forSale, p.barcode) " +
+            "FROM Product p WHERE p.deleted = false")
+    List<ProductDTO> findAllActiveDTOs();
+
+    @CatalogQuery
     Optional<Product> findByIdAndDeletedFalse(Long id);
 
+    @CatalogQuery
+    @EntityGraph(Product.STOCK_REPORT_GRAPH)
+    Optional<Product> findStockReportByIdAndDeletedFalse(Long id);
+
+    @CatalogQuery
     Optional<Product> findByPackageIdAndDeletedFalse(Package packageEntity);
 
+    @CatalogQuery
     @Query("SELECT p FROM Product p WHERE p.forSale=true")
     List<Product> getProductsForSale();
+    @CatalogQuery
     Product findByPackageId(Package packageId);
 
+    @CatalogQuery
     @Query("SELECT p FROM Product p WHERE p.availableQuantity > 0")
     List<Product> getAvailableProducts();
 }
@@ -3,10 +3,18 @@ package com.example.ludogoriesoft.lukeriaerpapi.repository;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart,Long> {
 
     Optional<ShoppingCart> findByClientId(Client clientId);
+
+    // fetched in the query rather than an entity graph: Hibernate stops applying a graph below the items collection
+    @Query("SELECT sc FROM ShoppingCart sc JOIN FETCH sc.clientId JOIN ClientUser cu ON cu.client = sc.clientId " +
+            "LEFT JOIN FETCH sc.items i LEFT JOIN FETCH i.productId p LEFT JOIN FETCH p.packageId " +
+            "WHERE cu.user.id = :userId AND cu.deleted = false")
+    Optional<ShoppingCart> findByClientUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,14 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+
+/**
+ * Adds {@code delta} (negative to take stock out) to the available quantity of one stock row.
+ */
+public record StockAdjustment(StockItemType type, Long id, int delta) {
+
+    @Override
+    public String toString() {
+        return type + " " + id + " (" + (delta > 0 ? "+" : "") + delta + ")";
+    }
+}
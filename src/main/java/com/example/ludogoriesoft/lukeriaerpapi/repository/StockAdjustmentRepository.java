@@ -0,0 +1,138 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.InsufficientStockException;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CatalogCacheRegions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Changes available quantities with conditional UPDATEs instead of load-modify-save: a row only changes when it
+ * exists and its quantity stays non-negative, so concurrent adjustments neither lose updates nor oversell. Every
+ * call sends one JDBC batch per table, inside the caller's transaction, and appends the applied adjustments to the
+ * {@link StockLedgerRepository stock ledger}.
+ * <p>
+ * The statements bypass Hibernate. Managed copies of adjusted rows are detached, so neither dirty checking nor a
+ * later read in the transaction sees the old quantity, and the rows and cached catalog queries are evicted from the
+ * second-level cache now and again once the transaction completes.
+ */
+@Repository
+public class StockAdjustmentRepository {
+
+    private static final String ADJUST_SQL =
+            "UPDATE %s SET available_quantity = available_quantity + ? WHERE id = ? AND available_quantity + ? >= 0";
+    private static final String LOCK_SQL = "SELECT COALESCE(available_quantity, 0) FROM %s WHERE id = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLedgerRepository stockLedgerRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StockAdjustmentRepository(JdbcTemplate jdbcTemplate, StockLedgerRepository stockLedgerRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockLedgerRepository = stockLedgerRepository;
+    }
+
+    /**
+     * Applies every adjustment that keeps its row non-negative and returns the ones that did not match a row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<StockAdjustment> adjust(StockMovementReason reason, Collection<StockAdjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return List.of();
+        }
+        entityManager.flush();
+        Map<StockItemType, List<StockAdjustment>> byType = adjustments.stream()
+                .collect(Collectors.groupingBy(StockAdjustment::type, () -> new EnumMap<>(StockItemType.class), Collectors.toList()));
+        List<StockAdjustment> applied = new ArrayList<>();
+        List<StockAdjustment> rejected = new ArrayList<>();
+        byType.forEach((type, rows) -> {
+            int[] updated = jdbcTemplate.batchUpdate(ADJUST_SQL.formatted(type.getTable()), rows, rows.size(),
+                    (statement, row) -> {
+                        statement.setInt(1, row.delta());
+                        statement.setLong(2, row.id());
+                        statement.setInt(3, row.delta());
+                    })[0];
+            for (int i = 0; i < rows.size(); i++) {
+                (updated[i] == 0 ? rejected : applied).add(rows.get(i));
+            }
+        });
+        stockLedgerRepository.record(reason, applied);
+        forget(adjustments);
+        return rejected;
+    }
+
+    /**
+     * Like {@link #adjust}, but throws if any adjustment was rejected, which rolls back the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustOrReject(StockMovementReason reason, Collection<StockAdjustment> adjustments) {
+        List<StockAdjustment> rejected = adjust(reason, adjustments);
+        if (!rejected.isEmpty()) {
+            throw new InsufficientStockException(rejected);
+        }
+    }
+
+    /**
+     * Sets the quantity of an existing row, as a manual stock edit does, and records the difference as an
+     * {@link StockMovementReason#ADJUSTMENT}. The row stays locked until the caller's transaction ends, so a concurrent
+     * adjustment can neither slip in between nor be overwritten by the caller's later save.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void setQuantity(StockItemType type, Long id, int quantity) {
+        entityManager.flush();
+        List<Integer> current = jdbcTemplate.queryForList(LOCK_SQL.formatted(type.getTable()), Integer.class, id);
+        if (!current.isEmpty() && current.get(0) != quantity) {
+            adjust(StockMovementReason.ADJUSTMENT, List.of(new StockAdjustment(type, id, quantity - current.get(0))));
+        }
+    }
+
+    /**
+     * Records the quantity a newly created row starts with, so the ledger accounts for all of its stock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOpeningQuantity(StockItemType type, Long id, Integer quantity) {
+        if (quantity != null && quantity != 0) {
+            stockLedgerRepository.record(StockMovementReason.ADJUSTMENT, List.of(new StockAdjustment(type, id, quantity)));
+        }
+    }
+
+    private void forget(Collection<StockAdjustment> adjustments) {
+        for (StockAdjustment adjustment : adjustments) {
+            Object reference = entityManager.getReference(adjustment.type().getEntityClass(), adjustment.id());
+            entityManager.detach(reference);
+        }
+        List<StockAdjustment> adjusted = List.copyOf(adjustments);
+        evict(adjusted);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(adjusted);
+            }
+        });
+    }
+
+    private void evict(List<StockAdjustment> adjustments) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        for (StockAdjustment adjustment : adjustments) {
+            cache.evictEntityData(adjustment.type().getEntityClass(), adjustment.id());
+        }
+        cache.evictQueryRegion(CatalogCacheRegions.QUERIES);
+    }
+}
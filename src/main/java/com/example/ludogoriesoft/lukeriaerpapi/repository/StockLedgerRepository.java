@@ -0,0 +1,94 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only {@code stock_movement} ledger with periodic {@code stock_snapshot}s. Each snapshot holds an item's
+ * quantity up to and including a cutoff movement; the quantity at any moment is the latest snapshot before that moment
+ * plus the movements after its cutoff, read through {@code idx_stock_movement_item_id} without touching the stock
+ * tables.
+ */
+@Repository
+public class StockLedgerRepository {
+
+    private static final String RECORD_SQL =
+            "INSERT INTO stock_movement (item_type, item_id, delta, reason) VALUES (?, ?, ?, ?)";
+    private static final String CUTOFF_SQL = "SELECT id FROM stock_movement WHERE created_at <= ? ORDER BY id DESC LIMIT 1";
+    private static final String SNAPSHOT_SQL = "INSERT INTO stock_snapshot (item_type, item_id, taken_at, last_movement_id, quantity) "
+            + "SELECT ?, i.id, ?, ?, COALESCE(s.quantity, 0) + COALESCE((SELECT SUM(m.delta) FROM stock_movement m "
+            + "WHERE m.item_type = ? AND m.item_id = i.id AND m.id > COALESCE(s.last_movement_id, 0) AND m.id <= ?), 0) "
+            + "FROM %s i LEFT JOIN stock_snapshot s ON s.item_type = ? AND s.item_id = i.id AND s.taken_at = "
+            + "(SELECT MAX(p.taken_at) FROM stock_snapshot p WHERE p.item_type = ? AND p.item_id = i.id AND p.taken_at < ?)";
+    private static final String QUANTITY_AT_SQL = "SELECT s.quantity + COALESCE((SELECT SUM(m.delta) FROM stock_movement m "
+            + "WHERE m.item_type = s.item_type AND m.item_id = s.item_id AND m.id > s.last_movement_id AND m.created_at <= ?), 0) "
+            + "FROM stock_snapshot s WHERE s.item_type = ? AND s.item_id = ? AND s.taken_at <= ? "
+            + "ORDER BY s.taken_at DESC LIMIT 1";
+    private static final String MOVEMENTS_AFTER_SQL = "SELECT id, item_type, item_id FROM stock_movement WHERE id > ? ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockLedgerRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(StockMovementReason reason, Collection<StockAdjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RECORD_SQL, adjustments, adjustments.size(), (statement, adjustment) -> {
+            statement.setString(1, adjustment.type().name());
+            statement.setLong(2, adjustment.id());
+            statement.setInt(3, adjustment.delta());
+            statement.setString(4, reason.name());
+        });
+    }
+
+    /**
+     * Derives a snapshot of every item from the ledger alone: its previous snapshot plus the movements up to the
+     * newest one created at least {@code settle} ago. No stock transaction stays open that long, so every movement up
+     * to that cutoff has committed and each one is counted by exactly one snapshot. Under READ COMMITTED each
+     * INSERT ... SELECT reads as a consistent read instead of share-locking the rows it reads.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int takeSnapshot(Duration settle) {
+        LocalDateTime takenAt = jdbcTemplate.queryForObject("SELECT NOW(6)", LocalDateTime.class).minus(settle);
+        long cutoff = jdbcTemplate.queryForList(CUTOFF_SQL, Long.class, takenAt).stream().findFirst().orElse(0L);
+        int rows = 0;
+        for (StockItemType type : StockItemType.values()) {
+            String item = type.name();
+            rows += jdbcTemplate.update(SNAPSHOT_SQL.formatted(type.getTable()),
+                    item, takenAt, cutoff, item, cutoff, item, item, takenAt);
+        }
+        return rows;
+    }
+
+    /**
+     * Empty when the moment lies before the item's first snapshot.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Integer> quantityAt(StockItemType type, Long id, LocalDateTime at) {
+        return jdbcTemplate.queryForList(QUANTITY_AT_SQL, Integer.class, at, type.name(), id, at).stream().findFirst();
+    }
+
+    public long latestMovementId() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM stock_movement", Long.class);
+    }
+
+    public List<StockMovement> movementsAfter(long afterId) {
+        return jdbcTemplate.query(MOVEMENTS_AFTER_SQL, (rs, rowNum) -> new StockMovement(rs.getLong("id"),
+                StockItemType.valueOf(rs.getString("item_type")), rs.getLong("item_id")), afterId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ludogoriesoft.lukeriaerpapi.repository;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+
+/**
+ * The item a {@code stock_movement} row moved stock of.
+ */
+public record StockMovement(long id, StockItemType type, long itemId) {
+}
@@ -1,9 +1,15 @@
 package com.example.ludogoriesoft.lukeriaerpapi.repository;
 
+import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Token;
 import com.example.ludogoriesoft.lukeriaerpapi.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +17,34 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
     List<Token> findAllByUser(User user);
 
     Optional<Token> findByToken(String token);
-}
 
+    @Query("SELECT t.token AS token, t.user.id AS userId, t.tokenType AS tokenType FROM Token t WHERE t.revoked = false AND t.expired = false")
+    List<ActiveTokenView> findActiveTokens();
+
+    @Query("SELECT t.token AS token, t.user.id AS userId, t.tokenType AS tokenType FROM Token t WHERE t.token = :token AND t.revoked = false AND t.expired = false")
+    Optional<ActiveTokenView> findActiveToken(@Param("token") String token);
+
+    @Query("SELECT t.token FROM Token t WHERE t.user.id = :userId AND t.tokenType = :tokenType")
+    List<String> findTokensByUserIdAndTokenType(@Param("userId") Long userId, @Param("tokenType") TokenType tokenType);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Token t WHERE t.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Rows stored before V37 have no expiry; those already marked expired or revoked can no longer authenticate.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tokens WHERE expires_at < :now "
+            + "OR (expires_at IS NULL AND (expired = true OR revoked = true)) LIMIT :batchSize", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    interface ActiveTokenView {
+        String getToken();
+
+        Long getUserId();
+
+        TokenType getTokenType();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory bill of materials: for every active package, the products made from it and the plate and carton every
+ * produced unit uses. Package and product changes on this instance invalidate it; changes made by other instances
+ * are picked up once it is older than {@code ttl}.
+ */
+@Component
+public class BillOfMaterials {
+
+    private final PackageRepository packageRepository;
+    private final ProductRepository productRepository;
+    private final InvalidatableSnapshot<Map<Long, PackageBom>> packages;
+
+    @Autowired
+    public BillOfMaterials(PackageRepository packageRepository, ProductRepository productRepository,
+                           @Value("${application.mrp.bom-ttl:PT10M}") Duration ttl) {
+        this(packageRepository, productRepository, ttl, System::nanoTime);
+    }
+
+    BillOfMaterials(PackageRepository packageRepository, ProductRepository productRepository, Duration ttl,
+                    LongSupplier nanoClock) {
+        this.packageRepository = packageRepository;
+        this.productRepository = productRepository;
+        this.packages = new InvalidatableSnapshot<>(this::load, ttl, nanoClock);
+    }
+
+    /**
+     * Active packages by id, rebuilt from the catalog when invalidated or expired.
+     */
+    public Map<Long, PackageBom> packages() {
+        return packages.get();
+    }
+
+    public void invalidate() {
+        packages.invalidate();
+    }
+
+    private Map<Long, PackageBom> load() {
+        Map<Long, List<Long>> productsByPackage = new HashMap<>();
+        for (ProductDTO product : productRepository.findAllActiveDTOs()) {
+            if (product.getPackageId() != null) {
+                productsByPackage.computeIfAbsent(product.getPackageId(), id -> new ArrayList<>()).add(product.getId());
+            }
+        }
+        Map<Long, PackageBom> packages = new HashMap<>();
+        for (PackageDTO packageDTO : packageRepository.findAllActiveDTOs()) {
+            packages.put(packageDTO.getId(), new PackageBom(packageDTO.getId(),
+                    List.copyOf(productsByPackage.getOrDefault(packageDTO.getId(), List.of())),
+                    packageDTO.getPlateId(), packageDTO.getCartonId(), packageDTO.getPiecesCarton()));
+        }
+        return Map.copyOf(packages);
+    }
+
+    public record PackageBom(Long packageId, List<Long> productIds, Long plateId, Long cartonId, int piecesCarton) {
+
+        /**
+         * Cartons needed to pack {@code units}; a partly filled carton still takes a whole one.
+         */
+        public long cartonsFor(long units) {
+            return piecesCarton <= 0 ? 0 : (units + piecesCarton - 1) / piecesCarton;
+        }
+    }
+}
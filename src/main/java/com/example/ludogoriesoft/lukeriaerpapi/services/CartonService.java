@@ -1,14 +1,17 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import io.micrometer.common.util.StringUtils;
 import jakarta.validation.ValidationException;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -18,10 +21,11 @@ import java.util.List;
 public class CartonService {
     private final CartonRepository cartonRepository;
     private final ModelMapper modelMapper;
+    private final MaterialRegistry materialRegistry;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
 
     public List<CartonDTO> getAllCartons() {
-        List<Carton> cartons = cartonRepository.findByDeletedFalse();
-        return cartons.stream().map(carton -> modelMapper.map(carton, CartonDTO.class)).toList();
+        return cartonRepository.findAllActiveDTOs();
     }
 
     public CartonDTO getCartonDTOById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -33,6 +37,7 @@ public class CartonService {
         return cartonRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
     }
 
+    @Transactional
     public CartonDTO createCarton(CartonDTO cartonDTO) {
         if (StringUtils.isBlank(cartonDTO.getName())) {
             throw new ValidationException("Name is required");
@@ -48,9 +53,12 @@ public class CartonService {
         }
 
         Carton cartonEntity = cartonRepository.save(modelMapper.map(cartonDTO, Carton.class));
+        stockAdjustmentRepository.recordOpeningQuantity(StockItemType.CARTON, cartonEntity.getId(), cartonEntity.getAvailableQuantity());
+        materialRegistry.invalidate();
         return modelMapper.map(cartonEntity, CartonDTO.class);
     }
 
+    @Transactional
     public CartonDTO updateCarton(Long id, CartonDTO cartonDTO) throws ChangeSetPersister.NotFoundException {
         Carton existingCarton = cartonRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
         if (StringUtils.isBlank(cartonDTO.getName())) {
@@ -65,11 +73,13 @@ public class CartonService {
         if (cartonDTO.getPrice().doubleValue() <= 0 ) {
             throw new ValidationException("Price must be greater than zero");
         }
+        stockAdjustmentRepository.setQuantity(StockItemType.CARTON, existingCarton.getId(), cartonDTO.getAvailableQuantity());
         existingCarton.setName(cartonDTO.getName());
         existingCarton.setSize(cartonDTO.getSize());
         existingCarton.setAvailableQuantity(cartonDTO.getAvailableQuantity());
         existingCarton.setPrice(cartonDTO.getPrice());
         Carton updatedCarton = cartonRepository.save(existingCarton);
+        materialRegistry.invalidate();
         updatedCarton.setId(id);
         return modelMapper.map(updatedCarton, CartonDTO.class);
     }
@@ -11,6 +11,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,6 +23,7 @@ public class ClientService {
     private final ModelMapper modelMapper;
     private final ShoppingCartRepository shoppingCartRepository;
 
+    @Transactional(readOnly = true)
     public List<ClientDTO> getAllClients() {
         List<Client> clients = clientRepository.findByDeletedFalse();
         return clients.stream().map(client -> modelMapper.map(client, ClientDTO.class)).toList();
@@ -16,6 +16,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
@@ -25,11 +26,11 @@ public class ClientUserService {
     private final ClientRepository clientRepository;
     private final ModelMapper modelMapper;
 
+    @Transactional(readOnly = true)
     public List<ClientUserDTO> getAllClientUsers() {
-        List<ClientUser> clientUsers = clientUserRepository.findByDeletedFalse();
-        return clientUsers.stream()
-                .map(clientUser -> modelMapper.map(clientUser, ClientUserDTO.class)).toList();
+        return clientUserRepository.findAllActiveDTOs();
     }
+    @Transactional(readOnly = true)
     public List<ClientDTO> getAllClientsNotInClientUserHelper() {
         List<Client> allClients = clientRepository.findAll();
         List<ClientUser> clientUsers = clientUserRepository.findAll();
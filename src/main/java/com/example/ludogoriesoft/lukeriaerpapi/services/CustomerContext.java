@@ -0,0 +1,14 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
+import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CustomerContext {
+    private final Long userId;
+    private final Client client;
+    private final ShoppingCart shoppingCart;
+}
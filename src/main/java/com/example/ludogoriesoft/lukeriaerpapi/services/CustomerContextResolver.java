@@ -0,0 +1,51 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ShoppingCartRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the authenticated customer's client and shopping cart with a single query
+ * and keeps the result on the current request, so later lookups in the same request are free.
+ */
+@Component
+@AllArgsConstructor
+public class CustomerContextResolver {
+
+    static final String CUSTOMER_CONTEXT_ATTRIBUTE = CustomerContext.class.getName();
+
+    private final UserService userService;
+    private final ShoppingCartRepository shoppingCartRepository;
+
+    public CustomerContext resolve() throws ChangeSetPersister.NotFoundException {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CUSTOMER_CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CustomerContext customerContext) {
+            return customerContext;
+        }
+
+        Long userId = authenticatedUserId();
+        ShoppingCart shoppingCart = shoppingCartRepository.findByClientUserId(userId).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        CustomerContext customerContext = new CustomerContext(userId, shoppingCart.getClientId(), shoppingCart);
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CUSTOMER_CONTEXT_ATTRIBUTE, customerContext, RequestAttributes.SCOPE_REQUEST);
+        }
+        return customerContext;
+    }
+
+    private Long authenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return user.getId();
+        }
+        return userService.findAuthenticatedUser().getId();
+    }
+}
@@ -14,6 +14,7 @@ import org.apache.poi.sl.draw.geom.GuideIf;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -72,9 +73,9 @@ public class CustomerCustomPriceService {
         return modelMapper.map(updatedCustomPrice, CustomerCustomPriceDTO.class);
     }
 
+    @Transactional(readOnly = true)
     public List<CustomerCustomPriceDTO> getAllCustomPrices() {
-        List<CustomerCustomPrice> allCustomPrices = customerCustomPriceRepository.findByDeletedFalse();
-        return allCustomPrices.stream().map(customPrice -> modelMapper.map(customPrice, CustomerCustomPriceDTO.class)).toList();
+        return customerCustomPriceRepository.findAllActiveDTOs();
     }
 
     public CustomerCustomPriceDTO delete(Long clientId, Long productId) throws ChangeSetPersister.NotFoundException {
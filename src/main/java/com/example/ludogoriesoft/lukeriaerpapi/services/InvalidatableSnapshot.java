@@ -0,0 +1,59 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A value loaded from the catalog and kept until it is invalidated or older than {@code ttl}. Concurrent callers
+ * that find it stale may each rebuild it; the last one to finish wins.
+ */
+final class InvalidatableSnapshot<T> {
+
+    private final Supplier<T> loader;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Built<T> built;
+
+    InvalidatableSnapshot(Supplier<T> loader, Duration ttl, LongSupplier nanoClock) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * The current value, rebuilt first when it was invalidated or has expired.
+     */
+    T get() {
+        return current(ttlNanos).value;
+    }
+
+    /**
+     * Like {@link #get()}, but also rebuilds a value that is at least {@code age} old.
+     */
+    T rebuildIfOlderThan(Duration age) {
+        return current(Math.min(age.toNanos(), ttlNanos)).value;
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private Built<T> current(long maxAgeNanos) {
+        long now = nanoClock.getAsLong();
+        Built<T> current = built;
+        if (current != null && current.generation == generation.get() && now - current.builtAt < maxAgeNanos) {
+            return current;
+        }
+        // read the generation before loading, so an invalidation that races with the load forces another rebuild
+        long loadedGeneration = generation.get();
+        current = new Built<>(loader.get(), loadedGeneration, now);
+        built = current;
+        return current;
+    }
+
+    private record Built<T>(T value, long generation, long builtAt) {
+    }
+}
@@ -11,6 +11,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -26,12 +27,11 @@ public class InvoiceOrderProductService {
     private final ClientRepository clientRepository;
     private final InvoiceRepository invoiceRepository;
     private final ModelMapper modelMapper;
+    private final PackageOpenDemandRepository packageOpenDemandRepository;
 
+    @Transactional(readOnly = true)
     public List<InvoiceOrderProductDTO> getAllInvoiceOrderProducts() {
-        List<InvoiceOrderProduct> invoiceOrderProducts = invoiceOrderProductRepository.findByDeletedFalse();
-        return invoiceOrderProducts.stream()
-                .map(invoiceOrderProduct -> modelMapper.map(invoiceOrderProduct, InvoiceOrderProductDTO.class))
-                .toList();
+        return invoiceOrderProductRepository.findAllActiveDTOs();
     }
 
     public InvoiceOrderProductDTO getInvoiceOrderProductById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -65,6 +65,7 @@ public class InvoiceOrderProductService {
         }
     }
 
+    @Transactional
     public InvoiceOrderProductDTO createInvoiceOrderProduct(InvoiceOrderProductDTO invoiceOrderProductDTO) {
         InvoiceOrderProduct invoiceOrderProduct = invoiceOrderProductRepository.save(modelMapper.map(invoiceOrderProductDTO, InvoiceOrderProduct.class));
 
@@ -72,12 +73,16 @@ public class InvoiceOrderProductService {
         Optional<Order> order = orderRepository.findByIdAndDeletedFalse(orderProductId);
         if (order.isPresent()) {
             Order orderForSave = order.get();
+            if (!orderForSave.isInvoiced()) {
+                packageOpenDemandRepository.closeOrder(orderForSave.getId());
+            }
             orderForSave.setInvoiced(true);
             orderRepository.save(orderForSave);
         }
         return modelMapper.map(invoiceOrderProduct, InvoiceOrderProductDTO.class);
     }
 
+    @Transactional
     public String createInvoiceOrderProductWithIds(InvoiceOrderProductConfigDTO configDTO) {
         List<Long> orderProductIds = configDTO.getOrderProductIds();
         Long invoiceId = configDTO.getInvoiceId();
@@ -91,6 +96,10 @@ public class InvoiceOrderProductService {
 
             if (orderProductOptional.isPresent()) {
                 OrderProduct orderProduct = orderProductOptional.get();
+                if (orderProduct.getOrderId() != null && orderProduct.getPackageId() != null && orderProduct.getNumber() != null) {
+                    packageOpenDemandRepository.addLine(orderProduct.getOrderId().getId(), orderProduct.getPackageId().getId(),
+                            sellingQuality.get(i) - orderProduct.getNumber());
+                }
                 orderProduct.setSellingPrice(sellingPrices.get(i));
                 orderProduct.setNumber(sellingQuality.get(i));
                 orderProductRepository.save(orderProduct);
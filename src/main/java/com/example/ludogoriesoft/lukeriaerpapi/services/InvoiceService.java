@@ -1,6 +1,7 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Invoice;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.InvoiceRepository;
 import jakarta.validation.ValidationException;
@@ -8,9 +9,13 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -19,6 +24,7 @@ public class InvoiceService {
     public static final Long FIRST_INVOICE_NUMBER_ABROAD = 1000000300L;
     private final InvoiceRepository invoiceRepository;
     private final ModelMapper modelMapper;
+    private final JsonStreamWriter jsonStreamWriter;
 
     public Long findLastInvoiceNumberStartingWithTwo() {
         Long lastInvoiceNumber = invoiceRepository.findLastInvoiceNumber();
@@ -36,9 +42,16 @@ public class InvoiceService {
         return lastInvoiceNumber + 1;
     }
 
+    @Transactional(readOnly = true)
     public List<InvoiceDTO> getAllInvoices() {
-        List<Invoice> invoices = invoiceRepository.findByDeletedFalse();
-        return invoices.stream().map(invoice -> modelMapper.map(invoice, InvoiceDTO.class)).toList();
+        return invoiceRepository.findAllActiveDTOs();
+    }
+
+    @Transactional(readOnly = true)
+    public long exportInvoices(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<InvoiceDTO> invoices = invoiceRepository.streamAllActiveDTOs()) {
+            return jsonStreamWriter.write(invoices, outputStream, format);
+        }
     }
 
     public InvoiceDTO getInvoiceById(Long id) throws ChangeSetPersister.NotFoundException {
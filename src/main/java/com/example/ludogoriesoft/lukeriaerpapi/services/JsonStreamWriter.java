@@ -0,0 +1,58 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes rows to the response as they come off the database cursor, either one JSON document per
+ * line (NDJSON) or as a single JSON array. The first row is flushed right away and then every
+ * {@link #FLUSH_EVERY} rows, so nothing but the current row is held in memory.
+ */
+@Component
+public class JsonStreamWriter {
+
+    static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public JsonStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <T> long write(Stream<T> rows, OutputStream outputStream, ExportFormat format) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (format == ExportFormat.JSON) {
+                generator.writeStartArray();
+            }
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                if (format == ExportFormat.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                written++;
+                if (written == 1 || written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            if (format == ExportFormat.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
+import jakarta.validation.ValidationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Keyset pages are read with one extra row; its presence tells whether another page exists
+ * without a count query.
+ */
+final class KeysetPages {
+
+    static final int DEFAULT_SIZE = 50;
+    static final int MAX_SIZE = 500;
+
+    private KeysetPages() {
+    }
+
+    static int resolveSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    static Pageable lookahead(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    static <T> KeysetPageDTO<T> toPage(List<T> rows, int size) {
+        if (rows.size() > size) {
+            return new KeysetPageDTO<>(rows.subList(0, size), true);
+        }
+        return new KeysetPageDTO<>(rows, false);
+    }
+}
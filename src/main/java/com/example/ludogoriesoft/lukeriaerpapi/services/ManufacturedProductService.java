@@ -2,6 +2,7 @@ package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ManufacturedProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ManufacturedProduct;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ManufacturedProductRepository;
@@ -10,10 +11,14 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -22,6 +27,7 @@ public class ManufacturedProductService {
     private final ManufacturedProductRepository manufacturedProductRepository;
     private final ProductRepository productRepository;
     private final ModelMapper modelMapper;
+    private final JsonStreamWriter jsonStreamWriter;
 
     public ManufacturedProduct createManufacturedProduct(ManufacturedProduct manufacturedProduct) {
         manufacturedProduct.setManufacture_date(LocalDateTime.now()); // Set the current date
@@ -34,12 +40,20 @@ public class ManufacturedProductService {
         return manufacturedProductRepository.save(manufacturedProduct);
     }
 
+    @Transactional(readOnly = true)
     public List<ManufacturedProductDTO> getAllManufacturedProducts() {
         List<ManufacturedProduct> manufacturedProducts = manufacturedProductRepository.findAll();
         return manufacturedProducts.stream()
                 .map(product -> modelMapper.map(product, ManufacturedProductDTO.class)).toList();
     }
 
+    @Transactional(readOnly = true)
+    public long exportManufacturedProducts(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<ManufacturedProductDTO> manufacturedProducts = manufacturedProductRepository.streamAllDTOs()) {
+            return jsonStreamWriter.write(manufacturedProducts, outputStream, format);
+        }
+    }
+
     public Optional<ManufacturedProduct> getManufacturedProductById(Long id) {
         return manufacturedProductRepository.findById(id);
     }
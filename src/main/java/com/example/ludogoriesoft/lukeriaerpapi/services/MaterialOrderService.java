@@ -1,68 +1,82 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDetailsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialReceiptDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderLineMaterialsDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
-import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class MaterialOrderService {
     private final MaterialOrderRepository materialOrderRepository;
     private final ProductRepository productRepository;
-    private final CartonRepository cartonRepository;
+    private final MaterialRegistry materialRegistry;
     private final PackageRepository packageRepository;
-    private final PlateRepository plateRepository;
     private final OrderProductRepository orderProductRepository;
     private final ModelMapper modelMapper;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final PackageOpenDemandRepository packageOpenDemandRepository;
 
 
+    @Transactional(readOnly = true)
     public List<MaterialOrderDTO> getAllMaterialOrders() {
         List<MaterialOrder> materialOrders = materialOrderRepository.findByDeletedFalse();
         return materialOrders.stream().map(materialOrder -> modelMapper.map(materialOrder, MaterialOrderDTO.class)).toList();
     }
 
+    @Transactional(readOnly = true)
+    public List<MaterialOrderDetailsDTO> getAllMaterialOrderDetails() {
+        List<MaterialOrder> materialOrders = materialOrderRepository.findByDeletedFalse();
+        Map<MaterialType, Set<Long>> materialIds = new EnumMap<>(MaterialType.class);
+        for (MaterialOrder materialOrder : materialOrders) {
+            if (materialOrder.getMaterialType() != null && materialOrder.getMaterialId() != null) {
+                materialIds.computeIfAbsent(materialOrder.getMaterialType(), type -> new HashSet<>()).add(materialOrder.getMaterialId());
+            }
+        }
+        Map<MaterialType, Map<Long, MaterialDTO>> materials = new EnumMap<>(MaterialType.class);
+        materialIds.forEach((materialType, ids) -> materials.put(materialType, materialRegistry.load(materialType, ids)));
+        return materialOrders.stream().map(materialOrder -> {
+            MaterialOrderDetailsDTO details = modelMapper.map(materialOrder, MaterialOrderDetailsDTO.class);
+            MaterialDTO material = materials.getOrDefault(materialOrder.getMaterialType(), Map.of()).get(materialOrder.getMaterialId());
+            if (material != null) {
+                details.setMaterialName(material.getName());
+                details.setMaterialPhoto(material.getPhoto());
+                details.setMaterialAvailableQuantity(material.getAvailableQuantity());
+            }
+            return details;
+        }).toList();
+    }
+
     public MaterialOrderDTO getMaterialOrderById(Long id) throws ChangeSetPersister.NotFoundException {
         MaterialOrder materialOrder = materialOrderRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
         return modelMapper.map(materialOrder, MaterialOrderDTO.class);
     }
 
+    @Transactional
     public MaterialOrderDTO updateMaterialOrder(Long id, MaterialOrderDTO materialOrderDTO) throws ChangeSetPersister.NotFoundException {
         validate(materialOrderDTO);
-        Optional<Package> aPackage = Optional.empty();
-        Optional<Plate> plate = Optional.empty();
-        Optional<Carton> carton = Optional.empty();
         MaterialOrder existingMaterialOrder = materialOrderRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(ChangeSetPersister.NotFoundException::new);
         if (existingMaterialOrder.getReceivedQuantity() != null) {
-            if (existingMaterialOrder.getMaterialType().equals(MaterialType.PACKAGE)) {
-                aPackage = packageRepository.findByIdAndDeletedFalse(existingMaterialOrder.getMaterialId());
-            } else if (existingMaterialOrder.getMaterialType().equals(MaterialType.PLATE)) {
-                plate = plateRepository.findByIdAndDeletedFalse(existingMaterialOrder.getMaterialId());
-            } else if (existingMaterialOrder.getMaterialType().equals(MaterialType.CARTON)) {
-                carton = cartonRepository.findByIdAndDeletedFalse(existingMaterialOrder.getMaterialId());
-            }
-            if (aPackage.isPresent()) {
-                aPackage.get().setAvailableQuantity(aPackage.get().getAvailableQuantity() - existingMaterialOrder.getReceivedQuantity() + materialOrderDTO.getReceivedQuantity());
-                packageRepository.save(aPackage.get());
-            } else if (plate.isPresent()) {
-                plate.get().setAvailableQuantity(plate.get().getAvailableQuantity() - existingMaterialOrder.getReceivedQuantity() + materialOrderDTO.getReceivedQuantity());
-                plateRepository.save(plate.get());
-            } else if (carton.isPresent()) {
-                carton.get().setAvailableQuantity(carton.get().getAvailableQuantity() - existingMaterialOrder.getReceivedQuantity() + materialOrderDTO.getReceivedQuantity());
-                cartonRepository.save(carton.get());
-            }
+            stockAdjustmentRepository.adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(new StockAdjustment(
+                    StockItemType.of(existingMaterialOrder.getMaterialType()),
+                    existingMaterialOrder.getMaterialId(),
+                    materialOrderDTO.getReceivedQuantity() - existingMaterialOrder.getReceivedQuantity())));
         }
         MaterialOrder updatedMaterialOrder = modelMapper.map(materialOrderDTO, MaterialOrder.class);
         updatedMaterialOrder.setId(existingMaterialOrder.getId());
@@ -73,22 +87,60 @@ public class MaterialOrderService {
         return modelMapper.map(updatedMaterialOrder, MaterialOrderDTO.class);
     }
 
+    @Transactional
+    public List<MaterialOrderDTO> receiveMaterialOrders(List<MaterialReceiptDTO> receipts) throws ChangeSetPersister.NotFoundException {
+        Map<Long, MaterialReceiptDTO> receiptsByOrder = new HashMap<>();
+        for (MaterialReceiptDTO receipt : receipts) {
+            if (receipt.getMaterialOrderId() == null) {
+                throw new ValidationException("Material order ID cannot be null");
+            }
+            if (receipt.getReceivedQuantity() == null || receipt.getReceivedQuantity() < 0) {
+                throw new ValidationException("Received quantity must be zero or greater");
+            }
+            if (receiptsByOrder.put(receipt.getMaterialOrderId(), receipt) != null) {
+                throw new ValidationException("Material order " + receipt.getMaterialOrderId() + " is received more than once");
+            }
+        }
+        if (receiptsByOrder.isEmpty()) {
+            throw new ValidationException("No material orders to receive");
+        }
+        List<MaterialOrder> materialOrders = materialOrderRepository.findAllByIdInAndDeletedFalse(receiptsByOrder.keySet());
+        if (materialOrders.size() != receiptsByOrder.size()) {
+            throw new ChangeSetPersister.NotFoundException();
+        }
+        Set<MaterialRegistry.MaterialKey> materials = new HashSet<>();
+        for (MaterialOrder materialOrder : materialOrders) {
+            materials.add(new MaterialRegistry.MaterialKey(materialOrder.getMaterialType(), materialOrder.getMaterialId()));
+        }
+        Set<MaterialRegistry.MaterialKey> resolved = materialRegistry.resolve(materials).keySet();
+        for (MaterialRegistry.MaterialKey material : materials) {
+            if (!resolved.contains(material)) {
+                throw new ValidationException("Invalid " + material.materialType() + " ID: " + material.materialId());
+            }
+        }
+        List<StockAdjustment> adjustments = new ArrayList<>();
+        for (MaterialOrder materialOrder : materialOrders) {
+            MaterialReceiptDTO receipt = receiptsByOrder.get(materialOrder.getId());
+            int delta = receipt.getReceivedQuantity() - Objects.requireNonNullElse(materialOrder.getReceivedQuantity(), 0);
+            if (delta != 0) {
+                adjustments.add(new StockAdjustment(StockItemType.of(materialOrder.getMaterialType()), materialOrder.getMaterialId(), delta));
+            }
+            materialOrder.setReceivedQuantity(receipt.getReceivedQuantity());
+            if (receipt.getArrivalDate() != null) {
+                materialOrder.setArrivalDate(receipt.getArrivalDate());
+            }
+        }
+        stockAdjustmentRepository.adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, adjustments);
+        return materialOrders.stream().map(materialOrder -> modelMapper.map(materialOrder, MaterialOrderDTO.class)).toList();
+    }
+
     @Transactional
     public void increaseProductsQuantity(MaterialOrder updatedMaterialOrder) {
         if (updatedMaterialOrder.getReceivedQuantity() != null) {
-            if (updatedMaterialOrder.getMaterialType().equals(MaterialType.CARTON)) {
-                Carton carton = cartonRepository.findById(updatedMaterialOrder.getMaterialId()).orElseThrow(EntityNotFoundException::new);
-                carton.setAvailableQuantity(carton.getAvailableQuantity() + updatedMaterialOrder.getReceivedQuantity());
-                cartonRepository.save(carton);
-            } else if (updatedMaterialOrder.getMaterialType().equals(MaterialType.PLATE)) {
-                Plate plate = plateRepository.findById(updatedMaterialOrder.getMaterialId()).orElseThrow(EntityNotFoundException::new);
-                plate.setAvailableQuantity(plate.getAvailableQuantity() + updatedMaterialOrder.getReceivedQuantity());
-                plateRepository.save(plate);
-            } else {
-                Package aPackage = packageRepository.findById(updatedMaterialOrder.getMaterialId()).orElseThrow(EntityNotFoundException::new);
-                aPackage.setAvailableQuantity(aPackage.getAvailableQuantity() + updatedMaterialOrder.getReceivedQuantity());
-                packageRepository.save(aPackage);
-            }
+            stockAdjustmentRepository.adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(new StockAdjustment(
+                    StockItemType.of(updatedMaterialOrder.getMaterialType()),
+                    updatedMaterialOrder.getMaterialId(),
+                    updatedMaterialOrder.getReceivedQuantity())));
         }
     }
 
@@ -109,58 +161,60 @@ public class MaterialOrderService {
         if (materialOrderDTO.getMaterialId() == null) {
             throw new ValidationException("Material ID cannot be null");
         }
-        String materialTypeStr = materialOrderDTO.getMaterialType();
-        switch (materialTypeStr) {
-            case "CARTON" -> {
-                if (!cartonRepository.existsById(materialOrderDTO.getMaterialId())) {
-                    throw new ValidationException("Invalid Carton ID: "+materialOrderDTO.getMaterialId());
-                }
-            }
-            case "PACKAGE" -> {
-                if (!packageRepository.existsById(materialOrderDTO.getMaterialId())) {
-                    throw new ValidationException("Invalid Package ID: "+materialOrderDTO.getMaterialId());
-                }
-            }
-            case "PLATE" -> {
-                if (!plateRepository.existsById(materialOrderDTO.getMaterialId())) {
-                    throw new ValidationException("Invalid Plate ID : "+materialOrderDTO.getMaterialId());
-                }
-            }
-            default -> throw new ValidationException("Invalid Material Type");
+        MaterialType materialType = parseMaterialType(materialOrderDTO.getMaterialType());
+        if (!materialRegistry.contains(materialType, materialOrderDTO.getMaterialId())) {
+            String material = switch (materialType) {
+                case CARTON -> "Carton";
+                case PACKAGE -> "Package";
+                case PLATE -> "Plate";
+            };
+            throw new ValidationException("Invalid " + material + " ID: " + materialOrderDTO.getMaterialId());
         }
         if (materialOrderDTO.getOrderedQuantity() <= 0) {
             throw new ValidationException("Ordered Quantity must be greater than zero");
         }
     }
 
-    public List<MaterialOrderDTO> getAllOrderProductsByOrderId(Long orderId) {
-        List<OrderProduct> filteredOrderProducts = orderProductRepository.findByDeletedFalse().stream()
-                .filter(orderProduct -> orderProduct.getOrderId().getId().equals(orderId)).toList();
-        return getProductsByPackageId(filteredOrderProducts);
+    private static MaterialType parseMaterialType(String materialType) {
+        try {
+            return MaterialType.valueOf(materialType);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ValidationException("Invalid Material Type");
+        }
     }
 
-    public List<MaterialOrderDTO> getProductsByPackageId(List<OrderProduct> orderProducts) {
+    @Transactional(readOnly = true)
+    public List<MaterialOrderDTO> getAllOrderProductsByOrderId(Long orderId) {
         List<MaterialOrderDTO> materialsForOrder = new ArrayList<>();
-        for (OrderProduct orderProduct : orderProducts) {
-            Package packageEntity = orderProduct.getPackageId();
-            Product product = productRepository.findByPackageIdAndDeletedFalse(packageEntity)
-                    .orElseThrow(() -> new RuntimeException("Продуктът не беше намерен"));
-            if (product.getAvailableQuantity() < orderProduct.getNumber()) {
-                if (calculatePlateInsufficientNumbers(packageEntity) < orderProduct.getNumber()) {
-                    createMaterialOrder(MaterialType.PLATE, packageEntity.getPlateId().getId(), calculatePlateInsufficientNumbers(packageEntity) - orderProduct.getNumber(), materialsForOrder);
-                }
-                if (calculateCartonInsufficientNumbers(packageEntity) < orderProduct.getNumber()) {
-                    createMaterialOrder(MaterialType.CARTON, packageEntity.getCartonId().getId(),
-                            (calculateCartonInsufficientNumbers(packageEntity) / packageEntity.getPiecesCarton()) - (orderProduct.getNumber() / packageEntity.getPiecesCarton()), materialsForOrder);
-                }
-                if (calculatePackageInsufficientNumbers(packageEntity) < orderProduct.getNumber()) {
-                    createMaterialOrder(MaterialType.PACKAGE, packageEntity.getId(), calculatePackageInsufficientNumbers(packageEntity) - orderProduct.getNumber(), materialsForOrder);
-                }
-            }
+        for (OrderLineMaterialsDTO line : orderProductRepository.findMaterialsByOrderId(orderId)) {
+            addMissingMaterials(line, materialsForOrder);
         }
         return materialsForOrder;
     }
 
+    private void addMissingMaterials(OrderLineMaterialsDTO line, List<MaterialOrderDTO> materialsForOrder) {
+        if (line.getProductQuantity() == null) {
+            throw new RuntimeException("Продуктът не беше намерен");
+        }
+        int number = line.getNumber();
+        if (line.getProductQuantity() >= number) {
+            return;
+        }
+        int plates = Objects.requireNonNull(line.getPlateQuantity(), "Няма посочени бройки на тарелка");
+        if (plates < number) {
+            createMaterialOrder(MaterialType.PLATE, line.getPlateId(), plates - number, materialsForOrder);
+        }
+        int piecesCarton = line.getPiecesCarton();
+        int cartonPieces = line.getCartonQuantity() * piecesCarton;
+        if (cartonPieces < number) {
+            createMaterialOrder(MaterialType.CARTON, line.getCartonId(),
+                    (cartonPieces / piecesCarton) - (number / piecesCarton), materialsForOrder);
+        }
+        if (line.getPackageQuantity() < number) {
+            createMaterialOrder(MaterialType.PACKAGE, line.getPackageId(), line.getPackageQuantity() - number, materialsForOrder);
+        }
+    }
+
     public int calculateCartonInsufficientNumbers(Package packageEntity) {
         int piecesCarton = Optional.of(packageEntity.getPiecesCarton())
                 .orElseThrow(() -> new RuntimeException("Няма посочени бройки в кашон"));
@@ -187,27 +241,20 @@ public class MaterialOrderService {
         materialsForOrder.add(materialOrderDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<MaterialOrderDTO> allOrderedProducts() {
-        List<OrderProduct> orderProducts = orderProductRepository.findAll();
-
-        Map<Long, Integer> packageIdToTotalNumberMap = orderProducts.stream()
-                .filter(orderProduct -> orderProduct.getPackageId() != null && !orderProduct.getOrderId().isInvoiced())
-                .collect(Collectors.groupingBy(
-                        orderProduct -> orderProduct.getPackageId().getId(),
-                        Collectors.summingInt(OrderProduct::getNumber)
-                ));
-
-        return packageIdToTotalNumberMap.entrySet().stream()
-                .map(entry -> {
+        return packageOpenDemandRepository.findAll().stream()
+                .map(demand -> {
                     MaterialOrderDTO materialOrderDTO = new MaterialOrderDTO();
-                    materialOrderDTO.setMaterialId(entry.getKey());
-                    materialOrderDTO.setOrderedQuantity(entry.getValue());
+                    materialOrderDTO.setMaterialId(demand.getPackageId());
+                    materialOrderDTO.setOrderedQuantity(Math.toIntExact(demand.getQuantity()));
                     return materialOrderDTO;
                 })
                 .toList();
     }
 
 
+    @Transactional(readOnly = true)
     public List<MaterialOrderDTO> allMissingMaterials(List<MaterialOrderDTO> allNeedsMaterialOrders) {
         List<MaterialOrderDTO> allMaterialsForAllOrders = new ArrayList<>();
         for (MaterialOrderDTO allNeedsMaterialOrder : allNeedsMaterialOrders) {
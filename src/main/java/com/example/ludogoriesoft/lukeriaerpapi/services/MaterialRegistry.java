@@ -0,0 +1,125 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory index of every carton, plate and package, deleted ones included, so a {@code (MaterialType, id)} pair
+ * resolves without a query. Catalog changes on this instance invalidate it; a lookup that misses rebuilds it, at most
+ * once a second, so materials created by other instances are found as well. Stock is never served from the index:
+ * {@link #load} reads it fresh with one query per material type.
+ */
+@Component
+public class MaterialRegistry {
+
+    private static final Duration MISS_REBUILD_INTERVAL = Duration.ofSeconds(1);
+
+    private final CartonRepository cartonRepository;
+    private final PlateRepository plateRepository;
+    private final PackageRepository packageRepository;
+    private final InvalidatableSnapshot<Index> index;
+
+    @Autowired
+    public MaterialRegistry(CartonRepository cartonRepository, PlateRepository plateRepository,
+                            PackageRepository packageRepository,
+                            @Value("${application.material-registry.ttl:PT10M}") Duration ttl) {
+        this(cartonRepository, plateRepository, packageRepository, ttl, System::nanoTime);
+    }
+
+    MaterialRegistry(CartonRepository cartonRepository, PlateRepository plateRepository,
+                     PackageRepository packageRepository, Duration ttl, LongSupplier nanoClock) {
+        this.cartonRepository = cartonRepository;
+        this.plateRepository = plateRepository;
+        this.packageRepository = packageRepository;
+        this.index = new InvalidatableSnapshot<>(this::loadAll, ttl, nanoClock);
+    }
+
+    public boolean contains(MaterialType materialType, Long materialId) {
+        return !resolve(List.of(new MaterialKey(materialType, materialId))).isEmpty();
+    }
+
+    /**
+     * The materials found for {@code keys}; keys that match no material are left out.
+     */
+    public Map<MaterialKey, Material> resolve(Collection<MaterialKey> keys) {
+        Map<MaterialKey, Material> resolved = index.get().lookup(keys);
+        if (!resolved.keySet().containsAll(keys)) {
+            resolved = index.rebuildIfOlderThan(MISS_REBUILD_INTERVAL).lookup(keys);
+        }
+        return resolved;
+    }
+
+    /**
+     * Name, photo and stock of the given materials of one type, read in a single query.
+     */
+    public Map<Long, MaterialDTO> load(MaterialType materialType, Collection<Long> materialIds) {
+        Map<Long, MaterialDTO> materials = new HashMap<>();
+        if (materialIds.isEmpty()) {
+            return materials;
+        }
+        List<MaterialDTO> found = switch (materialType) {
+            case CARTON -> cartonRepository.findMaterialsByIdIn(materialIds);
+            case PLATE -> plateRepository.findMaterialsByIdIn(materialIds);
+            case PACKAGE -> packageRepository.findMaterialsByIdIn(materialIds);
+        };
+        for (MaterialDTO material : found) {
+            materials.put(material.getId(), material);
+        }
+        return materials;
+    }
+
+    public void invalidate() {
+        index.invalidate();
+    }
+
+    private Index loadAll() {
+        Map<MaterialType, Map<Long, Material>> materials = new EnumMap<>(MaterialType.class);
+        materials.put(MaterialType.CARTON, byId(MaterialType.CARTON, cartonRepository.findAllMaterials()));
+        materials.put(MaterialType.PLATE, byId(MaterialType.PLATE, plateRepository.findAllMaterials()));
+        materials.put(MaterialType.PACKAGE, byId(MaterialType.PACKAGE, packageRepository.findAllMaterials()));
+        return new Index(materials);
+    }
+
+    private static Map<Long, Material> byId(MaterialType materialType, List<MaterialDTO> materials) {
+        Map<Long, Material> byId = new HashMap<>();
+        for (MaterialDTO material : materials) {
+            byId.put(material.getId(), new Material(materialType, material.getId(), material.getName(), material.getPhoto()));
+        }
+        return Map.copyOf(byId);
+    }
+
+    public record MaterialKey(MaterialType materialType, Long materialId) {
+    }
+
+    public record Material(MaterialType materialType, Long materialId, String name, String photo) {
+    }
+
+    private record Index(Map<MaterialType, Map<Long, Material>> materials) {
+
+        Map<MaterialKey, Material> lookup(Collection<MaterialKey> keys) {
+            Map<MaterialKey, Material> found = new HashMap<>();
+            for (MaterialKey key : keys) {
+                Material material = key.materialType() == null || key.materialId() == null
+                        ? null : materials.get(key.materialType()).get(key.materialId());
+                if (material != null) {
+                    found.put(key, material);
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialQuantityDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDemandDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Explodes the open demand of all orders through the {@link BillOfMaterials} in one pass. Product stock is netted
+ * per package first; what is left to produce is summed per package, plate and carton, so packages that share a plate
+ * or carton order it once. Stock on hand and material orders that are not received yet are subtracted last.
+ */
+@Service
+@AllArgsConstructor
+public class MaterialRequirementsService {
+    private final BillOfMaterials billOfMaterials;
+    private final PackageOpenDemandRepository packageOpenDemandRepository;
+    private final MaterialOrderRepository materialOrderRepository;
+    private final ProductRepository productRepository;
+    private final PackageRepository packageRepository;
+    private final PlateRepository plateRepository;
+    private final CartonRepository cartonRepository;
+
+    @Transactional(readOnly = true)
+    public List<MaterialOrderDTO> planPurchases() {
+        Map<MaterialType, Map<Long, Long>> required = requirements(packageOpenDemandRepository.findAll());
+        if (required.isEmpty()) {
+            return List.of();
+        }
+        Map<MaterialType, Map<Long, Long>> covered = coverage();
+        List<MaterialOrderDTO> purchases = new ArrayList<>();
+        required.forEach((materialType, quantities) -> quantities.forEach((materialId, quantity) -> {
+            long shortfall = quantity - covered.get(materialType).getOrDefault(materialId, 0L);
+            if (shortfall > 0) {
+                MaterialOrderDTO purchase = new MaterialOrderDTO();
+                purchase.setMaterialType(materialType.toString());
+                purchase.setMaterialId(materialId);
+                purchase.setOrderedQuantity(Math.toIntExact(shortfall));
+                purchases.add(purchase);
+            }
+        }));
+        return purchases;
+    }
+
+    private Map<MaterialType, Map<Long, Long>> requirements(List<PackageDemandDTO> demands) {
+        Map<Long, BillOfMaterials.PackageBom> packages = billOfMaterials.packages();
+        Map<Long, Integer> productStock = new HashMap<>();
+        for (ProductDTO product : productRepository.findAllActiveDTOs()) {
+            productStock.put(product.getId(), product.getAvailableQuantity());
+        }
+        Map<MaterialType, Map<Long, Long>> required = new EnumMap<>(MaterialType.class);
+        for (PackageDemandDTO demand : demands) {
+            BillOfMaterials.PackageBom bom = packages.get(demand.getPackageId());
+            if (bom == null) {
+                continue;
+            }
+            long toProduce = demand.getQuantity();
+            for (Long productId : bom.productIds()) {
+                toProduce -= productStock.getOrDefault(productId, 0);
+            }
+            if (toProduce <= 0) {
+                continue;
+            }
+            add(required, MaterialType.PACKAGE, bom.packageId(), toProduce);
+            add(required, MaterialType.PLATE, bom.plateId(), toProduce);
+            add(required, MaterialType.CARTON, bom.cartonId(), bom.cartonsFor(toProduce));
+        }
+        return required;
+    }
+
+    private Map<MaterialType, Map<Long, Long>> coverage() {
+        Map<MaterialType, Map<Long, Long>> covered = new EnumMap<>(MaterialType.class);
+        for (MaterialType materialType : MaterialType.values()) {
+            covered.put(materialType, new HashMap<>());
+        }
+        for (PackageDTO packageDTO : packageRepository.findAllActiveDTOs()) {
+            add(covered, MaterialType.PACKAGE, packageDTO.getId(), packageDTO.getAvailableQuantity());
+        }
+        for (PlateDTO plate : plateRepository.findAllActiveDTOs()) {
+            add(covered, MaterialType.PLATE, plate.getId(), Objects.requireNonNullElse(plate.getAvailableQuantity(), 0));
+        }
+        for (CartonDTO carton : cartonRepository.findAllActiveDTOs()) {
+            add(covered, MaterialType.CARTON, carton.getId(), Objects.requireNonNullElse(carton.getAvailableQuantity(), 0));
+        }
+        for (MaterialQuantityDTO openOrder : materialOrderRepository.sumOpenOrdersByMaterial()) {
+            add(covered, openOrder.getMaterialType(), openOrder.getMaterialId(), openOrder.getQuantity());
+        }
+        return covered;
+    }
+
+    private static void add(Map<MaterialType, Map<Long, Long>> quantities, MaterialType materialType, Long materialId, long quantity) {
+        if (materialId != null && quantity > 0) {
+            quantities.computeIfAbsent(materialType, type -> new TreeMap<>()).merge(materialId, quantity, Long::sum);
+        }
+    }
+}
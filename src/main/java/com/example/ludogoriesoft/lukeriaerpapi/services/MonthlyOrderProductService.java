@@ -10,6 +10,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,9 +23,9 @@ public class MonthlyOrderProductService {
     private final ModelMapper modelMapper;
 
 
+    @Transactional(readOnly = true)
     public List<MonthlyOrderProductDTO> getAllMonthlyOrderProducts() {
-        List<MonthlyOrderProduct> monthlyOrders = monthlyOrderProductRepository.findByDeletedFalse();
-        return monthlyOrders.stream().map(monthlyOrder -> modelMapper.map(monthlyOrder, MonthlyOrderProductDTO.class)).toList();
+        return monthlyOrderProductRepository.findAllActiveDTOs();
     }
 
     public MonthlyOrderProductDTO getMonthlyOrderProductById(Long id) throws ChangeSetPersister.NotFoundException {
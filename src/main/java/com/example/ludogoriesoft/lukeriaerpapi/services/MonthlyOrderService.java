@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,9 +21,9 @@ public class MonthlyOrderService {
     private final ModelMapper modelMapper;
 
 
+    @Transactional(readOnly = true)
     public List<MonthlyOrderDTO> getAllMonthlyOrders() {
-        List<MonthlyOrder> monthlyOrders = monthlyOrderRepository.findByDeletedFalse();
-        return monthlyOrders.stream().map(monthlyOrder -> modelMapper.map(monthlyOrder, MonthlyOrderDTO.class)).toList();
+        return monthlyOrderRepository.findAllActiveDTOs();
     }
 
     public MonthlyOrderDTO getMonthlyOrderById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -1,8 +1,12 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderWithProductsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
 import jakarta.validation.ValidationException;
@@ -10,11 +14,15 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -29,12 +37,26 @@ public class OrderProductService {
     private final ModelMapper modelMapper;
     private final EmailContentBuilder emailContentBuilder;
     private final EmailService emailService;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final PackageOpenDemandRepository packageOpenDemandRepository;
 
+    @Transactional(readOnly = true)
     public List<OrderProductDTO> getAllOrderProducts() {
-        List<OrderProduct> orderProducts = orderProductRepository.findByDeletedFalse();
-        return orderProducts.stream()
-                .map(orderProduct -> modelMapper.map(orderProduct, OrderProductDTO.class))
-                .toList();
+        return orderProductRepository.findAllActiveDTOs();
+    }
+
+    public KeysetPageDTO<OrderProductDTO> getOrderProductsPage(Long cursorId, Long orderId, Integer size) {
+        int pageSize = KeysetPages.resolveSize(size);
+        List<OrderProductDTO> rows = orderProductRepository.findPageOrderedById(cursorId, orderId, KeysetPages.lookahead(pageSize));
+        return KeysetPages.toPage(rows, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportOrderProducts(OutputStream outputStream, ExportFormat format) throws IOException {
+        try (Stream<OrderProductDTO> orderProducts = orderProductRepository.streamAllActiveDTOs()) {
+            return jsonStreamWriter.write(orderProducts, outputStream, format);
+        }
     }
 
     public OrderProductDTO getOrderProductById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -61,49 +83,63 @@ public class OrderProductService {
         }
     }
 
+    @Transactional
     public OrderProductDTO createOrderProduct(OrderProductDTO orderDTO) {
         validateOrderProductDTO(orderDTO);
         OrderProduct order = orderProductRepository.save(modelMapper.map(orderDTO, OrderProduct.class));
+        packageOpenDemandRepository.addLine(orderDTO.getOrderId(), orderDTO.getPackageId(), orderDTO.getNumber());
         return modelMapper.map(order, OrderProductDTO.class);
     }
 
+    @Transactional
     public OrderProductDTO updateOrderProduct(Long id, OrderProductDTO orderDTO) throws ChangeSetPersister.NotFoundException {
         validateOrderProductDTO(orderDTO);
 
         OrderProduct existingOrderProduct = orderProductRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(ChangeSetPersister.NotFoundException::new);
+        removeFromOpenDemand(existingOrderProduct);
 
         OrderProduct updatedOrderProduct = modelMapper.map(orderDTO, OrderProduct.class);
         updatedOrderProduct.setId(existingOrderProduct.getId());
         orderProductRepository.save(updatedOrderProduct);
+        packageOpenDemandRepository.addLine(orderDTO.getOrderId(), orderDTO.getPackageId(), orderDTO.getNumber());
         return modelMapper.map(updatedOrderProduct, OrderProductDTO.class);
     }
 
+    @Transactional
     public void deleteOrderProduct(Long id) throws ChangeSetPersister.NotFoundException {
         OrderProduct order = orderProductRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        removeFromOpenDemand(order);
         order.setDeleted(true);
         orderProductRepository.save(order);
     }
 
-    public List<InvoiceOrderProduct> findInvoiceOrderProductsByInvoiceId(Long invoiceId) {
-        List<InvoiceOrderProduct> invoiceOrderProductsList = invoiceOrderProductRepository.findAll();
+    private void removeFromOpenDemand(OrderProduct orderProduct) {
+        if (orderProduct.getOrderId() != null && orderProduct.getPackageId() != null && orderProduct.getNumber() != null) {
+            packageOpenDemandRepository.addLine(orderProduct.getOrderId().getId(), orderProduct.getPackageId().getId(),
+                    -orderProduct.getNumber());
+        }
+    }
 
-        return invoiceOrderProductsList.stream()
-                .filter(orderProduct -> orderProduct.getInvoiceId() != null && orderProduct.getInvoiceId().getId().equals(invoiceId))
-                .toList();
+    public List<InvoiceOrderProduct> findInvoiceOrderProductsByInvoiceId(Long invoiceId) {
+        return invoiceOrderProductRepository.findInvoiceLines(invoiceId);
     }
 
+    @Transactional
     public boolean reduceProducts(List<InvoiceOrderProduct> invoiceOrderProductsList) {
-        List<Product> productList = new ArrayList<>();
+        List<StockAdjustment> adjustments = new ArrayList<>();
         for (InvoiceOrderProduct invoiceOrderProduct : invoiceOrderProductsList) {
-            Optional<Product> productForReduce = productRepository.findByIdAndDeletedFalse(invoiceOrderProduct.getOrderProductId().getPackageId().getId());
-            int sellingProductForReduce = invoiceOrderProduct.getOrderProductId().getNumber();
-            if (productForReduce.isPresent()) {
-                Product product = productForReduce.get();
-                product.setAvailableQuantity(product.getAvailableQuantity() - sellingProductForReduce);
-                Product savedProduct=productRepository.save(product);
-                productList.add(savedProduct);
-            } else return false;
+            OrderProduct orderProduct = invoiceOrderProduct.getOrderProductId();
+            Optional<Product> product = productRepository.findByPackageIdAndDeletedFalse(orderProduct.getPackageId());
+            if (product.isEmpty()) {
+                return false;
+            }
+            adjustments.add(new StockAdjustment(StockItemType.PRODUCT, product.get().getId(), -orderProduct.getNumber()));
+        }
+        stockAdjustmentRepository.adjustOrReject(StockMovementReason.INVOICE, adjustments);
+        List<Product> productList = new ArrayList<>();
+        for (StockAdjustment adjustment : adjustments) {
+            productRepository.findStockReportByIdAndDeletedFalse(adjustment.id()).ifPresent(productList::add);
         }
         return sendMailForQuantities(productList);
     }
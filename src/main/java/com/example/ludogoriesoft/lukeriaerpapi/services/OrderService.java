@@ -1,8 +1,12 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderPageRequestDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.OrderPageSort;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
-import com.example.ludogoriesoft.lukeriaerpapi.dtos.UserDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
 import jakarta.validation.ValidationException;
@@ -10,6 +14,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,16 +28,36 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ClientRepository clientRepository;
     private final ModelMapper modelMapper;
-    private final ClientUserRepository clientUserRepository;
-    private final UserService userService;
+    private final CustomerContextResolver customerContextResolver;
     private final ShoppingCartRepository shoppingCartRepository;
     private final CustomerCustomPriceRepository customerCustomPriceRepository;
-    private final ProductRepository productRepository;
     private final OrderProductService orderProductService;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final StockReservations stockReservations;
+    private final PackageOpenDemandRepository packageOpenDemandRepository;
 
+    @Transactional(readOnly = true)
     public List<OrderDTO> getAllOrders() {
-        List<Order> orders = orderRepository.findByDeletedFalse();
-        return orders.stream().map(order -> modelMapper.map(order, OrderDTO.class)).toList();
+        return orderRepository.findAllActiveDTOs();
+    }
+
+    public KeysetPageDTO<OrderDTO> getOrdersPage(OrderPageRequestDTO request) {
+        int size = KeysetPages.resolveSize(request.getSize());
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new ValidationException("The start date must not be after the end date");
+        }
+        List<OrderDTO> rows;
+        if (request.getSort() == OrderPageSort.ORDER_DATE) {
+            if ((request.getCursorOrderDate() == null) != (request.getCursorId() == null)) {
+                throw new ValidationException("Both cursorOrderDate and cursorId are required when sorting by order date");
+            }
+            rows = orderRepository.findPageOrderedByOrderDate(request.getCursorOrderDate(), request.getCursorId(),
+                    request.getClientId(), request.getInvoiced(), request.getFrom(), request.getTo(), KeysetPages.lookahead(size));
+        } else {
+            rows = orderRepository.findPageOrderedById(request.getCursorId(),
+                    request.getClientId(), request.getInvoiced(), request.getFrom(), request.getTo(), KeysetPages.lookahead(size));
+        }
+        return KeysetPages.toPage(rows, size);
     }
 
     public OrderDTO getOrderById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -58,9 +83,15 @@ public class OrderService {
         return modelMapper.map(order, OrderDTO.class);
     }
 
+    @Transactional
     public OrderDTO updateOrder(Long id, OrderDTO orderDTO) throws ChangeSetPersister.NotFoundException {
         validateOrderDTO(orderDTO);
         Order existingOrder = orderRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        if (!existingOrder.isInvoiced() && orderDTO.isInvoiced()) {
+            packageOpenDemandRepository.closeOrder(existingOrder.getId());
+        } else if (existingOrder.isInvoiced() && !orderDTO.isInvoiced()) {
+            packageOpenDemandRepository.openOrder(existingOrder.getId());
+        }
         Order updatedOrder = modelMapper.map(orderDTO, Order.class);
         updatedOrder.setId(existingOrder.getId());
         updatedOrder.setOrderDate(orderDTO.getOrderDate());
@@ -68,8 +99,12 @@ public class OrderService {
         return modelMapper.map(updatedOrder, OrderDTO.class);
     }
 
+    @Transactional
     public void deleteOrder(Long id) throws ChangeSetPersister.NotFoundException {
         Order order = orderRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        if (!order.isInvoiced()) {
+            packageOpenDemandRepository.closeOrder(order.getId());
+        }
         order.setDeleted(true);
         orderRepository.save(order);
     }
@@ -86,12 +121,12 @@ public class OrderService {
         throw new NoSuchElementException();
     }
 
+    @Transactional
     public void createOrderFromShoppingCart() throws ChangeSetPersister.NotFoundException {
 
-        UserDTO authenticateUserDTO = userService.findAuthenticatedUser();
-        ClientUser clientUser = clientUserRepository.findByUserIdAndDeletedFalse(authenticateUserDTO.getId()).orElseThrow(ChangeSetPersister.NotFoundException::new);
-        Client client = clientUser.getClient();
-        ShoppingCart shoppingCart = shoppingCartRepository.findByClientId(client).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        CustomerContext customerContext = customerContextResolver.resolve();
+        Client client = customerContext.getClient();
+        ShoppingCart shoppingCart = customerContext.getShoppingCart();
 
         OrderDTO orderDTO = new OrderDTO();
         orderDTO.setOrderDate(LocalDate.now());
@@ -102,16 +137,17 @@ public class OrderService {
             throw new ValidationException("Cart item is empty!");
         }
 
+        stockAdjustmentRepository.adjustOrReject(StockMovementReason.CHECKOUT, shoppingCart.getItems().stream()
+                .map(cartItem -> new StockAdjustment(StockItemType.PRODUCT, cartItem.getProductId().getId(), -cartItem.getQuantity()))
+                .toList());
+        stockReservations.releaseCartAfterCommit(shoppingCart.getId());
+
         for (CartItem cartItem : shoppingCart.getItems()) {
             OrderProductDTO orderProductDTO = new OrderProductDTO();
             orderProductDTO.setOrderId(order.getId());
             orderProductDTO.setNumber(cartItem.getQuantity());
             orderProductDTO.setPackageId(cartItem.getProductId().getPackageId().getId());
 
-            //reduce available quantity
-            cartItem.getProductId().setAvailableQuantity(cartItem.getProductId().getAvailableQuantity() - cartItem.getQuantity());
-            productRepository.save(cartItem.getProductId());
-
             Optional<CustomerCustomPrice> optionalCustomPrice = customerCustomPriceRepository.findByClientIdAndProductIdAndDeletedFalse(client, cartItem.getProductId());
             if (optionalCustomPrice.isPresent()) {
                 orderProductDTO.setSellingPrice(optionalCustomPrice.get().getPrice());
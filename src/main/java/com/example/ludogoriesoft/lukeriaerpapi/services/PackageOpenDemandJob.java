@@ -0,0 +1,43 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageOpenDemandRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes the open demand per package from the orders and corrects packages whose stored total has drifted.
+ */
+@Slf4j
+@Component
+public class PackageOpenDemandJob {
+
+    private final PackageOpenDemandRepository packageOpenDemandRepository;
+    private final Timer verifyTimer;
+    private final Counter driftCounter;
+
+    public PackageOpenDemandJob(PackageOpenDemandRepository packageOpenDemandRepository, MeterRegistry meterRegistry) {
+        this.packageOpenDemandRepository = packageOpenDemandRepository;
+        this.verifyTimer = meterRegistry.timer("package.open.demand.verify");
+        this.driftCounter = meterRegistry.counter("package.open.demand.drift");
+    }
+
+    @Scheduled(cron = "${application.material-planning.open-demand-verify-cron:0 0 3 * * *}")
+    public void verify() {
+        long startedAt = System.nanoTime();
+        int corrected = packageOpenDemandRepository.rebuild();
+        long elapsedNanos = System.nanoTime() - startedAt;
+        verifyTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        driftCounter.increment(corrected);
+        if (corrected > 0) {
+            log.warn("Open demand had drifted for {} packages and was corrected in {} ms", corrected, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } else {
+            log.info("Open demand verified in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
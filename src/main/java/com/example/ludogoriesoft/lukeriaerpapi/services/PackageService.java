@@ -4,11 +4,13 @@ import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.UserRepository;
 import io.micrometer.common.util.StringUtils;
 import jakarta.validation.ValidationException;
@@ -16,6 +18,7 @@ import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -32,10 +35,12 @@ public class PackageService {
   private final ProductService productService;
   private final EmailService emailService;
   private final EmailContentBuilder emailContentBuilder;
+  private final BillOfMaterials billOfMaterials;
+  private final MaterialRegistry materialRegistry;
+  private final StockAdjustmentRepository stockAdjustmentRepository;
 
   public List<PackageDTO> getAllPackages() {
-    List<Package> packages = packageRepository.findByDeletedFalse();
-    return packages.stream().map(package1 -> modelMapper.map(package1, PackageDTO.class)).toList();
+    return packageRepository.findAllActiveDTOs();
   }
 
   public PackageDTO getPackageById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -49,7 +54,7 @@ public class PackageService {
 
   public Boolean sendProductStockReportById(Long packageId) throws ChangeSetPersister.NotFoundException {
     Package productPackage = findPackageById(packageId);
-    PackageDTO packageDTO = getPackageById(packageId);
+    PackageDTO packageDTO = modelMapper.map(productPackage, PackageDTO.class);
 
     PlateDTO plateDTO = productPackage.getPlateId() != null ? modelMapper.map(productPackage.getPlateId(), PlateDTO.class) : null;
     CartonDTO cartonDTO = productPackage.getCartonId() != null ? modelMapper.map(productPackage.getCartonId(), CartonDTO.class) : null;
@@ -61,15 +66,20 @@ public class PackageService {
   }
 
   private Package findPackageById(Long packageId) throws ChangeSetPersister.NotFoundException {
-    return packageRepository.findByIdAndDeletedFalse(packageId)
+    return packageRepository.findStockReportByIdAndDeletedFalse(packageId)
             .orElseThrow(ChangeSetPersister.NotFoundException::new);
   }
+  @Transactional
   public PackageDTO createPackage(PackageDTO packageDTO) {
     validatePackageDTO(packageDTO);
     Package packageEntity = packageRepository.save(modelMapper.map(packageDTO, Package.class));
+    stockAdjustmentRepository.recordOpeningQuantity(StockItemType.PACKAGE, packageEntity.getId(), packageEntity.getAvailableQuantity());
+    billOfMaterials.invalidate();
+    materialRegistry.invalidate();
     return modelMapper.map(packageEntity, PackageDTO.class);
   }
 
+  @Transactional
   public PackageDTO updatePackage(Long id, PackageDTO packageDTO)
       throws ChangeSetPersister.NotFoundException {
     validatePackageDTO(packageDTO);
@@ -85,9 +95,12 @@ public class PackageService {
       packageDTO.setPhoto(existingPackage.getPhoto());
     }
 
+    stockAdjustmentRepository.setQuantity(StockItemType.PACKAGE, existingPackage.getId(), packageDTO.getAvailableQuantity());
     Package updatedPackage = modelMapper.map(packageDTO, Package.class);
     updatedPackage.setId(existingPackage.getId());
     packageRepository.save(updatedPackage);
+    billOfMaterials.invalidate();
+    materialRegistry.invalidate();
     return modelMapper.map(updatedPackage, PackageDTO.class);
   }
 
@@ -132,5 +145,6 @@ public class PackageService {
             .orElseThrow(ChangeSetPersister.NotFoundException::new);
     package1.setDeleted(true);
     packageRepository.save(package1);
+    billOfMaterials.invalidate();
   }
 }
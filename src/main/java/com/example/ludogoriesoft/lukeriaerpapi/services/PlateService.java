@@ -1,14 +1,17 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import io.micrometer.common.util.StringUtils;
 import jakarta.validation.ValidationException;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,12 +22,11 @@ public class PlateService {
     private final PlateRepository plateRepository;
     private final ModelMapper modelMapper;
     private final ImageService imageService;
+    private final MaterialRegistry materialRegistry;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
 
     public List<PlateDTO> getAllPlates() {
-        List<Plate> plates = plateRepository.findByDeletedFalse();
-        return plates.stream()
-                .map(plate -> modelMapper.map(plate, PlateDTO.class))
-                .toList();
+        return plateRepository.findAllActiveDTOs();
     }
 
     public PlateDTO getPlateDTOById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -39,6 +41,7 @@ public class PlateService {
     }
 
 
+    @Transactional
     public PlateDTO createPlate(PlateDTO plateDTO) {
         if (StringUtils.isBlank(plateDTO.getName())) {
             throw new ValidationException("Name is required");
@@ -50,9 +53,12 @@ public class PlateService {
             throw new ValidationException("Price must be greater than zero");
         }
         Plate plateEntity = plateRepository.save(modelMapper.map(plateDTO, Plate.class));
+        stockAdjustmentRepository.recordOpeningQuantity(StockItemType.PLATE, plateEntity.getId(), plateEntity.getAvailableQuantity());
+        materialRegistry.invalidate();
         return modelMapper.map(plateEntity, PlateDTO.class);
     }
 
+    @Transactional
     public PlateDTO updatePlate(Long id, PlateDTO plateDTO) throws ChangeSetPersister.NotFoundException {
         Plate existingPlate = plateRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
         if (StringUtils.isBlank(plateDTO.getName())) {
@@ -64,6 +70,7 @@ public class PlateService {
         if (plateDTO.getPrice().doubleValue() <= 0 ) {
             throw new ValidationException("Price must be greater than zero");
         }
+        stockAdjustmentRepository.setQuantity(StockItemType.PLATE, existingPlate.getId(), plateDTO.getAvailableQuantity());
         existingPlate.setName(plateDTO.getName());
         existingPlate.setAvailableQuantity(plateDTO.getAvailableQuantity());
         existingPlate.setPrice(plateDTO.getPrice());
@@ -72,6 +79,7 @@ public class PlateService {
             existingPlate.setPhoto(null);
         }
         Plate updatedPlate = plateRepository.save(existingPlate);
+        materialRegistry.invalidate();
         updatedPlate.setId(id);
         return modelMapper.map(updatedPlate, PlateDTO.class);
     }
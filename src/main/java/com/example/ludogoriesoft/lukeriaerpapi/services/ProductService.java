@@ -1,6 +1,8 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
@@ -10,6 +12,7 @@ import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
@@ -25,15 +28,12 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final PackageRepository packageRepository;
     private final ModelMapper modelMapper;
-    private final PlateRepository plateRepository;
-    private final CartonRepository cartonRepository;
     private final ManufacturedProductRepository manufacturedProductRepository;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final BillOfMaterials billOfMaterials;
 
     public List<ProductDTO> getAllProducts() {
-        List<Product> products = productRepository.findByDeletedFalse();
-        return products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
-                .toList();
+        return productRepository.findAllActiveDTOs();
     }
 
     public ProductDTO getProductById(Long id) throws ChangeSetPersister.NotFoundException {
@@ -41,9 +41,12 @@ public class ProductService {
         return modelMapper.map(product, ProductDTO.class);
     }
 
+    @Transactional
     public ProductDTO createProduct(ProductDTO productDTO) {
         validateProductDTO(productDTO);
         Product product = productRepository.save(modelMapper.map(productDTO, Product.class));
+        stockAdjustmentRepository.recordOpeningQuantity(StockItemType.PRODUCT, product.getId(), product.getAvailableQuantity());
+        billOfMaterials.invalidate();
         return modelMapper.map(product, ProductDTO.class);
     }
 
@@ -53,13 +56,16 @@ public class ProductService {
         return modelMapper.map(products, listType);
     }
 
+    @Transactional
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) throws ChangeSetPersister.NotFoundException {
         validateProductDTO(productDTO);
 
         Product existingProduct = productRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        stockAdjustmentRepository.setQuantity(StockItemType.PRODUCT, existingProduct.getId(), productDTO.getAvailableQuantity());
         Product updatedProduct = modelMapper.map(productDTO, Product.class);
         updatedProduct.setId(existingProduct.getId());
         productRepository.save(updatedProduct);
+        billOfMaterials.invalidate();
         return modelMapper.map(updatedProduct, ProductDTO.class);
     }
 
@@ -84,35 +90,25 @@ public class ProductService {
         Product product = productRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
         product.setDeleted(true);
         productRepository.save(product);
+        billOfMaterials.invalidate();
     }
 
+    @Transactional
     public ProductDTO produceProduct(Long productId, int producedQuantity) throws ChangeSetPersister.NotFoundException {
-        Optional<Product> product = productRepository.findByIdAndDeletedFalse(productId);
-        if (product.isPresent()) {
-            product.get().setAvailableQuantity(product.get().getAvailableQuantity() + producedQuantity);
-            productRepository.save(product.get());
-            Optional<Package> aPackage = packageRepository.findByIdAndDeletedFalse(product.get().getPackageId().getId());
-            if (aPackage.isPresent()) {
-                aPackage.get().setAvailableQuantity(aPackage.get().getAvailableQuantity() - producedQuantity);
-                packageRepository.save(aPackage.get());
-            }
-            Optional<Plate> plate = plateRepository.findByIdAndDeletedFalse(aPackage.get().getPlateId().getId());
-            if (plate.isPresent()) {
-                plate.get().setAvailableQuantity(plate.get().getAvailableQuantity() - producedQuantity);
-                plateRepository.save(plate.get());
-            }
-            Optional<Carton> carton = cartonRepository.findByIdAndDeletedFalse(aPackage.get().getCartonId().getId());
-            if (carton.isPresent()) {
-                carton.get().setAvailableQuantity(carton.get().getAvailableQuantity() - producedQuantity / aPackage.get().getPiecesCarton());
-                cartonRepository.save(carton.get());
-            }
-        }
+        Product product = productRepository.findStockReportByIdAndDeletedFalse(productId).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        Package aPackage = product.getPackageId();
+        stockAdjustmentRepository.adjustOrReject(StockMovementReason.PRODUCTION, List.of(
+                new StockAdjustment(StockItemType.PRODUCT, product.getId(), producedQuantity),
+                new StockAdjustment(StockItemType.PACKAGE, aPackage.getId(), -producedQuantity),
+                new StockAdjustment(StockItemType.PLATE, aPackage.getPlateId().getId(), -producedQuantity),
+                new StockAdjustment(StockItemType.CARTON, aPackage.getCartonId().getId(), -producedQuantity / aPackage.getPiecesCarton())));
         ManufacturedProduct manufacturedProduct = new ManufacturedProduct();
-        manufacturedProduct.setProduct(product.get());
+        manufacturedProduct.setProduct(product);
         manufacturedProduct.setQuantity(producedQuantity);
         manufacturedProduct.setManufacture_date(LocalDateTime.now());
         manufacturedProductRepository.save(manufacturedProduct);
-        return modelMapper.map(product, ProductDTO.class);
+        Product producedProduct = productRepository.findByIdAndDeletedFalse(productId).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        return modelMapper.map(producedProduct, ProductDTO.class);
     }
     public List<ProductDTO> getProductsForSaleWithoutLookingForQuantity() {
         List<Product> products = productRepository.getProductsForSale();
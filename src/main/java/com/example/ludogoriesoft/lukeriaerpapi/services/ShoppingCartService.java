@@ -2,15 +2,12 @@ package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartItemDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ShoppingCartDTO;
-import com.example.ludogoriesoft.lukeriaerpapi.dtos.UserDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.CartItem;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
-import com.example.ludogoriesoft.lukeriaerpapi.models.ClientUser;
 import com.example.ludogoriesoft.lukeriaerpapi.models.CustomerCustomPrice;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CartItemRepository;
-import com.example.ludogoriesoft.lukeriaerpapi.repository.ClientUserRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CustomerCustomPriceRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ShoppingCartRepository;
@@ -32,20 +29,19 @@ import java.util.Optional;
 @AllArgsConstructor
 public class ShoppingCartService {
 
-    private final UserService userService;
+    private final CustomerContextResolver customerContextResolver;
     private final ProductRepository productRepository;
-    private final ClientUserRepository clientUserRepository;
     private final ShoppingCartRepository shoppingCartRepository;
     private final CartItemRepository cartItemRepository;
     private final ModelMapper modelMapper;
     private final CustomerCustomPriceRepository customerCustomPriceRepository;
+    private final StockReservations stockReservations;
 
     public void addToCart(Long productId, int quantity) throws ChangeSetPersister.NotFoundException {
 
-        UserDTO authenticateUserDTO = userService.findAuthenticatedUser();
-        ClientUser clientUser = clientUserRepository.findByUserIdAndDeletedFalse(authenticateUserDTO.getId()).orElseThrow(ChangeSetPersister.NotFoundException::new);
-        Client client = clientUser.getClient();
-        ShoppingCart shoppingCart = shoppingCartRepository.findByClientId(client).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        CustomerContext customerContext = customerContextResolver.resolve();
+        Client client = customerContext.getClient();
+        ShoppingCart shoppingCart = customerContext.getShoppingCart();
 
         Product product = productRepository.findById(productId).orElseThrow(ChangeSetPersister.NotFoundException::new);
 
@@ -54,7 +50,7 @@ public class ShoppingCartService {
 
         for (CartItem cartItem : cartItemList) {
             if (cartItem.getProductId().equals(product)) {
-                if (cartItem.getQuantity() + quantity > product.getAvailableQuantity()) {
+                if (!stockReservations.reserve(shoppingCart.getId(), product.getId(), cartItem.getQuantity() + quantity, product.getAvailableQuantity())) {
                     throw new IllegalArgumentException("There is no that much quantity");
                 }
                 cartItem.setQuantity(cartItem.getQuantity() + quantity);
@@ -63,7 +59,7 @@ public class ShoppingCartService {
             }
         }
         if (ifProductIsInCart == false) {
-            if (quantity > product.getAvailableQuantity()) {
+            if (!stockReservations.reserve(shoppingCart.getId(), product.getId(), quantity, product.getAvailableQuantity())) {
                 throw new IllegalArgumentException("There is no that much quantity");
             }
             CartItem cartItem = new CartItem();
@@ -88,10 +84,7 @@ public class ShoppingCartService {
 
     public List<CartItemDTO> showCart() throws ChangeSetPersister.NotFoundException {
 
-        UserDTO authenticateUserDTO = userService.findAuthenticatedUser();
-        ClientUser clientUser = clientUserRepository.findByUserIdAndDeletedFalse(authenticateUserDTO.getId()).orElseThrow(ChangeSetPersister.NotFoundException::new);
-        Client client = clientUser.getClient();
-        ShoppingCart shoppingCart = shoppingCartRepository.findByClientId(client).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        ShoppingCart shoppingCart = customerContextResolver.resolve().getShoppingCart();
 
         List<CartItemDTO> cartItemDTOs = shoppingCart.getItems()
                 .stream()
@@ -103,14 +96,12 @@ public class ShoppingCartService {
 
     public void removeCartItem(Long cartItemId) throws ChangeSetPersister.NotFoundException {
 
-        UserDTO authenticateUserDTO = userService.findAuthenticatedUser();
-        ClientUser clientUser = clientUserRepository.findByUserIdAndDeletedFalse(authenticateUserDTO.getId()).orElseThrow(ChangeSetPersister.NotFoundException::new);
-        Client client = clientUser.getClient();
-        ShoppingCart shoppingCart = shoppingCartRepository.findByClientId(client).orElseThrow(ChangeSetPersister.NotFoundException::new);
+        ShoppingCart shoppingCart = customerContextResolver.resolve().getShoppingCart();
 
         CartItem cartItem = cartItemRepository.findByIdAndDeletedFalse(cartItemId).orElseThrow(ChangeSetPersister.NotFoundException::new);
 
         shoppingCart.getItems().remove(cartItem);
+        stockReservations.release(shoppingCart.getId(), cartItem.getProductId().getId());
         cartItem.setShoppingCartId(null);
         cartItem.setDeleted(true);
         cartItemRepository.save(cartItem);
@@ -122,7 +113,8 @@ public class ShoppingCartService {
             throw new IllegalArgumentException("quantity must be more than 0");
         }
         CartItem cartItem = cartItemRepository.findByIdAndDeletedFalse(cartItemId).orElseThrow(ChangeSetPersister.NotFoundException::new);
-        if (quantity > cartItem.getProductId().getAvailableQuantity()) {
+        Product product = cartItem.getProductId();
+        if (!stockReservations.reserve(cartItem.getShoppingCartId().getId(), product.getId(), quantity, product.getAvailableQuantity())) {
             throw new IllegalArgumentException("There is no that much quantity");
         }
         cartItem.setQuantity(quantity);
@@ -0,0 +1,65 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.CatalogCacheRegions;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockLedgerRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockMovement;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Evicts the catalog stock other instances changed from this instance's second-level cache. Every stock change
+ * appends to the stock_movement ledger, so the ledger is polled and each moved item is evicted together with the
+ * catalog query region. Ids are allocated on insert but become visible on commit, so a row can show up after one with
+ * a higher id; each poll therefore re-reads the last {@value #REFRESH_OVERLAP_IDS} ids and evicts only for the ones it
+ * has not seen yet.
+ */
+@Component
+public class StockCacheSync {
+
+    static final long REFRESH_OVERLAP_IDS = 1000;
+
+    private final StockLedgerRepository stockLedgerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final NavigableSet<Long> seenIds = new TreeSet<>();
+    private long lastSeenId = -1;
+
+    public StockCacheSync(StockLedgerRepository stockLedgerRepository, EntityManagerFactory entityManagerFactory) {
+        this.stockLedgerRepository = stockLedgerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.stock.cache-sync.refresh:PT5S}")
+    public synchronized void refresh() {
+        if (lastSeenId < 0) {
+            // nothing older can be cached yet
+            lastSeenId = stockLedgerRepository.latestMovementId();
+            return;
+        }
+        long after = Math.max(0, lastSeenId - REFRESH_OVERLAP_IDS);
+        seenIds.headSet(after, true).clear();
+        List<StockMovement> unseen = new ArrayList<>();
+        for (StockMovement movement : stockLedgerRepository.movementsAfter(after)) {
+            if (seenIds.add(movement.id())) {
+                unseen.add(movement);
+            }
+            lastSeenId = Math.max(lastSeenId, movement.id());
+        }
+        if (!unseen.isEmpty()) {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            for (StockMovement movement : unseen) {
+                cache.evictEntityData(movement.type().getEntityClass(), movement.itemId());
+            }
+            cache.evictQueryRegion(CatalogCacheRegions.QUERIES);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Stock that shopping carts hold but have not checked out yet, kept in memory. Every product has one reserved
+ * counter that only changes by compare-and-set, so two carts racing for the last units never both get them, and a
+ * cart operation needs no database round trip when the product is in the second-level cache.
+ * <p>
+ * A cart's reservations expire {@code ttl} after its last change. They live in this instance only: the conditional
+ * update at checkout remains the final check, so running several instances can reject a checkout but never oversell.
+ */
+@Component
+public class StockReservations {
+
+    private final ConcurrentHashMap<Long, AtomicInteger> reservedByProduct = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CartReservation> reservationsByCart = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public StockReservations(@Value("${application.shopping-cart.reservation-ttl:PT30M}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this(ttl, System::nanoTime, meterRegistry);
+    }
+
+    StockReservations(Duration ttl, LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        meterRegistry.gaugeMapSize("stock.reservations.carts", Tags.empty(), reservationsByCart);
+    }
+
+    /**
+     * Sets how much of a product the cart holds and extends the expiry of everything the cart holds. Fails, leaving
+     * the reservation as it was, when the other carts leave less than {@code quantity} of {@code available}.
+     */
+    public boolean reserve(Long cartId, Long productId, int quantity, int available) {
+        if (quantity < 0) {
+            return false;
+        }
+        boolean[] reserved = {false};
+        long now = nanoClock.getAsLong();
+        reservationsByCart.compute(cartId, (id, cart) -> {
+            if (cart != null && cart.isExpired(now)) {
+                releaseAll(cart);
+                cart = null;
+            }
+            CartReservation reservation = cart == null ? new CartReservation() : cart;
+            int held = reservation.quantities.getOrDefault(productId, 0);
+            reserved[0] = addReserved(productId, quantity - held, available);
+            if (reserved[0] && quantity == 0) {
+                reservation.quantities.remove(productId);
+            } else if (reserved[0]) {
+                reservation.quantities.put(productId, quantity);
+            }
+            reservation.expiresAt = now + ttlNanos;
+            return reservation.quantities.isEmpty() ? null : reservation;
+        });
+        return reserved[0];
+    }
+
+    public void release(Long cartId, Long productId) {
+        reserve(cartId, productId, 0, 0);
+    }
+
+    public void releaseCart(Long cartId) {
+        reservationsByCart.computeIfPresent(cartId, (id, cart) -> {
+            releaseAll(cart);
+            return null;
+        });
+    }
+
+    /**
+     * Releases the cart once the current transaction commits, so a failed checkout keeps its reservations.
+     */
+    public void releaseCartAfterCommit(Long cartId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseCart(cartId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseCart(cartId);
+            }
+        });
+    }
+
+    public int reserved(Long productId) {
+        AtomicInteger reserved = reservedByProduct.get(productId);
+        return reserved == null ? 0 : reserved.get();
+    }
+
+    @Scheduled(fixedDelayString = "${application.shopping-cart.reservation-sweep-interval:PT1M}")
+    public void releaseExpired() {
+        long now = nanoClock.getAsLong();
+        for (Long cartId : reservationsByCart.keySet()) {
+            reservationsByCart.computeIfPresent(cartId, (id, cart) -> {
+                if (!cart.isExpired(now)) {
+                    return cart;
+                }
+                releaseAll(cart);
+                return null;
+            });
+        }
+    }
+
+    private boolean addReserved(Long productId, int delta, int available) {
+        AtomicInteger counter = reservedByProduct.computeIfAbsent(productId, id -> new AtomicInteger());
+        while (true) {
+            int reserved = counter.get();
+            if (delta > 0 && reserved + delta > available) {
+                return false;
+            }
+            if (counter.compareAndSet(reserved, reserved + delta)) {
+                return true;
+            }
+        }
+    }
+
+    private void releaseAll(CartReservation cart) {
+        cart.quantities.forEach((productId, quantity) -> reservedByProduct.get(productId).addAndGet(-quantity));
+    }
+
+    /**
+     * Only read and changed inside a compute call on its cart's entry, which serializes access to it.
+     */
+    private static final class CartReservation {
+        private final Map<Long, Integer> quantities = new HashMap<>();
+        private long expiresAt;
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
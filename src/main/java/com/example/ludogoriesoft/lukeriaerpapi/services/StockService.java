@@ -0,0 +1,20 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockLedgerRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+@AllArgsConstructor
+public class StockService {
+
+    private final StockLedgerRepository stockLedgerRepository;
+
+    public int getQuantityAt(StockItemType type, Long id, LocalDateTime at) throws ChangeSetPersister.NotFoundException {
+        return stockLedgerRepository.quantityAt(type, id, at).orElseThrow(ChangeSetPersister.NotFoundException::new);
+    }
+}
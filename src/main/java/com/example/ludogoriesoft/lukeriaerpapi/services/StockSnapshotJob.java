@@ -0,0 +1,41 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockLedgerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshots every stock quantity so point-in-time stock queries only add up the movements since the last run.
+ * Movements newer than the settle window are left to the next run, so none is still uncommitted when it is counted.
+ */
+@Slf4j
+@Component
+public class StockSnapshotJob {
+
+    private final StockLedgerRepository stockLedgerRepository;
+    private final Duration settle;
+    private final Timer snapshotTimer;
+
+    public StockSnapshotJob(StockLedgerRepository stockLedgerRepository, MeterRegistry meterRegistry,
+                            @Value("${application.stock.snapshot.settle:PT10M}") Duration settle) {
+        this.stockLedgerRepository = stockLedgerRepository;
+        this.settle = settle;
+        this.snapshotTimer = meterRegistry.timer("stock.snapshot");
+    }
+
+    @Scheduled(cron = "${application.stock.snapshot.cron:0 30 2 * * *}")
+    public void takeSnapshot() {
+        long startedAt = System.nanoTime();
+        int rows = stockLedgerRepository.takeSnapshot(settle);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        snapshotTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Stock snapshot stored {} quantities in {} ms", rows, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+}
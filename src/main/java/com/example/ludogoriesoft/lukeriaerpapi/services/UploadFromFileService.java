@@ -1,9 +1,11 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import lombok.AllArgsConstructor;
 import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
 import org.apache.poi.ss.usermodel.*;
@@ -12,6 +14,7 @@ import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -24,7 +27,9 @@ public class UploadFromFileService {
     private final ProductRepository productRepository;
     private final PlateService plateService;
     private final CartonService cartonService;
+    private final StockAdjustmentRepository stockAdjustmentRepository;
 
+    @Transactional
     public ResponseEntity<String> packageUploadStatus(MultipartFile file) throws IOException {
         if (packageRepository.findAll().isEmpty()) {
             return uploadFromFile(file);
@@ -85,6 +90,7 @@ public class UploadFromFileService {
                         packageForCreate.setPrice(BigDecimal.valueOf(0.0));
                         packageForCreate.setEnglishName(englishNameValue);
                         Package savedPackage = packageRepository.save(packageForCreate);
+                        stockAdjustmentRepository.recordOpeningQuantity(StockItemType.PACKAGE, savedPackage.getId(), savedPackage.getAvailableQuantity());
 
                         Product productForCreate = new Product();
                         productForCreate.setPackageId(savedPackage);
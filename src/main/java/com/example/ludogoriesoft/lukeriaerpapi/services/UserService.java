@@ -12,6 +12,7 @@ import com.example.ludogoriesoft.lukeriaerpapi.repository.PasswordResetTokenRepo
 import com.example.ludogoriesoft.lukeriaerpapi.repository.UserRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtService;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenService;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.UserPrincipalCache;
 import io.micrometer.common.util.StringUtils;
 import jakarta.validation.ValidationException;
 import org.modelmapper.ModelMapper;
@@ -19,7 +20,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -36,6 +37,8 @@ public class UserService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final EmailService emailService;
     private final EmailContentBuilder emailContentBuilder;
+    private final UserPrincipalCache userPrincipalCache;
+    private final PasswordEncoder passwordEncoder;
     private final String frontendUrl;
 
 
@@ -46,6 +49,8 @@ public class UserService {
                        PasswordResetTokenRepository passwordResetTokenRepository,
                        EmailService emailService,
                        EmailContentBuilder emailContentBuilder,
+                       UserPrincipalCache userPrincipalCache,
+                       PasswordEncoder passwordEncoder,
                        @Value("${frontend.url}") String frontendUrl) {
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
@@ -54,6 +59,8 @@ public class UserService {
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.emailService = emailService;
         this.emailContentBuilder=emailContentBuilder;
+        this.userPrincipalCache = userPrincipalCache;
+        this.passwordEncoder = passwordEncoder;
         this.frontendUrl = frontendUrl;
     }
 
@@ -88,7 +95,10 @@ public class UserService {
         userValidations(userDTO);
         User updatedUser = modelMapper.map(userDTO, User.class);
         updatedUser.setId(existingUser.getId());
-        return userRepository.save(updatedUser);
+        User savedUser = userRepository.save(updatedUser);
+        userPrincipalCache.evict(existingUser.getEmail());
+        userPrincipalCache.evict(userDTO.getEmail());
+        return savedUser;
     }
 
     private AuthenticationResponse createNewToken(User user) {
@@ -120,7 +130,6 @@ public class UserService {
 
     public UserDTO createUser(UserDTO user) {
         userValidations(user);
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         String encodedPassword = passwordEncoder.encode(user.getPassword());
         User user1 = modelMapper.map(user, User.class);
         user1.setPassword(encodedPassword);
@@ -130,7 +139,7 @@ public class UserService {
     }
 
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userPrincipalCache.get(email, userRepository::findByEmail)
                 .orElseThrow(() -> new UserNotFoundException(email));
     }
 
@@ -146,7 +155,6 @@ public class UserService {
 
     public boolean ifPasswordMatch(String password) {
         UserDTO authenticatedUserDTO = findAuthenticatedUser();
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         return passwordEncoder.matches(password, authenticatedUserDTO.getPassword());
     }
 
@@ -159,10 +167,10 @@ public class UserService {
             return false;
         }
         User user = modelMapper.map(authenticateUserDTO, User.class);
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         String encodedPassword = passwordEncoder.encode(userDTO.getPassword());
         user.setPassword(encodedPassword);
         userRepository.save(user);
+        userPrincipalCache.evict(authenticateUserDTO.getEmail());
         return true;
     }
 
@@ -170,6 +178,7 @@ public class UserService {
         User user = userRepository.findByIdAndDeletedFalse(id).orElseThrow(ChangeSetPersister.NotFoundException::new);
         user.setDeleted(true);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getEmail());
     }
 
     public UserDTO findAuthenticatedUser() {
@@ -212,9 +221,9 @@ public class UserService {
         }
 
         User user = resetToken.getUser();
-        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userPrincipalCache.evict(user.getEmail());
         return true;
     }
 }
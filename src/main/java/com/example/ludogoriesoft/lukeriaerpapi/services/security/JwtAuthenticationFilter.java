@@ -2,17 +2,18 @@ package com.example.ludogoriesoft.lukeriaerpapi.services.security;
 
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.auth.PublicUserDTO;
-import com.example.ludogoriesoft.lukeriaerpapi.repository.TokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.Role;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,8 +28,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserServiceAuthentication userService;
-    private final ModelMapper modelMapper;
-    private final TokenRepository tokenRepository;
+    private final TokenService tokenService;
+    private final JwtDenylist jwtDenylist;
 
     @Override
     public void doFilterInternal(
@@ -50,14 +51,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
+
+        if (jwtDenylist.isEnabled()) {
+            authenticateStateless(jwt, request);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String userEmail = jwtService.extractUsername(jwt);
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.findByEmail(userEmail);
+            User userDetails = userService.findByEmail(userEmail);
 
-            boolean isTokenValid = tokenRepository.findByToken(jwt)
-                    .map(t -> !t.isExpired() && !t.isRevoked())
-                    .orElse(false);
+            boolean isTokenValid = tokenService.isTokenActive(jwt);
 
             if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -72,9 +78,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
-            request.setAttribute(userKey, modelMapper.map(userDetails, PublicUserDTO.class));
+            request.setAttribute(userKey, toPublicUser(userDetails));
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticateStateless(String jwt, HttpServletRequest request) {
+        final Claims claims = jwtService.extractAllClaims(jwt);
+
+        if (claims.getSubject() == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        if (!TokenType.ACCESS.name().equals(claims.get(JwtServiceImpl.TOKEN_TYPE_CLAIM, String.class))
+                || claims.get(JwtServiceImpl.ROLE_CLAIM, String.class) == null
+                || jwtDenylist.isDenied(claims.getId())) {
+            return;
+        }
+
+        User principal = User.builder()
+                .id(claims.get(JwtServiceImpl.USER_ID_CLAIM, Long.class))
+                .email(claims.getSubject())
+                .firstname(claims.get(JwtServiceImpl.FIRSTNAME_CLAIM, String.class))
+                .usernameField(claims.get(JwtServiceImpl.USERNAME_CLAIM, String.class))
+                .role(Role.valueOf(claims.get(JwtServiceImpl.ROLE_CLAIM, String.class)))
+                .build();
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        request.setAttribute(userKey, toPublicUser(principal));
+    }
+
+    private PublicUserDTO toPublicUser(User user) {
+        return PublicUserDTO.builder()
+                .id(user.getId())
+                .firstname(user.getFirstname())
+                .usernameField(user.getUsernameField())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .build();
+    }
 }
@@ -0,0 +1,83 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services.security;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.DeniedToken;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.DeniedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access-token ids for the stateless authentication mode. An entry is kept only until the
+ * token itself expires. The token_denylist table is the shared store: it is loaded at startup and
+ * polled for entries added by other instances. Ids are allocated on insert but become visible on
+ * commit, so a row can show up after one with a higher id; each poll therefore re-reads the last
+ * {@value #REFRESH_OVERLAP_IDS} ids, and the repeats are harmless puts of the same entry.
+ */
+@Component
+public class JwtDenylist {
+
+    static final long REFRESH_OVERLAP_IDS = 1000;
+
+    private final DeniedTokenRepository deniedTokenRepository;
+    private final boolean enabled;
+    private final Map<String, Instant> deniedUntil = new ConcurrentHashMap<>();
+    private volatile long lastSeenId;
+
+    public JwtDenylist(DeniedTokenRepository deniedTokenRepository,
+                       @Value("${application.security.jwt.stateless.enabled:false}") boolean enabled) {
+        this.deniedTokenRepository = deniedTokenRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.security.jwt.stateless.denylist-refresh:PT10S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long after = Math.max(0, lastSeenId - REFRESH_OVERLAP_IDS);
+        for (DeniedToken deniedToken : deniedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(after, LocalDateTime.now())) {
+            deniedUntil.put(deniedToken.getJti(), deniedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+            lastSeenId = Math.max(lastSeenId, deniedToken.getId());
+        }
+    }
+
+    public void deny(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        if (deniedUntil.putIfAbsent(jti, expiresAt) == null && !deniedTokenRepository.existsByJti(jti)) {
+            deniedTokenRepository.save(DeniedToken.builder()
+                    .jti(jti)
+                    .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                    .build());
+        }
+    }
+
+    public boolean isDenied(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Instant expiresAt = deniedUntil.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int before = deniedUntil.size();
+        deniedUntil.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        return before - deniedUntil.size();
+    }
+}
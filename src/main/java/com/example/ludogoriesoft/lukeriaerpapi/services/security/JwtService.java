@@ -12,6 +12,8 @@ public interface JwtService {
 
     <T> T extractClaim(String token, Function<Claims, T> claimsResolver);
 
+    Claims extractAllClaims(String token);
+
     String generateToken(UserDetails userDetails);
 
     String generateToken(Map<String, Object> extraClaims, UserDetails userDetails);
@@ -1,10 +1,14 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services.security;
 
+import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -13,11 +17,18 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtServiceImpl implements JwtService {
 
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String FIRSTNAME_CLAIM = "firstname";
+    public static final String USERNAME_CLAIM = "username";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
@@ -25,14 +36,42 @@ public class JwtServiceImpl implements JwtService {
     private long jwtExpiration;
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
+    @Value("${application.security.jwt.claims-cache.maximum-size:10000}")
+    private long claimsCacheMaximumSize = 10000;
+    @Value("${application.security.jwt.stateless.enabled:false}")
+    private boolean stateless;
+    @Value("${application.security.jwt.stateless.expiration:900000}")
+    private long statelessExpiration = 900000;
+
+    private Key signInKey;
+    private JwtParser jwtParser;
+    private JwtClaimsCache claimsCache;
 
     public JwtServiceImpl() {
     }
 
     public JwtServiceImpl(String secretKey, long jwtExpiration, long refreshExpiration) {
+        this(secretKey, jwtExpiration, refreshExpiration, false, 900000);
+    }
+
+    public JwtServiceImpl(String secretKey, long jwtExpiration, long refreshExpiration, boolean stateless, long statelessExpiration) {
         this.secretKey = secretKey;
         this.jwtExpiration = jwtExpiration;
         this.refreshExpiration = refreshExpiration;
+        this.stateless = stateless;
+        this.statelessExpiration = statelessExpiration;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts
+                .parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        claimsCache = new JwtClaimsCache(claimsCacheMaximumSize);
     }
 
     @Override
@@ -56,14 +95,24 @@ public class JwtServiceImpl implements JwtService {
             Map<String, Object> extraClaims,
             UserDetails userDetails
     ) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof User user) {
+            putIfPresent(claims, USER_ID_CLAIM, user.getId());
+            putIfPresent(claims, ROLE_CLAIM, user.getRole() == null ? null : user.getRole().name());
+            putIfPresent(claims, FIRSTNAME_CLAIM, user.getFirstname());
+            putIfPresent(claims, USERNAME_CLAIM, user.getUsernameField());
+        }
+        claims.put(TOKEN_TYPE_CLAIM, TokenType.ACCESS.name());
+        return buildToken(claims, userDetails, stateless ? statelessExpiration : jwtExpiration);
     }
 
     @Override
     public String generateRefreshToken(
             UserDetails userDetails
     ) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, TokenType.REFRESH.name());
+        return buildToken(claims, userDetails, refreshExpiration);
     }
 
     @Override
@@ -80,13 +129,20 @@ public class JwtServiceImpl implements JwtService {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    private static void putIfPresent(Map<String, Object> claims, String name, Object value) {
+        if (value != null) {
+            claims.put(name, value);
+        }
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -95,17 +151,14 @@ public class JwtServiceImpl implements JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    @Override
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return claimsCache.get(token, this::verifyClaims);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Claims verifyClaims(String token) {
+        return jwtParser
+                .parseClaimsJws(token)
+                .getBody();
     }
 }
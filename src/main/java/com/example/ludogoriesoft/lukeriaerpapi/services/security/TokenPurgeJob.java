@@ -0,0 +1,80 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services.security;
+
+import com.example.ludogoriesoft.lukeriaerpapi.repository.DeniedTokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PasswordResetTokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.TokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Deletes expired rows from {@code tokens}, {@code password_reset_token} and {@code token_denylist} in chunks of
+ * {@code batchSize}, each chunk in its own short transaction, so the purge never holds long locks.
+ */
+@Slf4j
+@Component
+public class TokenPurgeJob {
+
+    private final TokenRepository tokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final DeniedTokenRepository deniedTokenRepository;
+    private final TokenRevocationIndex revocationIndex;
+    private final JwtDenylist jwtDenylist;
+    private final MeterRegistry meterRegistry;
+    private final Timer purgeTimer;
+    private final int batchSize;
+
+    public TokenPurgeJob(TokenRepository tokenRepository,
+                         PasswordResetTokenRepository passwordResetTokenRepository,
+                         DeniedTokenRepository deniedTokenRepository,
+                         TokenRevocationIndex revocationIndex,
+                         JwtDenylist jwtDenylist,
+                         MeterRegistry meterRegistry,
+                         @Value("${application.security.token-purge.batch-size:1000}") int batchSize) {
+        this.tokenRepository = tokenRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.deniedTokenRepository = deniedTokenRepository;
+        this.revocationIndex = revocationIndex;
+        this.jwtDenylist = jwtDenylist;
+        this.meterRegistry = meterRegistry;
+        this.purgeTimer = meterRegistry.timer("tokens.purge");
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${application.security.token-purge.cron:0 0 3 * * *}")
+    public void purgeExpiredTokens() {
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        int tokens = deleteInBatches(limit -> tokenRepository.deleteExpired(now, limit));
+        int resetTokens = deleteInBatches(limit -> passwordResetTokenRepository.deleteExpired(now, limit));
+        int deniedTokens = deleteInBatches(limit -> deniedTokenRepository.deleteExpired(now, limit));
+        int indexed = revocationIndex.purgeExpired() + jwtDenylist.purgeExpired();
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        purgeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("tokens.purged", "table", "tokens").increment(tokens);
+        meterRegistry.counter("tokens.purged", "table", "password_reset_token").increment(resetTokens);
+        meterRegistry.counter("tokens.purged", "table", "token_denylist").increment(deniedTokens);
+
+        log.info("Token purge removed {} tokens, {} password reset tokens, {} denylist entries and {} in-memory entries in {} ms",
+                tokens, resetTokens, deniedTokens, indexed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private int deleteInBatches(IntUnaryOperator deleteBatch) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.applyAsInt(batchSize);
+            total += deleted;
+        } while (deleted >= batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services.security;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory view of the active rows in the tokens table, keyed by token digest.
+ * TokenServiceImpl writes through to it; the table stays the durable store and is
+ * consulted for tokens this instance has not seen (e.g. issued by another instance).
+ * Another instance can revoke a token without this one noticing, so an entry is only
+ * trusted for {@code trust} after it was registered; the caller then re-checks the table
+ * and registers the token again.
+ */
+@Component
+public class TokenRevocationIndex {
+
+    private final Map<String, ActiveToken> activeTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> digestsByUser = new ConcurrentHashMap<>();
+    private final long trustNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public TokenRevocationIndex(@Value("${application.security.token-index.trust:PT30S}") Duration trust) {
+        this(trust, System::nanoTime);
+    }
+
+    public TokenRevocationIndex(Duration trust, LongSupplier nanoClock) {
+        this.trustNanos = trust.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public void register(Long userId, String jwt, TokenType tokenType, Instant expiresAt) {
+        String digest = TokenDigest.sha256(jwt);
+        activeTokens.put(digest, new ActiveToken(userId, tokenType, expiresAt, nanoClock.getAsLong()));
+        if (userId != null) {
+            digestsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(digest);
+        }
+    }
+
+    /**
+     * Whether the token was found active in the table within the trust window and has not expired since.
+     * A {@code false} is not a revocation: the caller has to consult the table.
+     */
+    public boolean isActive(String jwt) {
+        ActiveToken activeToken = activeTokens.get(TokenDigest.sha256(jwt));
+        return activeToken != null && !activeToken.isExpired(Instant.now())
+                && nanoClock.getAsLong() - activeToken.verifiedAt() < trustNanos;
+    }
+
+    public void revoke(String jwt) {
+        String digest = TokenDigest.sha256(jwt);
+        ActiveToken removed = activeTokens.remove(digest);
+        if (removed != null && removed.userId() != null) {
+            Set<String> digests = digestsByUser.get(removed.userId());
+            if (digests != null) {
+                digests.remove(digest);
+            }
+        }
+    }
+
+    public void revokeAllForUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        Set<String> digests = digestsByUser.remove(userId);
+        if (digests != null) {
+            digests.forEach(activeTokens::remove);
+        }
+    }
+
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        for (Map.Entry<String, ActiveToken> entry : activeTokens.entrySet()) {
+            if (entry.getValue().isExpired(now) && activeTokens.remove(entry.getKey(), entry.getValue())) {
+                Set<String> digests = entry.getValue().userId() == null ? null : digestsByUser.get(entry.getValue().userId());
+                if (digests != null) {
+                    digests.remove(entry.getKey());
+                }
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    public int size() {
+        return activeTokens.size();
+    }
+
+    private record ActiveToken(Long userId, TokenType tokenType, Instant expiresAt, long verifiedAt) {
+        boolean isExpired(Instant now) {
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+    }
+}
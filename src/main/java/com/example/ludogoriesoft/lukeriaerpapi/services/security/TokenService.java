@@ -19,4 +19,6 @@ public interface TokenService {
     void revokeAllUserTokens(User user);
 
     void logoutToken(String jwt);
+
+    boolean isTokenActive(String jwt);
 }
@@ -5,17 +5,38 @@ import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Token;
 import com.example.ludogoriesoft.lukeriaerpapi.models.User;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.TokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 
 @RequiredArgsConstructor
 @Service
 public class TokenServiceImpl implements TokenService {
     private final TokenRepository tokenRepository;
+    private final TokenRevocationIndex revocationIndex;
+    private final JwtService jwtService;
+    private final JwtDenylist jwtDenylist;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveTokens() {
+        for (TokenRepository.ActiveTokenView activeToken : tokenRepository.findActiveTokens()) {
+            Instant expiresAt = expirationOf(activeToken.getToken());
+            if (expiresAt != null) {
+                revocationIndex.register(activeToken.getUserId(), activeToken.getToken(), activeToken.getTokenType(), expiresAt);
+            }
+        }
+    }
 
     @Override
     public Token findByToken(String jwt) {
@@ -29,25 +50,37 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public void saveToken(User user, String jwtToken, TokenType tokenType) {
+        Instant expiresAt = expirationOf(jwtToken);
         Token token = Token.builder()
                 .user(user)
                 .token(jwtToken)
                 .tokenType(tokenType)
                 .expired(false)
                 .revoked(false)
+                .expiresAt(expiresAt == null ? null : LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
                 .build();
 
         tokenRepository.save(token);
+        revocationIndex.register(user.getId(), jwtToken, tokenType, expiresAt);
     }
 
     @Override
     public void revokeToken(Token token) {
         tokenRepository.delete(token);
+        revocationIndex.revoke(token.getToken());
+        if (jwtDenylist.isEnabled() && token.getTokenType() == TokenType.ACCESS) {
+            denyAccessTokens(List.of(token.getToken()));
+        }
     }
 
     @Override
+    @Transactional
     public void revokeAllUserTokens(User user) {
-        tokenRepository.deleteAll(tokenRepository.findAllByUser(user));
+        if (jwtDenylist.isEnabled()) {
+            denyAccessTokens(tokenRepository.findTokensByUserIdAndTokenType(user.getId(), TokenType.ACCESS));
+        }
+        tokenRepository.deleteAllByUserId(user.getId());
+        revocationIndex.revokeAllForUser(user.getId());
     }
 
     @Override
@@ -63,4 +96,41 @@ public class TokenServiceImpl implements TokenService {
         revokeAllUserTokens(storedToken.getUser());
         SecurityContextHolder.clearContext();
     }
+
+    @Override
+    public boolean isTokenActive(String jwt) {
+        if (revocationIndex.isActive(jwt)) {
+            return true;
+        }
+
+        TokenRepository.ActiveTokenView storedToken = tokenRepository.findActiveToken(jwt).orElse(null);
+        if (storedToken == null) {
+            // revoked on another instance, or never stored
+            revocationIndex.revoke(jwt);
+            return false;
+        }
+
+        revocationIndex.register(storedToken.getUserId(), jwt, storedToken.getTokenType(), expirationOf(jwt));
+        return true;
+    }
+
+    private void denyAccessTokens(List<String> jwts) {
+        for (String jwt : jwts) {
+            try {
+                Claims claims = jwtService.extractAllClaims(jwt);
+                jwtDenylist.deny(claims.getId(), claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+            } catch (JwtException exception) {
+                // already expired or unreadable, so it cannot authenticate anyway
+            }
+        }
+    }
+
+    private Instant expirationOf(String jwt) {
+        try {
+            Date expiration = jwtService.extractClaim(jwt, Claims::getExpiration);
+            return expiration == null ? null : expiration.toInstant();
+        } catch (JwtException exception) {
+            return null;
+        }
+    }
 }
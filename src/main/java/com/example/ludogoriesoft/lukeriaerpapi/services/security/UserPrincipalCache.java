@@ -0,0 +1,62 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services.security;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Users resolved by email for the authentication filter and {@code findAuthenticatedUser()}.
+ * Callers get a copy of the cached user, so mutating it never leaks into the cache.
+ * Hit/miss counts are published as the {@code cache.gets} metric with {@code cache=userPrincipals}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "userPrincipals";
+
+    private final Cache<String, User> cache;
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${application.security.user-cache.ttl:PT5M}") Duration ttl,
+                              @Value("${application.security.user-cache.maximum-size:1000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        User cached = cache.get(email, key -> loader.apply(key).map(UserPrincipalCache::copyOf).orElse(null));
+        return Optional.ofNullable(cached).map(UserPrincipalCache::copyOf);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .firstname(user.getFirstname())
+                .lastname(user.getLastname())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .address(user.getAddress())
+                .usernameField(user.getUsernameField())
+                .role(user.getRole())
+                .deleted(user.isDeleted())
+                .build();
+    }
+}
@@ -24,6 +24,7 @@ public class UserServiceImpl implements UserServiceAuthentication {
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     public User createUser(RegisterRequest request) {
@@ -50,7 +51,7 @@ public class UserServiceImpl implements UserServiceAuthentication {
 
     @Override
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userPrincipalCache.get(email, userRepository::findByEmail)
                 .orElseThrow(() -> new UserNotFoundException("email"));
     }
 
@@ -71,10 +72,13 @@ public class UserServiceImpl implements UserServiceAuthentication {
             throw new AccessDeniedException();
         }
 
+        String previousEmail = userToUpdate.getEmail();
         modelMapper.map(userDTO, userToUpdate);
         userToUpdate.setId(id);
 
         User updatedUser = userRepository.save(userToUpdate);
+        userPrincipalCache.evict(previousEmail);
+        userPrincipalCache.evict(updatedUser.getEmail());
         return modelMapper.map(updatedUser, AdminUserDTO.class);
     }
 
@@ -89,6 +93,7 @@ public class UserServiceImpl implements UserServiceAuthentication {
 
         user.setDeleted(true);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getEmail());
     }
 
     private User findById(Long id) {
@@ -0,0 +1,6 @@
+ALTER TABLE tokens
+    ADD COLUMN expires_at DATETIME NULL;
+
+CREATE INDEX idx_tokens_expires_at ON tokens(expires_at);
+
+CREATE INDEX idx_password_reset_token_expiry_date ON password_reset_token(expiry_date);
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS token_denylist (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(64) UNIQUE NOT NULL,
+    expires_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_token_denylist_expires_at ON token_denylist(expires_at);
@@ -0,0 +1,7 @@
+CREATE INDEX idx_order_table_deleted_date ON order_table(is_deleted, order_date, id);
+
+CREATE INDEX idx_order_table_client_deleted_date ON order_table(client_id, is_deleted, order_date, id);
+
+CREATE INDEX idx_order_table_deleted_invoiced_date ON order_table(is_deleted, is_invoiced, order_date, id);
+
+CREATE INDEX idx_order_product_order_deleted ON order_product(order_id, is_deleted, id);
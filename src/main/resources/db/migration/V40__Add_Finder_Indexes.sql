@@ -0,0 +1,31 @@
+CREATE INDEX idx_client_business_name ON client(business_name);
+
+CREATE INDEX idx_invoice_invoice_number ON invoice(invoice_number);
+
+CREATE INDEX idx_client_user_user_deleted ON client_user(user_id, is_deleted);
+
+CREATE INDEX idx_client_user_client_user_deleted ON client_user(client_id, user_id, is_deleted);
+
+CREATE INDEX idx_customer_custom_price_client_deleted_product ON customer_custom_price(client_id, is_deleted, product_id);
+
+CREATE INDEX idx_product_package_deleted ON product(package_id, is_deleted);
+
+CREATE INDEX idx_product_for_sale ON product(for_sale);
+
+CREATE INDEX idx_product_available_quantity ON product(available_quantity);
+
+CREATE INDEX idx_package_available_quantity ON package(available_quantity);
+
+CREATE INDEX idx_package_deleted ON package(is_deleted);
+
+CREATE INDEX idx_plate_deleted ON plate(is_deleted);
+
+CREATE INDEX idx_monthly_order_deleted ON monthly_order(is_deleted);
+
+CREATE INDEX idx_tokens_user_type ON tokens(user_id, token_type);
+
+CREATE INDEX idx_tokens_revoked_expired ON tokens(revoked, expired);
+
+CREATE INDEX idx_image_name ON image(name);
+
+CREATE INDEX idx_user_deleted_role ON user(is_deleted, role);
@@ -0,0 +1,23 @@
+CREATE TABLE IF NOT EXISTS id_generator (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT
+);
+
+-- The pooled generator first hands out next_val - 49 .. next_val (allocation size 50), so each table starts one block
+-- above its MAX(id). From here on rows of these tables must be inserted through JPA: AUTO_INCREMENT stays on the id
+-- columns, because removing it means rebuilding every foreign key to them, but it no longer tracks the ids JPA hands
+-- out, so an INSERT without an id can collide with them.
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'order_product', COALESCE(MAX(id), 0) + 50 FROM order_product;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'invoice_order_product', COALESCE(MAX(id), 0) + 50 FROM invoice_order_product;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'cart_items', COALESCE(MAX(id), 0) + 50 FROM cart_items;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'produced_product', COALESCE(MAX(id), 0) + 50 FROM produced_product;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'package', COALESCE(MAX(id), 0) + 50 FROM package;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'product', COALESCE(MAX(id), 0) + 50 FROM product;
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'material_order', COALESCE(MAX(id), 0) + 50 FROM material_order;
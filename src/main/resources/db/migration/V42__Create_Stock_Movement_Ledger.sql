@@ -0,0 +1,30 @@
+CREATE TABLE IF NOT EXISTS stock_movement (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_type VARCHAR(16) NOT NULL,
+    item_id BIGINT NOT NULL,
+    delta INT NOT NULL,
+    reason VARCHAR(32) NOT NULL,
+    created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+);
+
+CREATE INDEX idx_stock_movement_item_id ON stock_movement(item_type, item_id, id, created_at, delta);
+
+CREATE TABLE IF NOT EXISTS stock_snapshot (
+    item_type VARCHAR(16) NOT NULL,
+    item_id BIGINT NOT NULL,
+    taken_at DATETIME(6) NOT NULL,
+    last_movement_id BIGINT NOT NULL DEFAULT 0,
+    quantity INT NOT NULL,
+    PRIMARY KEY (item_type, item_id, taken_at)
+);
+
+-- The ledger starts from the quantities on hand today.
+SET @taken_at = NOW(6);
+INSERT INTO stock_snapshot (item_type, item_id, taken_at, last_movement_id, quantity)
+SELECT 'PRODUCT', id, @taken_at, 0, COALESCE(available_quantity, 0) FROM product;
+INSERT INTO stock_snapshot (item_type, item_id, taken_at, last_movement_id, quantity)
+SELECT 'PACKAGE', id, @taken_at, 0, COALESCE(available_quantity, 0) FROM package;
+INSERT INTO stock_snapshot (item_type, item_id, taken_at, last_movement_id, quantity)
+SELECT 'PLATE', id, @taken_at, 0, COALESCE(available_quantity, 0) FROM plate;
+INSERT INTO stock_snapshot (item_type, item_id, taken_at, last_movement_id, quantity)
+SELECT 'CARTON', id, @taken_at, 0, COALESCE(available_quantity, 0) FROM carton;
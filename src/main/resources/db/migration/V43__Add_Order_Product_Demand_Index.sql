@@ -0,0 +1 @@
+CREATE INDEX idx_order_product_order_deleted_package ON order_product(order_id, is_deleted, package_id, number);
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS package_open_demand (
+    package_id BIGINT PRIMARY KEY,
+    quantity BIGINT NOT NULL,
+    FOREIGN KEY (package_id) REFERENCES package(id)
+);
+
+-- Open demand of the orders that are neither deleted nor invoiced yet.
+INSERT INTO package_open_demand (package_id, quantity)
+SELECT op.package_id, SUM(op.number)
+FROM order_product op
+JOIN order_table o ON o.id = op.order_id
+WHERE op.is_deleted = FALSE AND o.is_deleted = FALSE AND o.is_invoiced = FALSE AND op.package_id IS NOT NULL
+GROUP BY op.package_id;
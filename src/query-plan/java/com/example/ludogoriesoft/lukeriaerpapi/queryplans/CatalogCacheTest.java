@@ -0,0 +1,160 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.configuration.TypesafeConfigurator;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Catalog reads run in their own transactions here, the way requests do, so entries cached by one
+ * transaction are visible to the next.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RecordingDataSourceConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogCacheTest {
+
+    private static final QueryRecorder RECORDER = RecordingDataSourceConfiguration.RECORDER;
+    // one of the cartons V20 inserts; seeded cartons are numbered after its id 9999 placeholder
+    private static final long CARTON_ID = 4L;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CartonRepository cartonRepository;
+    @Autowired
+    private PlateRepository plateRepository;
+    @Autowired
+    private PackageRepository packageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.registerDataSource(registry);
+    }
+
+    @BeforeEach
+    void seedAndEvict() throws Exception {
+        EmbeddedMariaDb.seed(dataSource);
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+    }
+
+    @Test
+    void warmCatalogReadsDoNotReachTheDatabase() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Runnable catalogReads = () -> transaction.executeWithoutResult(status -> {
+            Product product = productRepository.findByIdAndDeletedFalse(42L).orElseThrow();
+            Package productPackage = product.getPackageId();
+            productPackage.getCartonId().getAvailableQuantity();
+            productPackage.getPlateId().getAvailableQuantity();
+            productRepository.findByPackageIdAndDeletedFalse(productPackage);
+            packageRepository.findByIdAndDeletedFalse(productPackage.getId());
+            plateRepository.findByIdAndDeletedFalse(productPackage.getPlateId().getId());
+            cartonRepository.findAllActiveDTOs();
+        });
+
+        catalogReads.run();
+        RECORDER.start();
+        catalogReads.run();
+        RECORDER.stop();
+
+        assertEquals(0, RECORDER.executions(), () -> "statements sent: " + RECORDER.stop().keySet());
+    }
+
+    @Test
+    void writeThroughJpaReplacesTheCachedEntryAndQueries() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        String originalName = transaction.execute(status -> cartonRepository.findByIdAndDeletedFalse(CARTON_ID).orElseThrow().getName());
+        try {
+            transaction.executeWithoutResult(status -> {
+                Carton carton = cartonRepository.findByIdAndDeletedFalse(CARTON_ID).orElseThrow();
+                carton.setName("Renamed carton");
+                cartonRepository.save(carton);
+            });
+
+            RECORDER.start();
+            String cachedName = transaction.execute(status -> cartonRepository.findById(CARTON_ID).orElseThrow().getName());
+            RECORDER.stop();
+            String queriedName = transaction.execute(status -> cartonRepository.findByIdAndDeletedFalse(CARTON_ID).orElseThrow().getName());
+
+            assertEquals("Renamed carton", cachedName);
+            assertEquals(0, RECORDER.executions());
+            assertEquals("Renamed carton", queriedName);
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                Carton carton = cartonRepository.findById(CARTON_ID).orElseThrow();
+                carton.setName(originalName);
+                cartonRepository.save(carton);
+            });
+        }
+    }
+
+    /**
+     * Builds both regions from application.conf on a fake ticker, so the clock can be moved past the default TTL.
+     */
+    @Test
+    void updateTimestampsOutliveTheDefaultTtl() {
+        Config config = ConfigFactory.load();
+        AtomicLong nanos = new AtomicLong();
+        CaffeineConfiguration<Object, Object> defaults = TypesafeConfigurator.defaults(config);
+        CaffeineConfiguration<Object, Object> timestamps =
+                TypesafeConfigurator.<Object, Object>from(config, "default-update-timestamps-region").orElseThrow();
+        defaults.setTickerFactory(() -> nanos::get);
+        timestamps.setTickerFactory(() -> nanos::get);
+
+        try (CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("update-timestamps-ttl"), getClass().getClassLoader())) {
+            Cache<Object, Object> defaultRegion = cacheManager.createCache("default-ttl", defaults);
+            Cache<Object, Object> timestampsRegion = cacheManager.createCache("update-timestamps", timestamps);
+            defaultRegion.put("carton", 1L);
+            timestampsRegion.put("carton", 1L);
+
+            nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+            assertNull(defaultRegion.get("carton"));
+            assertEquals(1L, timestampsRegion.get("carton"));
+            assertTrue(timestamps.getMaximumSize().isEmpty());
+        }
+    }
+}
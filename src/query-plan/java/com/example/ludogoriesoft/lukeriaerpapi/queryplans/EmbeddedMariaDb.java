@@ -0,0 +1,96 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One MariaDB server per JVM, started on a free port the first time a plan test asks for it.
+ */
+final class EmbeddedMariaDb {
+
+    static final String SCHEMA = "lukeria";
+    static final String REPLICA_SCHEMA = "lukeria_replica";
+    private static final String DRIVER = "org.mariadb.jdbc.Driver";
+    // the server defaults to latin1, while the migrations insert Cyrillic names
+    private static final String UTF8MB4 = " CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci";
+
+    private static DB db;
+    private static boolean seeded;
+
+    private EmbeddedMariaDb() {
+    }
+
+    static String jdbcUrl() {
+        return jdbcUrl(SCHEMA);
+    }
+
+    /**
+     * Points the primary datasource at the embedded server through MariaDB's own driver. UUIDs stay binary(16) as on
+     * MySQL instead of MariaDB's native uuid type.
+     */
+    static void registerDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", EmbeddedMariaDb::jdbcUrl);
+        registry.add("spring.datasource.driver-class-name", () -> DRIVER);
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type", () -> "BINARY");
+    }
+
+    /**
+     * A second schema on the same server, standing in for a read replica.
+     */
+    static String replicaJdbcUrl() {
+        return jdbcUrl(REPLICA_SCHEMA);
+    }
+
+    private static synchronized String jdbcUrl(String schema) {
+        if (db == null) {
+            try {
+                DBConfigurationBuilder configuration = DBConfigurationBuilder.newBuilder();
+                configuration.setPort(0);
+                if ("root".equals(System.getProperty("user.name"))) {
+                    // mariadbd refuses to start as root unless told to, which is how CI containers usually run
+                    configuration.addArg("--user=root");
+                }
+                db = DB.newEmbeddedDB(configuration.build());
+                db.start();
+                createSchemas(db.getConfiguration().getPort());
+            } catch (ManagedProcessException | SQLException exception) {
+                throw new IllegalStateException("Could not start the embedded MariaDB", exception);
+            }
+        }
+        return "jdbc:mariadb://localhost:" + db.getConfiguration().getPort() + "/" + schema;
+    }
+
+    // DB.createDB shells out to the bundled mariadb client, which needs an ncurses the server itself does not
+    private static void createSchemas(int port) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:mariadb://localhost:" + port + "/", "root", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + SCHEMA + UTF8MB4);
+            statement.execute("CREATE DATABASE IF NOT EXISTS " + REPLICA_SCHEMA + UTF8MB4);
+        }
+    }
+
+    /**
+     * Loads query-plan-seed.sql once the schema has been migrated; later calls are no-ops.
+     */
+    static synchronized void seed(DataSource dataSource) throws SQLException {
+        if (seeded) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("query-plan-seed.sql"));
+        }
+        seeded = true;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderLineMaterialsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CartItem;
+import com.example.ludogoriesoft.lukeriaerpapi.models.InvoiceOrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.OrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.InvoiceOrderProductRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.OrderProductRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ShoppingCartRepository;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Each use case loads its entity graph and walks every association its endpoint reads;
+ * all of it has to arrive in a single statement.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RecordingDataSourceConfiguration.class)
+class EntityGraphStatementCountTest {
+
+    private static final QueryRecorder RECORDER = RecordingDataSourceConfiguration.RECORDER;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+    @Autowired
+    private InvoiceOrderProductRepository invoiceOrderProductRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.registerDataSource(registry);
+    }
+
+    @BeforeTransaction
+    void seed() throws Exception {
+        EmbeddedMariaDb.seed(dataSource);
+    }
+
+    @BeforeEach
+    void clearCaches() {
+        testEntityManager.clear();
+        testEntityManager.getEntityManager().getEntityManagerFactory().getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    @Test
+    void showCartLoadsCartItemsProductsAndPackagesInOneStatement() throws Throwable {
+        assertStatements(1, () -> {
+            ShoppingCart shoppingCart = shoppingCartRepository.findByClientUserId(43L).orElseThrow();
+            shoppingCart.getClientId().getBusinessName();
+            assertFalse(shoppingCart.getItems().isEmpty());
+            for (CartItem cartItem : shoppingCart.getItems()) {
+                cartItem.getProductId().getAvailableQuantity();
+                cartItem.getProductId().getPackageId().getName();
+            }
+        });
+    }
+
+    @Test
+    void materialsForOrderLoadsProductsPackagesCartonsAndPlatesInOneStatement() throws Throwable {
+        assertStatements(1, () -> {
+            List<OrderLineMaterialsDTO> lines = orderProductRepository.findMaterialsByOrderId(42L);
+            assertFalse(lines.isEmpty());
+            for (OrderLineMaterialsDTO line : lines) {
+                assertNotNull(line.getProductQuantity());
+            }
+        });
+    }
+
+    @Test
+    void invoiceLinesLoadOrderProductsAndPackagesInOneStatement() throws Throwable {
+        assertStatements(1, () -> {
+            List<InvoiceOrderProduct> invoiceLines = invoiceOrderProductRepository.findInvoiceLines(42L);
+            assertFalse(invoiceLines.isEmpty());
+            for (InvoiceOrderProduct invoiceLine : invoiceLines) {
+                invoiceLine.getInvoiceId().getInvoiceNumber();
+                invoiceLine.getOrderProductId().getNumber();
+                invoiceLine.getOrderProductId().getPackageId().getName();
+            }
+        });
+    }
+
+    @Test
+    void productStockEmailLoadsPackageCartonAndPlateInOneStatement() throws Throwable {
+        assertStatements(1, () -> {
+            Product product = productRepository.findStockReportByIdAndDeletedFalse(42L).orElseThrow();
+            product.getPackageId().getPhoto();
+            product.getPackageId().getCartonId().getAvailableQuantity();
+            product.getPackageId().getPlateId().getAvailableQuantity();
+        });
+    }
+
+    @Test
+    void packageStockEmailLoadsCartonAndPlateInOneStatement() throws Throwable {
+        assertStatements(1, () -> {
+            Package productPackage = packageRepository.findStockReportByIdAndDeletedFalse(42L).orElseThrow();
+            productPackage.getCartonId().getName();
+            productPackage.getPlateId().getAvailableQuantity();
+        });
+    }
+
+    @Test
+    void plainLookupLeavesAssociationsUnloaded() throws Throwable {
+        assertStatements(1, () -> {
+            OrderProduct orderProduct = orderProductRepository.findByIdAndDeletedFalse(42L).orElseThrow();
+            assertFalse(Hibernate.isInitialized(orderProduct.getOrderId()));
+            assertFalse(Hibernate.isInitialized(orderProduct.getPackageId()));
+        });
+    }
+
+    private void assertStatements(int expected, Executable useCase) throws Throwable {
+        RECORDER.start();
+        try {
+            useCase.execute();
+        } finally {
+            RECORDER.stop();
+        }
+        assertEquals(expected, RECORDER.executions(), () -> "statements sent: " + RECORDER.stop().keySet());
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository finder against a seeded embedded MariaDB and EXPLAINs the statements it
+ * sends. A finder fails when any table is read with a full scan ({@code type = ALL}); list-all
+ * finders declared with {@link #scan} may only scan the table they list.
+ * Run with {@code mvn -P query-plans test}.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RecordingDataSourceConfiguration.class, StockLedgerRepository.class, PackageOpenDemandRepository.class})
+class QueryPlanRegressionTest {
+
+    private static final QueryRecorder RECORDER = RecordingDataSourceConfiguration.RECORDER;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 5, 0, 0);
+    private static final int PAGE = 51;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private CartonRepository cartonRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ClientUserRepository clientUserRepository;
+    @Autowired
+    private CustomerCustomPriceRepository customerCustomPriceRepository;
+    @Autowired
+    private DeniedTokenRepository deniedTokenRepository;
+    @Autowired
+    private ImageRepository imageRepository;
+    @Autowired
+    private InvoiceOrderProductRepository invoiceOrderProductRepository;
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+    @Autowired
+    private ManufacturedProductRepository manufacturedProductRepository;
+    @Autowired
+    private MaterialOrderRepository materialOrderRepository;
+    @Autowired
+    private MonthlyOrderProductRepository monthlyOrderProductRepository;
+    @Autowired
+    private MonthlyOrderRepository monthlyOrderRepository;
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private PackageOpenDemandRepository packageOpenDemandRepository;
+    @Autowired
+    private PackageRepository packageRepository;
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired
+    private PlateRepository plateRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private StockLedgerRepository stockLedgerRepository;
+    @Autowired
+    private TokenRepository tokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.registerDataSource(registry);
+    }
+
+    @BeforeTransaction
+    void seed() throws Exception {
+        EmbeddedMariaDb.seed(dataSource);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> finderPlans() {
+        return cases().stream()
+                .map(planCase -> DynamicTest.dynamicTest(planCase.finder(), () -> assertNoFullScan(planCase)));
+    }
+
+    @Test
+    void everyRepositoryFinderHasAPlanCase() {
+        Set<String> covered = cases().stream().map(PlanCase::finder).collect(Collectors.toSet());
+        List<String> missing = new ArrayList<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                String finder = repositoryInterface.getSimpleName() + "." + method.getName();
+                if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())
+                        && !covered.contains(finder)) {
+                    missing.add(finder);
+                }
+            }
+        }
+        assertTrue(missing.isEmpty(), () -> "Add query plan cases for " + missing);
+    }
+
+    private List<PlanCase> cases() {
+        return List.of(
+                seek("CartItemRepository.findByIdAndDeletedFalse", () -> cartItemRepository.findByIdAndDeletedFalse(42L)),
+
+                scan("CartonRepository.findByDeletedFalse", () -> cartonRepository.findByDeletedFalse()),
+                scan("CartonRepository.findAllActiveDTOs", () -> cartonRepository.findAllActiveDTOs()),
+                seek("CartonRepository.findByIdAndDeletedFalse", () -> cartonRepository.findByIdAndDeletedFalse(42L)),
+                scan("CartonRepository.findAllMaterials", () -> cartonRepository.findAllMaterials()),
+                seek("CartonRepository.findMaterialsByIdIn", () -> cartonRepository.findMaterialsByIdIn(List.of(42L, 43L, 44L))),
+
+                scan("ClientRepository.findByDeletedFalse", () -> clientRepository.findByDeletedFalse()),
+                seek("ClientRepository.findByIdAndDeletedFalse", () -> clientRepository.findByIdAndDeletedFalse(42L)),
+                seek("ClientRepository.findByBusinessName", () -> clientRepository.findByBusinessName("Client 42")),
+
+                scan("ClientUserRepository.findByDeletedFalse", () -> clientUserRepository.findByDeletedFalse()),
+                scan("ClientUserRepository.findAllActiveDTOs", () -> clientUserRepository.findAllActiveDTOs()),
+                seek("ClientUserRepository.findByIdAndDeletedFalse", () -> clientUserRepository.findByIdAndDeletedFalse(42L)),
+                seek("ClientUserRepository.findByClientIdAndUserIdAndDeletedFalse",
+                        () -> clientUserRepository.findByClientIdAndUserIdAndDeletedFalse(42L, 43L)),
+                seek("ClientUserRepository.findByUserIdAndClientId", () -> clientUserRepository.findByUserIdAndClientId(43L, 42L)),
+                seek("ClientUserRepository.findByUserIdAndDeletedFalse", () -> clientUserRepository.findByUserIdAndDeletedFalse(43L)),
+
+                scan("CustomerCustomPriceRepository.findByDeletedFalse", () -> customerCustomPriceRepository.findByDeletedFalse()),
+                scan("CustomerCustomPriceRepository.findAllActiveDTOs", () -> customerCustomPriceRepository.findAllActiveDTOs()),
+                seek("CustomerCustomPriceRepository.findByIdAndDeletedFalse", () -> customerCustomPriceRepository.findByIdAndDeletedFalse(42L)),
+                seek("CustomerCustomPriceRepository.findByClientIdAndDeletedFalse",
+                        () -> customerCustomPriceRepository.findByClientIdAndDeletedFalse(reference(Client.class, 42L))),
+                seek("CustomerCustomPriceRepository.findByClientIdAndProductIdAndDeletedFalse",
+                        () -> customerCustomPriceRepository.findByClientIdAndProductIdAndDeletedFalse(reference(Client.class, 42L), reference(Product.class, 42L))),
+
+                seek("DeniedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc",
+                        () -> deniedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(2900L, NOW)),
+                seek("DeniedTokenRepository.existsByJti", () -> deniedTokenRepository.existsByJti("jti-42")),
+
+                seek("ImageRepository.findByName", () -> imageRepository.findByName(UUID.nameUUIDFromBytes("42".getBytes()))),
+
+                scan("InvoiceOrderProductRepository.findByDeletedFalse", () -> invoiceOrderProductRepository.findByDeletedFalse()),
+                scan("InvoiceOrderProductRepository.findAllActiveDTOs", () -> invoiceOrderProductRepository.findAllActiveDTOs()),
+                seek("InvoiceOrderProductRepository.findByIdAndDeletedFalse", () -> invoiceOrderProductRepository.findByIdAndDeletedFalse(42L)),
+                seek("InvoiceOrderProductRepository.findInvoiceLines", () -> invoiceOrderProductRepository.findInvoiceLines(42L)),
+
+                scan("InvoiceRepository.findByDeletedFalse", () -> invoiceRepository.findByDeletedFalse()),
+                scan("InvoiceRepository.findAllActiveDTOs", () -> invoiceRepository.findAllActiveDTOs()),
+                scan("InvoiceRepository.streamAllActiveDTOs", () -> drain(invoiceRepository.streamAllActiveDTOs())),
+                seek("InvoiceRepository.findByIdAndDeletedFalse", () -> invoiceRepository.findByIdAndDeletedFalse(42L)),
+                seek("InvoiceRepository.findLastInvoiceNumber", () -> invoiceRepository.findLastInvoiceNumber()),
+                seek("InvoiceRepository.findLastInvoiceNumberAbroad", () -> invoiceRepository.findLastInvoiceNumberAbroad()),
+
+                scan("ManufacturedProductRepository.findByDeletedFalse", () -> manufacturedProductRepository.findByDeletedFalse()),
+                seek("ManufacturedProductRepository.findByIdAndDeletedFalse", () -> manufacturedProductRepository.findByIdAndDeletedFalse(42L)),
+                scan("ManufacturedProductRepository.streamAllDTOs", () -> drain(manufacturedProductRepository.streamAllDTOs())),
+
+                scan("MaterialOrderRepository.findByDeletedFalse", () -> materialOrderRepository.findByDeletedFalse()),
+                seek("MaterialOrderRepository.findByIdAndDeletedFalse", () -> materialOrderRepository.findByIdAndDeletedFalse(42L)),
+                seek("MaterialOrderRepository.findAllByIdInAndDeletedFalse", () -> materialOrderRepository.findAllByIdInAndDeletedFalse(List.of(42L, 43L, 44L))),
+                scan("MaterialOrderRepository.sumOpenOrdersByMaterial", () -> materialOrderRepository.sumOpenOrdersByMaterial()),
+
+                scan("MonthlyOrderProductRepository.findByDeletedFalse", () -> monthlyOrderProductRepository.findByDeletedFalse()),
+                scan("MonthlyOrderProductRepository.findAllActiveDTOs", () -> monthlyOrderProductRepository.findAllActiveDTOs()),
+                seek("MonthlyOrderProductRepository.findByIdAndDeletedFalse", () -> monthlyOrderProductRepository.findByIdAndDeletedFalse(42L)),
+
+                scan("MonthlyOrderRepository.findByDeletedFalse", () -> monthlyOrderRepository.findByDeletedFalse()),
+                scan("MonthlyOrderRepository.findAllActiveDTOs", () -> monthlyOrderRepository.findAllActiveDTOs()),
+                seek("MonthlyOrderRepository.findByIdAndDeletedFalse", () -> monthlyOrderRepository.findByIdAndDeletedFalse(42L)),
+                seek("MonthlyOrderRepository.findFirstByDeletedFalseOrderByIdDesc", () -> monthlyOrderRepository.findFirstByDeletedFalseOrderByIdDesc()),
+
+                scan("OrderProductRepository.findByDeletedFalse", () -> orderProductRepository.findByDeletedFalse()),
+                scan("OrderProductRepository.findAllActiveDTOs", () -> orderProductRepository.findAllActiveDTOs()),
+                scan("OrderProductRepository.streamAllActiveDTOs", () -> drain(orderProductRepository.streamAllActiveDTOs())),
+                seek("OrderProductRepository.findByIdAndDeletedFalse", () -> orderProductRepository.findByIdAndDeletedFalse(42L)),
+                seek("OrderProductRepository.findAllByOrderId", () -> orderProductRepository.findAllByOrderId(reference(Order.class, 42L))),
+                seek("OrderProductRepository.findMaterialsByOrderId", () -> orderProductRepository.findMaterialsByOrderId(42L)),
+                seek("OrderProductRepository.findPageOrderedById",
+                        () -> orderProductRepository.findPageOrderedById(30000L, null, PageRequest.of(0, PAGE))),
+                seek("OrderProductRepository.findPageOrderedById",
+                        () -> orderProductRepository.findPageOrderedById(null, 42L, PageRequest.of(0, PAGE))),
+
+                scan("OrderRepository.findByDeletedFalse", () -> orderRepository.findByDeletedFalse()),
+                scan("OrderRepository.findAllActiveDTOs", () -> orderRepository.findAllActiveDTOs()),
+                seek("OrderRepository.findFirstByDeletedFalseOrderByIdDesc", () -> orderRepository.findFirstByDeletedFalseOrderByIdDesc()),
+                seek("OrderRepository.findByIdAndDeletedFalse", () -> orderRepository.findByIdAndDeletedFalse(42L)),
+                seek("OrderRepository.findAllByClientId", () -> orderRepository.findAllByClientId(reference(Client.class, 42L))),
+                seek("OrderRepository.findPageOrderedById",
+                        () -> orderRepository.findPageOrderedById(10000L, null, null, null, null, PageRequest.of(0, PAGE))),
+                seek("OrderRepository.findPageOrderedById",
+                        () -> orderRepository.findPageOrderedById(null, 42L, true, null, null, PageRequest.of(0, PAGE))),
+                seek("OrderRepository.findPageOrderedByOrderDate",
+                        () -> orderRepository.findPageOrderedByOrderDate(LocalDate.of(2024, 6, 1), 10000L, null, null, null, null, PageRequest.of(0, PAGE))),
+                seek("OrderRepository.findPageOrderedByOrderDate",
+                        () -> orderRepository.findPageOrderedByOrderDate(null, null, 42L, null,
+                                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), PageRequest.of(0, PAGE))),
+
+                scan("PackageOpenDemandRepository.findAll", () -> packageOpenDemandRepository.findAll()),
+
+                scan("PackageRepository.findByDeletedFalse", () -> packageRepository.findByDeletedFalse()),
+                scan("PackageRepository.findAllActiveDTOs", () -> packageRepository.findAllActiveDTOs()),
+                seek("PackageRepository.findByIdAndDeletedFalse", () -> packageRepository.findByIdAndDeletedFalse(42L)),
+                seek("PackageRepository.findStockReportByIdAndDeletedFalse", () -> packageRepository.findStockReportByIdAndDeletedFalse(42L)),
+                seek("PackageRepository.findFirstByDeletedFalseOrderByIdDesc", () -> packageRepository.findFirstByDeletedFalseOrderByIdDesc()),
+                seek("PackageRepository.findAllByAvailableQuantityLessThan", () -> packageRepository.findAllByAvailableQuantityLessThan(5)),
+                scan("PackageRepository.findAllMaterials", () -> packageRepository.findAllMaterials()),
+                seek("PackageRepository.findMaterialsByIdIn", () -> packageRepository.findMaterialsByIdIn(List.of(42L, 43L, 44L))),
+
+                seek("PasswordResetTokenRepository.findByToken", () -> passwordResetTokenRepository.findByToken("reset-42")),
+
+                scan("PlateRepository.findByDeletedFalse", () -> plateRepository.findByDeletedFalse()),
+                scan("PlateRepository.findAllActiveDTOs", () -> plateRepository.findAllActiveDTOs()),
+                seek("PlateRepository.findByIdAndDeletedFalse", () -> plateRepository.findByIdAndDeletedFalse(42L)),
+                seek("PlateRepository.findFirstByDeletedFalseOrderByIdDesc", () -> plateRepository.findFirstByDeletedFalseOrderByIdDesc()),
+                scan("PlateRepository.findAllMaterials", () -> plateRepository.findAllMaterials()),
+                seek("PlateRepository.findMaterialsByIdIn", () -> plateRepository.findMaterialsByIdIn(List.of(42L, 43L, 44L))),
+
+                scan("ProductRepository.findByDeletedFalse", () -> productRepository.findByDeletedFalse()),
+                scan("ProductRepository.findAllActiveDTOs", () -> productRepository.findAllActiveDTOs()),
+                seek("ProductRepository.findByIdAndDeletedFalse", () -> productRepository.findByIdAndDeletedFalse(42L)),
+                seek("ProductRepository.findStockReportByIdAndDeletedFalse", () -> productRepository.findStockReportByIdAndDeletedFalse(42L)),
+                seek("ProductRepository.findByPackageIdAndDeletedFalse",
+                        () -> productRepository.findByPackageIdAndDeletedFalse(reference(Package.class, 42L))),
+                seek("ProductRepository.getProductsForSale", () -> productRepository.getProductsForSale()),
+                seek("ProductRepository.findByPackageId", () -> productRepository.findByPackageId(reference(Package.class, 42L))),
+                scan("ProductRepository.getAvailableProducts", () -> productRepository.getAvailableProducts()),
+
+                seek("ShoppingCartRepository.findByClientId", () -> shoppingCartRepository.findByClientId(reference(Client.class, 42L))),
+                seek("ShoppingCartRepository.findByClientUserId", () -> shoppingCartRepository.findByClientUserId(43L)),
+
+                seek("StockLedgerRepository.quantityAt", () -> stockLedgerRepository.quantityAt(StockItemType.PRODUCT, 42L, NOW.minusDays(20))),
+
+                seek("TokenRepository.findAllByUser", () -> tokenRepository.findAllByUser(reference(User.class, 43L))),
+                seek("TokenRepository.findByToken", () -> tokenRepository.findByToken("token-42")),
+                scan("TokenRepository.findActiveTokens", () -> tokenRepository.findActiveTokens()),
+                seek("TokenRepository.findActiveToken", () -> tokenRepository.findActiveToken("token-42")),
+                seek("TokenRepository.findTokensByUserIdAndTokenType", () -> tokenRepository.findTokensByUserIdAndTokenType(43L, TokenType.ACCESS)),
+
+                scan("UserRepository.findByDeletedFalse", () -> userRepository.findByDeletedFalse()),
+                seek("UserRepository.findByEmail", () -> userRepository.findByEmail("user42@example.com")),
+                seek("UserRepository.findByIdAndDeletedFalse", () -> userRepository.findByIdAndDeletedFalse(42L)),
+                scan("UserRepository.findEmailsByRoleNotCustomer", () -> userRepository.findEmailsByRoleNotCustomer()),
+
+                // deletes last; the test transaction rolls them back
+                seek("DeniedTokenRepository.deleteExpired", () -> deniedTokenRepository.deleteExpired(NOW, 100)),
+                seek("PasswordResetTokenRepository.deleteExpired", () -> passwordResetTokenRepository.deleteExpired(NOW, 100)),
+                seek("TokenRepository.deleteAllByUserId", () -> tokenRepository.deleteAllByUserId(43L)),
+                seek("TokenRepository.deleteExpired", () -> tokenRepository.deleteExpired(NOW, 100))
+        );
+    }
+
+    private void assertNoFullScan(PlanCase planCase) throws Throwable {
+        testEntityManager.clear();
+        testEntityManager.getEntityManager().getEntityManagerFactory().getCache().unwrap(Cache.class).evictAllRegions();
+        RECORDER.start();
+        Map<String, List<ParameterSetOperation>> statements;
+        try {
+            planCase.call().execute();
+        } finally {
+            statements = RECORDER.stop();
+        }
+        assertFalse(statements.isEmpty(), () -> planCase.finder() + " did not reach the database");
+
+        List<String> fullScans = new ArrayList<>();
+        boolean drivingStatement = true;
+        for (Map.Entry<String, List<ParameterSetOperation>> statement : statements.entrySet()) {
+            List<PlanRow> plan = explain(statement.getKey(), statement.getValue());
+            for (int i = 0; i < plan.size(); i++) {
+                boolean listedTable = drivingStatement && i == 0 && planCase.listsTable();
+                if ("ALL".equals(plan.get(i).type()) && !listedTable) {
+                    fullScans.add(plan.get(i).table() + " in [" + statement.getKey() + "]");
+                }
+            }
+            drivingStatement = false;
+        }
+        assertTrue(fullScans.isEmpty(), () -> planCase.finder() + " falls back to a full scan: " + fullScans);
+    }
+
+    private List<PlanRow> explain(String sql, List<ParameterSetOperation> parameters) throws Exception {
+        List<PlanRow> plan = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation operation : parameters) {
+                operation.getMethod().invoke(explain, operation.getArgs());
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.add(new PlanRow(resultSet.getString("table"), resultSet.getString("type")));
+                }
+            }
+        }
+        return plan;
+    }
+
+    private <T> T reference(Class<T> type, Long id) {
+        return testEntityManager.getEntityManager().getReference(type, id);
+    }
+
+    private static void drain(Stream<?> rows) {
+        try (rows) {
+            rows.limit(PAGE).forEach(row -> {
+            });
+        }
+    }
+
+    private static PlanCase seek(String finder, Executable call) {
+        return new PlanCase(finder, false, call);
+    }
+
+    private static PlanCase scan(String finder, Executable call) {
+        return new PlanCase(finder, true, call);
+    }
+
+    private record PlanCase(String finder, boolean listsTable, Executable call) {
+    }
+
+    private record PlanRow(String table, String type) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the distinct statements (with the parameters of their first execution) that reach the
+ * driver while recording is on, so they can be replayed under EXPLAIN, and counts every execution.
+ */
+class QueryRecorder implements QueryExecutionListener {
+
+    private final Map<String, List<ParameterSetOperation>> statements = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicInteger executions = new AtomicInteger();
+    private volatile boolean recording;
+
+    void start() {
+        statements.clear();
+        executions.set(0);
+        recording = true;
+    }
+
+    int executions() {
+        return executions.get();
+    }
+
+    Map<String, List<ParameterSetOperation>> stop() {
+        recording = false;
+        synchronized (statements) {
+            return new LinkedHashMap<>(statements);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // statements are recorded once they have run
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!recording) {
+            return;
+        }
+        executions.incrementAndGet();
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+            List<ParameterSetOperation> first = parameters.isEmpty() ? List.of() : new ArrayList<>(parameters.get(0));
+            statements.putIfAbsent(queryInfo.getQuery(), first);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import com.example.ludogoriesoft.lukeriaerpapi.config.ReadReplicaDataSourceConfiguration;
+import com.example.ludogoriesoft.lukeriaerpapi.config.ReadReplicaRoutingDataSource;
+import com.example.ludogoriesoft.lukeriaerpapi.config.ReplicaLagMonitor;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ClientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two schemas on the embedded server stand in for the primary and the replica. The same client is stored in both
+ * with a different address, so every read shows which pool served it.
+ */
+@Tag("query-plan")
+@DataJpaTest(properties = {
+        "application.datasource.replica.enabled=true",
+        "application.datasource.replica.username=root",
+        "application.datasource.replica.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReadReplicaDataSourceConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTest {
+
+    private static final String BUSINESS_NAME = "Replica routing check";
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void embeddedDatabases(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.registerDataSource(registry);
+        registry.add("application.datasource.replica.url", EmbeddedMariaDb::replicaJdbcUrl);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(EmbeddedMariaDb.replicaJdbcUrl(), "root", "").load().migrate();
+    }
+
+    @BeforeEach
+    void storeClientInBothSchemas() throws Exception {
+        // seed first: the seed's foreign keys assume the primary's ids start at 1
+        EmbeddedMariaDb.seed(primaryDataSource);
+        insertClient(primaryDataSource, "primary");
+        insertClient(replicaWriter(), "replica");
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void removeClient() {
+        for (DataSource dataSource : new DataSource[]{primaryDataSource, replicaWriter()}) {
+            new JdbcTemplate(dataSource).update("DELETE FROM client WHERE business_name = ?", BUSINESS_NAME);
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplica() {
+        double replicaConnections = routedConnections(ReadReplicaRoutingDataSource.REPLICA);
+
+        assertEquals("replica", readAddress(true));
+        assertEquals("primary", readAddress(false));
+        assertEquals(replicaConnections + 1, routedConnections(ReadReplicaRoutingDataSource.REPLICA));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsOutOfRotation() {
+        replicaLagMonitor.markUnavailable();
+        assertEquals("primary", readAddress(true));
+
+        replicaLagMonitor.check();
+        assertEquals("replica", readAddress(true));
+    }
+
+    private String readAddress(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> clientRepository.findByBusinessName(BUSINESS_NAME).getAddress());
+    }
+
+    private double routedConnections(String pool) {
+        return meterRegistry.get(ReadReplicaRoutingDataSource.ROUTED_METRIC).tag("pool", pool).counter().count();
+    }
+
+    /**
+     * The replica pool opens read-only connections, so test data goes into the replica schema around it.
+     */
+    private static DataSource replicaWriter() {
+        return new DriverManagerDataSource(EmbeddedMariaDb.replicaJdbcUrl(), "root", "");
+    }
+
+    private static void insertClient(DataSource dataSource, String address) {
+        new JdbcTemplate(dataSource).update(
+                "INSERT INTO client (business_name, id_numeik, address, is_deleted) VALUES (?, 'BG000', ?, false)",
+                BUSINESS_NAME, address);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.NoOpMethodExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the application DataSource through datasource-proxy so {@link #RECORDER} sees every statement.
+ * <p>
+ * Streaming finders ask Connector/J to stream with a fetch size of {@link Integer#MIN_VALUE}, which MariaDB's driver
+ * rejects; it streams with any positive fetch size instead, so the proxy passes 1.
+ */
+@TestConfiguration
+class RecordingDataSourceConfiguration {
+
+    static final QueryRecorder RECORDER = new QueryRecorder();
+
+    @Bean
+    static BeanPostProcessor recordingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource target && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(target).name("query-plans").listener(RECORDER)
+                            .methodListener(new NoOpMethodExecutionListener() {
+                                @Override
+                                public void beforeMethod(MethodExecutionContext executionContext) {
+                                    if ("setFetchSize".equals(executionContext.getMethod().getName())
+                                            && Integer.valueOf(Integer.MIN_VALUE).equals(executionContext.getMethodArgs()[0])) {
+                                        executionContext.setMethodArgs(new Object[]{1});
+                                    }
+                                }
+                            })
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
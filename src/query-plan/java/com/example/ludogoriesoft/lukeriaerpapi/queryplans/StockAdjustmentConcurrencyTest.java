@@ -0,0 +1,212 @@
+package com.example.ludogoriesoft.lukeriaerpapi.queryplans;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.InsufficientStockException;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustment;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockLedgerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Every adjustment runs in its own transaction, so concurrent ones really race on the same row.
+ */
+@Tag("query-plan")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StockAdjustmentRepository.class, StockLedgerRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockAdjustmentConcurrencyTest {
+
+    private static final long PRODUCT_ID = 42L;
+    private static final long PACKAGE_ID = 42L;
+    private static final int STOCK = 20;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private StockAdjustmentRepository stockAdjustmentRepository;
+    @Autowired
+    private StockLedgerRepository stockLedgerRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private int productQuantity;
+    private int packageQuantity;
+    private long lastMovementId;
+    private LocalDateTime startedAt;
+
+    @DynamicPropertySource
+    static void embeddedDatabase(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDb.registerDataSource(registry);
+    }
+
+    @BeforeEach
+    void setStock() throws Exception {
+        EmbeddedMariaDb.seed(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        productQuantity = quantity("product", PRODUCT_ID);
+        packageQuantity = quantity("package", PACKAGE_ID);
+        lastMovementId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM stock_movement", Long.class);
+        startedAt = databaseNow();
+        jdbcTemplate.update("UPDATE product SET available_quantity = ? WHERE id = ?", STOCK, PRODUCT_ID);
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    @AfterEach
+    void restoreStock() {
+        jdbcTemplate.update("UPDATE product SET available_quantity = ? WHERE id = ?", productQuantity, PRODUCT_ID);
+        jdbcTemplate.update("UPDATE package SET available_quantity = ? WHERE id = ?", packageQuantity, PACKAGE_ID);
+        jdbcTemplate.update("DELETE FROM stock_movement WHERE id > ?", lastMovementId);
+        jdbcTemplate.update("DELETE FROM stock_snapshot WHERE taken_at >= ?", startedAt.minusHours(1));
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    @Test
+    void concurrentSalesNeverOversell() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Callable<Boolean> sellOne = () -> transaction.execute(status -> stockAdjustmentRepository
+                .adjust(StockMovementReason.CHECKOUT, List.of(new StockAdjustment(StockItemType.PRODUCT, PRODUCT_ID, -1))).isEmpty());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> sales = new ArrayList<>();
+        try {
+            for (int i = 0; i < STOCK * 3; i++) {
+                sales.add(executor.submit(sellOne));
+            }
+            int sold = 0;
+            for (Future<Boolean> sale : sales) {
+                sold += Boolean.TRUE.equals(sale.get()) ? 1 : 0;
+            }
+            assertEquals(STOCK, sold);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, quantity("product", PRODUCT_ID));
+        assertEquals(-STOCK, jdbcTemplate.queryForObject(
+                "SELECT SUM(delta) FROM stock_movement WHERE id > ? AND item_type = 'PRODUCT' AND item_id = ? AND reason = 'CHECKOUT'",
+                Integer.class, lastMovementId, PRODUCT_ID));
+    }
+
+    @Test
+    void rejectedAdjustmentRollsBackTheOthers() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<StockAdjustment> adjustments = List.of(
+                new StockAdjustment(StockItemType.PRODUCT, PRODUCT_ID, 5),
+                new StockAdjustment(StockItemType.PACKAGE, PACKAGE_ID, -(packageQuantity + 1)));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> transaction.executeWithoutResult(status -> stockAdjustmentRepository.adjustOrReject(StockMovementReason.PRODUCTION, adjustments)));
+
+        assertEquals(List.of(adjustments.get(1)), exception.getRejected());
+        assertEquals(STOCK, quantity("product", PRODUCT_ID));
+        assertEquals(packageQuantity, quantity("package", PACKAGE_ID));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movement WHERE id > ?", Integer.class, lastMovementId));
+    }
+
+    @Test
+    void adjustedQuantityIsVisibleThroughTheCachedEntity() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> productRepository.findByIdAndDeletedFalse(PRODUCT_ID).orElseThrow());
+
+        int available = transaction.execute(status -> {
+            productRepository.findByIdAndDeletedFalse(PRODUCT_ID).orElseThrow();
+            stockAdjustmentRepository.adjustOrReject(StockMovementReason.CHECKOUT, List.of(new StockAdjustment(StockItemType.PRODUCT, PRODUCT_ID, -3)));
+            return productRepository.findByIdAndDeletedFalse(PRODUCT_ID).orElseThrow().getAvailableQuantity();
+        });
+
+        assertEquals(STOCK - 3, available);
+        assertEquals(Integer.valueOf(STOCK - 3), transaction.execute(status ->
+                productRepository.findByIdAndDeletedFalse(PRODUCT_ID).orElseThrow().getAvailableQuantity()));
+    }
+
+    @Test
+    void quantityAtAddsTheMovementsSinceTheLatestSnapshot() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int ledgerQuantity = ledgerQuantity();
+        stockLedgerRepository.takeSnapshot(Duration.ZERO);
+        LocalDateTime afterSnapshot = databaseNow();
+        transaction.executeWithoutResult(status -> stockAdjustmentRepository.adjustOrReject(StockMovementReason.INVOICE,
+                List.of(new StockAdjustment(StockItemType.PRODUCT, PRODUCT_ID, -5))));
+        LocalDateTime afterInvoice = databaseNow();
+
+        assertEquals(Optional.of(ledgerQuantity), stockLedgerRepository.quantityAt(StockItemType.PRODUCT, PRODUCT_ID, afterSnapshot));
+        assertEquals(Optional.of(ledgerQuantity - 5), stockLedgerRepository.quantityAt(StockItemType.PRODUCT, PRODUCT_ID, afterInvoice));
+        assertEquals(Optional.empty(), stockLedgerRepository.quantityAt(StockItemType.PRODUCT, PRODUCT_ID, LocalDateTime.of(2000, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void snapshotLeavesMovementsInsideTheSettleWindowToTheNextRun() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int ledgerQuantity = ledgerQuantity();
+        transaction.executeWithoutResult(status -> stockAdjustmentRepository.adjustOrReject(StockMovementReason.INVOICE,
+                List.of(new StockAdjustment(StockItemType.PRODUCT, PRODUCT_ID, -5))));
+
+        stockLedgerRepository.takeSnapshot(Duration.ofMinutes(10));
+        assertEquals(ledgerQuantity - 5, ledgerQuantity());
+        stockLedgerRepository.takeSnapshot(Duration.ZERO);
+        assertEquals(ledgerQuantity - 5, ledgerQuantity());
+    }
+
+    @Test
+    void manualQuantityEditIsRecordedAsAnAdjustment() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int ledgerQuantity = ledgerQuantity();
+
+        transaction.executeWithoutResult(status -> stockAdjustmentRepository.setQuantity(StockItemType.PRODUCT, PRODUCT_ID, STOCK + 7));
+        stockLedgerRepository.takeSnapshot(Duration.ZERO);
+
+        assertEquals(STOCK + 7, quantity("product", PRODUCT_ID));
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT SUM(delta) FROM stock_movement WHERE id > ? AND item_type = 'PRODUCT' AND item_id = ? AND reason = 'ADJUSTMENT'",
+                Integer.class, lastMovementId, PRODUCT_ID));
+        assertEquals(ledgerQuantity + 7, ledgerQuantity());
+    }
+
+    private int ledgerQuantity() {
+        return stockLedgerRepository.quantityAt(StockItemType.PRODUCT, PRODUCT_ID, databaseNow()).orElseThrow();
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT NOW(6)", LocalDateTime.class);
+    }
+
+    private int quantity(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT available_quantity FROM " + table + " WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,103 @@
+-- Enough rows per table that the optimizer prefers indexes over scans, loaded with MariaDB's sequence engine.
+INSERT INTO client (business_name, id_numeik, address, is_deleted)
+SELECT CONCAT('Client ', seq), CONCAT('BG', seq), 'Address', seq % 20 = 0 FROM seq_1_to_3000;
+
+INSERT INTO user (firstname, lastname, email, password, address, username, role, is_deleted)
+SELECT 'First', 'Last', CONCAT('user', seq, '@example.com'), 'secret', 'Address', CONCAT('user', seq),
+       ELT(1 + seq % 4, 'ADMIN', 'CUSTOMER', 'PRODUCTION_MANAGER', 'TRANSPORT_MANAGER'), seq % 20 = 0
+FROM seq_1_to_3000;
+
+INSERT INTO carton (name, size, available_quantity, price, is_deleted)
+SELECT CONCAT('Carton ', seq), '10/10/10', seq % 500, 1.00, seq % 20 = 0 FROM seq_1_to_3000;
+
+INSERT INTO plate (name, available_quantity, photo, price, is_deleted)
+SELECT CONCAT('Plate ', seq), seq % 500, NULL, 1.00, seq % 20 = 0 FROM seq_1_to_3000;
+
+INSERT INTO package (name, available_quantity, carton_id, plate_id, pieces_carton, price, is_deleted, product_code)
+SELECT CONCAT('Package ', seq), seq % 500, 1 + seq % 12, 1 + seq % 10, 12, 1.00, seq % 20 = 0, CONCAT('P', seq)
+FROM seq_1_to_3000;
+
+INSERT INTO product (price, package_id, available_quantity, is_deleted, product_code, for_sale, barcode)
+SELECT 2.00, seq, seq % 50, seq % 20 = 0, CONCAT('P', seq), seq % 10 = 0, CONCAT('380', seq) FROM seq_1_to_3000;
+
+INSERT INTO order_table (client_id, order_date, is_deleted, is_invoiced)
+SELECT 1 + seq % 3000, DATE_SUB('2024-12-31', INTERVAL seq % 1500 DAY), seq % 20 = 0, seq % 3 = 0
+FROM seq_1_to_20000;
+
+INSERT INTO order_product (number, order_id, package_id, is_deleted, selling_price)
+SELECT 1 + seq % 100, 1 + seq % 20000, 1 + seq % 3000, seq % 20 = 0, 2.50 FROM seq_1_to_60000;
+
+INSERT INTO package_open_demand (package_id, quantity)
+SELECT op.package_id, SUM(op.number) FROM order_product op JOIN order_table o ON o.id = op.order_id
+WHERE op.is_deleted = FALSE AND o.is_deleted = FALSE AND o.is_invoiced = FALSE GROUP BY op.package_id;
+
+INSERT INTO invoice (invoice_date, invoice_number, total_price, is_cash_payment, deadline, is_deleted, is_created, bank_account)
+SELECT DATE_SUB('2024-12-31', INTERVAL seq % 1500 DAY),
+       IF(seq % 5 = 0, 1000000300 + seq, 2000001365 + seq), 100.00, seq % 2 = 0, '2025-01-31', seq % 20 = 0, 1, 'BG00'
+FROM seq_1_to_5000;
+
+INSERT INTO invoice_order_product (invoice_id, order_product_id, is_deleted)
+SELECT 1 + seq % 5000, seq, seq % 20 = 0 FROM seq_1_to_20000;
+
+INSERT INTO monthly_order (client_id, start_date, end_date, is_invoiced, is_deleted)
+SELECT 1 + seq % 3000, '2024-01-01', '2024-01-31', seq % 2 = 0, seq % 20 = 0 FROM seq_1_to_2000;
+
+INSERT INTO monthly_order_product (package_id, ordered_quantity, sent_quantity, monthly_order_id, is_deleted)
+SELECT 1 + seq % 3000, 100, 50, 1 + seq % 2000, seq % 20 = 0 FROM seq_1_to_10000;
+
+INSERT INTO customer_custom_price (client_id, product_id, price, is_deleted)
+SELECT 1 + seq % 3000, 1 + seq DIV 4, 1.75, seq % 20 = 0 FROM seq_1_to_10000;
+
+INSERT INTO client_user (client_id, user_id, is_deleted)
+SELECT seq, seq + 1, seq % 20 = 0 FROM seq_1_to_3000;
+
+INSERT INTO tokens (token, token_type, revoked, expired, user_id, expires_at)
+SELECT CONCAT('token-', seq), IF(seq % 2 = 0, 'ACCESS', 'REFRESH'), seq % 3 = 0, seq % 3 = 0, 1 + seq % 3000,
+       IF(seq % 100 = 0, NULL, DATE_ADD('2024-12-31', INTERVAL seq % 60 DAY))
+FROM seq_1_to_20000;
+
+INSERT INTO password_reset_token (token, user_id, expiry_date)
+SELECT CONCAT('reset-', seq), 1 + seq % 3000, DATE_ADD('2024-12-31', INTERVAL seq % 60 DAY) FROM seq_1_to_3000;
+
+INSERT INTO token_denylist (jti, expires_at)
+SELECT CONCAT('jti-', seq), DATE_ADD('2024-12-31', INTERVAL seq % 60 DAY) FROM seq_1_to_3000;
+
+INSERT INTO image (name, package_id, plate_id)
+SELECT UNHEX(MD5(seq)), 1 + seq % 3000, NULL FROM seq_1_to_3000;
+
+INSERT INTO shopping_carts (client_id, order_date, status, is_deleted)
+SELECT seq, '2024-12-31', 'ACCEPTED', 0 FROM seq_1_to_3000;
+
+INSERT INTO cart_items (product_id, quantity, price, deleted, shopping_cart_id)
+SELECT 1 + seq % 3000, 2, 2.00, 0, 1 + seq % 3000 FROM seq_1_to_6000;
+
+INSERT INTO material_order (ordered_quantity, received_quantity, material_id, material_type, material_price, arrival_date, is_deleted)
+SELECT 100, 0, 1 + seq % 3000, ELT(1 + seq % 3, 'CARTON', 'PACKAGE', 'PLATE'), 1.00, '2024-12-31', seq % 20 = 0
+FROM seq_1_to_3000;
+
+INSERT INTO produced_product (product_id, quantity, manufacture_date, is_deleted)
+SELECT 1 + seq % 3000, 10, '2024-12-31 08:00:00', seq % 20 = 0 FROM seq_1_to_5000;
+
+INSERT INTO stock_snapshot (item_type, item_id, taken_at, last_movement_id, quantity)
+SELECT 'PRODUCT', 1 + seq % 3000, '2024-12-01 02:30:00' + INTERVAL seq DIV 3000 DAY, 150 + 1440 * (seq DIV 3000), seq % 50
+FROM seq_0_to_89999;
+
+INSERT INTO stock_movement (item_type, item_id, delta, reason, created_at)
+SELECT 'PRODUCT', 1 + seq % 3000, CAST(seq % 7 AS SIGNED) - 3, 'CHECKOUT', '2024-12-01 00:00:00' + INTERVAL seq MINUTE FROM seq_1_to_60000;
+
+-- These inserts bypassed JPA, so move the id blocks above them the way V41 does.
+UPDATE id_generator g JOIN (
+    SELECT 'order_product' AS sequence_name, MAX(id) AS max_id FROM order_product
+    UNION ALL SELECT 'invoice_order_product', MAX(id) FROM invoice_order_product
+    UNION ALL SELECT 'cart_items', MAX(id) FROM cart_items
+    UNION ALL SELECT 'produced_product', MAX(id) FROM produced_product
+    UNION ALL SELECT 'package', MAX(id) FROM package
+    UNION ALL SELECT 'product', MAX(id) FROM product
+    UNION ALL SELECT 'material_order', MAX(id) FROM material_order
+) m ON m.sequence_name = g.sequence_name
+SET g.next_val = COALESCE(m.max_id, 0) + 50;
+
+ANALYZE TABLE client, user, carton, plate, package, product, order_table, order_product, package_open_demand, invoice,
+    invoice_order_product, monthly_order, monthly_order_product, customer_custom_price, client_user, tokens,
+    password_reset_token, token_denylist, image, shopping_carts, cart_items, material_order, produced_product,
+    stock_snapshot, stock_movement;
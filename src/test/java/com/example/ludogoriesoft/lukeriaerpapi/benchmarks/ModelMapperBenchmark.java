@@ -0,0 +1,93 @@
+package com.example.ludogoriesoft.lukeriaerpapi.benchmarks;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.mappers.EntityDtoMapper;
+import com.example.ludogoriesoft.lukeriaerpapi.mappers.GeneratedModelMapper;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Order;
+import com.example.ludogoriesoft.lukeriaerpapi.models.OrderProduct;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object cost of entity to DTO mapping, reflective ModelMapper vs the generated mappers.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.ludogoriesoft.lukeriaerpapi.benchmarks.ModelMapperBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelMapperBenchmark {
+
+    private ModelMapper reflective;
+    private ModelMapper generated;
+    private Product product;
+    private OrderProduct orderProduct;
+
+    @Setup
+    public void setUp() {
+        reflective = new ModelMapper();
+        generated = new GeneratedModelMapper(Mappers.getMapper(EntityDtoMapper.class));
+
+        Package packageEntity = new Package();
+        packageEntity.setId(3L);
+        packageEntity.setName("package");
+        packageEntity.setCartonId(new Carton(1L, "carton", "40x40", 12, BigDecimal.ONE, false));
+        packageEntity.setPlateId(new Plate(2L, "plate", 30, "plate.png", BigDecimal.ONE, false));
+        product = new Product(4L, packageEntity, BigDecimal.TEN, 40, false, "PR-1", true, "380000");
+
+        Order order = new Order();
+        order.setId(5L);
+        orderProduct = new OrderProduct(6L, 3, order, packageEntity, false, BigDecimal.valueOf(7));
+    }
+
+    @Benchmark
+    public ProductDTO productReflective() {
+        return reflective.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productGenerated() {
+        return generated.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public OrderProductDTO orderProductReflective() {
+        return reflective.map(orderProduct, OrderProductDTO.class);
+    }
+
+    @Benchmark
+    public OrderProductDTO orderProductGenerated() {
+        return generated.map(orderProduct, OrderProductDTO.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ModelMapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
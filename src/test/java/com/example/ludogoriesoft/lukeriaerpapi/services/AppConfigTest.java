@@ -19,6 +19,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
 
@@ -55,7 +56,7 @@ class AppConfigTest {
 
     @Test
     void authenticationProvider_CreatesDaoAuthenticationProvider() {
-        AuthenticationProvider authenticationProvider = appConfig.authenticationProvider();
+        AuthenticationProvider authenticationProvider = appConfig.authenticationProvider(new BCryptPasswordEncoder());
         Assertions.assertTrue(authenticationProvider instanceof DaoAuthenticationProvider);
     }
 
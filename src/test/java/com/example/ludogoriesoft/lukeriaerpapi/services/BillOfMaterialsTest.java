@@ -0,0 +1,78 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class BillOfMaterialsTest {
+
+    @Mock
+    private PackageRepository packageRepository;
+    @Mock
+    private ProductRepository productRepository;
+
+    private final AtomicLong now = new AtomicLong();
+    private BillOfMaterials billOfMaterials;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        billOfMaterials = new BillOfMaterials(packageRepository, productRepository, Duration.ofMinutes(10), now::get);
+        when(packageRepository.findAllActiveDTOs()).thenReturn(List.of(
+                new PackageDTO(1L, "package", "package", 10, 7L, 5L, 12, null, BigDecimal.ONE, "P1")));
+        when(productRepository.findAllActiveDTOs()).thenReturn(List.of(
+                new ProductDTO(11L, BigDecimal.ONE, 1L, 3, "P11", true, "barcode"),
+                new ProductDTO(12L, BigDecimal.ONE, 1L, 4, "P12", true, "barcode")));
+    }
+
+    @Test
+    void testPackagesAreBuiltFromTheCatalog() {
+        Map<Long, BillOfMaterials.PackageBom> packages = billOfMaterials.packages();
+
+        assertEquals(new BillOfMaterials.PackageBom(1L, List.of(11L, 12L), 5L, 7L, 12), packages.get(1L));
+    }
+
+    @Test
+    void testPackagesAreCachedUntilInvalidated() {
+        billOfMaterials.packages();
+        billOfMaterials.packages();
+        verify(packageRepository, times(1)).findAllActiveDTOs();
+
+        billOfMaterials.invalidate();
+        billOfMaterials.packages();
+        verify(packageRepository, times(2)).findAllActiveDTOs();
+    }
+
+    @Test
+    void testPackagesAreRebuiltOnceExpired() {
+        billOfMaterials.packages();
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        billOfMaterials.packages();
+
+        verify(productRepository, times(2)).findAllActiveDTOs();
+    }
+
+    @Test
+    void testCartonsForRoundsUp() {
+        BillOfMaterials.PackageBom bom = new BillOfMaterials.PackageBom(1L, List.of(), 5L, 7L, 12);
+
+        assertEquals(0, bom.cartonsFor(0));
+        assertEquals(1, bom.cartonsFor(12));
+        assertEquals(2, bom.cartonsFor(13));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.PasswordHashingUnavailableException;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(meterRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void testEncodeAndMatchesAreTimed() {
+        String encoded = passwordEncoder.encode("secret");
+
+        assertTrue(passwordEncoder.matches("secret", encoded));
+        assertFalse(passwordEncoder.matches("other", encoded));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testRejectsWhenPoolAndQueueAreFull() {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return passwordEncoder.encode("secret");
+            }, callers));
+        }
+        start.countDown();
+
+        long rejected = requests.stream()
+                .map(request -> {
+                    try {
+                        request.join();
+                        return false;
+                    } catch (CompletionException exception) {
+                        assertInstanceOf(PasswordHashingUnavailableException.class, exception.getCause());
+                        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((PasswordHashingUnavailableException) exception.getCause()).getStatus());
+                        return true;
+                    }
+                })
+                .filter(Boolean::booleanValue)
+                .count();
+
+        callers.shutdown();
+
+        assertTrue(rejected > 0);
+        assertEquals(rejected, (long) meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
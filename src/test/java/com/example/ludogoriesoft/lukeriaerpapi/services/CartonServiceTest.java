@@ -1,8 +1,10 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,12 @@ class CartonServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private MaterialRegistry materialRegistry;
+
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
     @InjectMocks
     private CartonService cartonService;
 
@@ -38,17 +46,6 @@ class CartonServiceTest {
 
     @Test
     void testGetAllCartons() {
-        Carton carton1 = new Carton();
-        carton1.setId(1L);
-        carton1.setName("Carton 1");
-
-        Carton carton2 = new Carton();
-        carton2.setId(2L);
-        carton2.setName("Carton 2");
-
-        List<Carton> mockCartons = Arrays.asList(carton1, carton2);
-        when(cartonRepository.findByDeletedFalse()).thenReturn(mockCartons);
-
         CartonDTO cartonDTO1 = new CartonDTO();
         cartonDTO1.setId(1L);
         cartonDTO1.setName("Carton 1");
@@ -57,18 +54,18 @@ class CartonServiceTest {
         cartonDTO2.setId(2L);
         cartonDTO2.setName("Carton 2");
 
-        when(modelMapper.map(carton1, CartonDTO.class)).thenReturn(cartonDTO1);
-        when(modelMapper.map(carton2, CartonDTO.class)).thenReturn(cartonDTO2);
+        List<CartonDTO> mockCartons = Arrays.asList(cartonDTO1, cartonDTO2);
+        when(cartonRepository.findAllActiveDTOs()).thenReturn(mockCartons);
 
         List<CartonDTO> result = cartonService.getAllCartons();
 
         assertEquals(mockCartons.size(), result.size());
-        assertEquals(mockCartons.get(0).getName(), result.get(0).getName());
-        assertEquals(mockCartons.get(1).getName(), result.get(1).getName());
+        assertEquals("Carton 1", result.get(0).getName());
+        assertEquals("Carton 2", result.get(1).getName());
 
-        verify(cartonRepository, times(1)).findByDeletedFalse();
-
-        verify(modelMapper, times(mockCartons.size())).map(any(Carton.class), eq(CartonDTO.class));
+        verify(cartonRepository, times(1)).findAllActiveDTOs();
+        verify(cartonRepository, never()).findByDeletedFalse();
+        verifyNoInteractions(modelMapper);
     }
 
     @Test
@@ -305,6 +302,7 @@ class CartonServiceTest {
         CartonDTO result = cartonService.updateCarton(cartonId, cartonDTO);
 
 
+        verify(stockAdjustmentRepository).setQuantity(StockItemType.CARTON, cartonId, 20);
         verify(cartonRepository).save(existingCarton);
     }
 
@@ -331,6 +329,8 @@ class CartonServiceTest {
         CartonDTO result = cartonService.createCarton(cartonDTO);
 
         // Assert
+        verify(materialRegistry).invalidate();
+        verify(stockAdjustmentRepository).recordOpeningQuantity(StockItemType.CARTON, null, 10);
         assertEquals(cartonDTO.getName(), result.getName());
         assertEquals(cartonDTO.getSize(), result.getSize());
         assertEquals(cartonDTO.getAvailableQuantity(), result.getAvailableQuantity());
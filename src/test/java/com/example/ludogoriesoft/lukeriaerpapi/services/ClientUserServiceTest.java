@@ -47,21 +47,10 @@ class ClientUserServiceTest {
   @Test
   void testGetAllClientUsers() {
     // Arrange
-    List<ClientUser> clientUsers = new ArrayList<>();
-    Client client = new Client();
-    client.setId(1L);
-    User user = new User();
-    user.setId(1L);
-    clientUsers.add(new ClientUser(1L, client, user, false));
-    clientUsers.add(new ClientUser(2L, client, user, false));
-
-    when(clientUserRepository.findByDeletedFalse()).thenReturn(clientUsers);
-
-    ClientUserDTO clientUserDTO1 = new ClientUserDTO(1L, client.getId(), user.getId());
-    ClientUserDTO clientUserDTO2 = new ClientUserDTO(2L, client.getId(), user.getId());
+    ClientUserDTO clientUserDTO1 = new ClientUserDTO(1L, 1L, 1L);
+    ClientUserDTO clientUserDTO2 = new ClientUserDTO(2L, 1L, 1L);
 
-    when(modelMapper.map(clientUsers.get(0), ClientUserDTO.class)).thenReturn(clientUserDTO1);
-    when(modelMapper.map(clientUsers.get(1), ClientUserDTO.class)).thenReturn(clientUserDTO2);
+    when(clientUserRepository.findAllActiveDTOs()).thenReturn(List.of(clientUserDTO1, clientUserDTO2));
 
     // Act
     List<ClientUserDTO> result = clientUserService.getAllClientUsers();
@@ -70,6 +59,7 @@ class ClientUserServiceTest {
     assertEquals(2, result.size());
     assertEquals(1L, result.get(0).getId());
     assertEquals(2L, result.get(1).getId());
+    verifyNoInteractions(modelMapper);
   }
 
   @Test
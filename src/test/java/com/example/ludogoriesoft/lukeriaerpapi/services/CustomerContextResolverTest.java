@@ -0,0 +1,97 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.UserDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Client;
+import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.ShoppingCartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerContextResolverTest {
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+
+    @InjectMocks
+    private CustomerContextResolver customerContextResolver;
+
+    private ShoppingCart shoppingCart;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        client = new Client();
+        client.setId(5L);
+        shoppingCart = new ShoppingCart();
+        shoppingCart.setClientId(client);
+        shoppingCart.setItems(new ArrayList<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testResolveUsesAuthenticatedPrincipalAndSingleQuery() throws ChangeSetPersister.NotFoundException {
+        User user = new User();
+        user.setId(1L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null));
+        when(shoppingCartRepository.findByClientUserId(1L)).thenReturn(Optional.of(shoppingCart));
+
+        CustomerContext customerContext = customerContextResolver.resolve();
+
+        assertEquals(1L, customerContext.getUserId());
+        assertSame(client, customerContext.getClient());
+        assertSame(shoppingCart, customerContext.getShoppingCart());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testResolveIsCachedForTheRequest() throws ChangeSetPersister.NotFoundException {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(2L);
+        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
+        when(shoppingCartRepository.findByClientUserId(2L)).thenReturn(Optional.of(shoppingCart));
+
+        CustomerContext first = customerContextResolver.resolve();
+        CustomerContext second = customerContextResolver.resolve();
+
+        assertSame(first, second);
+        verify(shoppingCartRepository, times(1)).findByClientUserId(2L);
+        verify(userService, times(1)).findAuthenticatedUser();
+    }
+
+    @Test
+    void testResolveWithoutShoppingCartThrowsNotFound() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(3L);
+        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
+        when(shoppingCartRepository.findByClientUserId(3L)).thenReturn(Optional.empty());
+
+        assertThrows(ChangeSetPersister.NotFoundException.class, () -> customerContextResolver.resolve());
+    }
+}
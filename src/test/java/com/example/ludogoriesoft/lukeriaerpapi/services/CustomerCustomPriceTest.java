@@ -26,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -171,14 +172,14 @@ public class CustomerCustomPriceTest {
 
     @Test
     void getAllCustomPrices_ShouldReturnAllCustomPrices() {
-        when(customerCustomPriceRepository.findByDeletedFalse()).thenReturn(List.of(customerCustomPrice));
-        when(modelMapper.map(customerCustomPrice, CustomerCustomPriceDTO.class)).thenReturn(customerCustomPriceDTO);
+        when(customerCustomPriceRepository.findAllActiveDTOs()).thenReturn(List.of(customerCustomPriceDTO));
 
         List<CustomerCustomPriceDTO> result = customerCustomPriceService.getAllCustomPrices();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(customerCustomPriceRepository, times(1)).findByDeletedFalse();
+        verify(customerCustomPriceRepository, times(1)).findAllActiveDTOs();
+        verify(customerCustomPriceRepository, never()).findByDeletedFalse();
     }
 
     @Test
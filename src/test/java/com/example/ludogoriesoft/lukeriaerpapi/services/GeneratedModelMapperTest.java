@@ -0,0 +1,144 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartItemDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ClientUserDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CustomerCustomPriceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceOrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MonthlyOrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.UserDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.Role;
+import com.example.ludogoriesoft.lukeriaerpapi.mappers.EntityDtoMapper;
+import com.example.ludogoriesoft.lukeriaerpapi.mappers.GeneratedModelMapper;
+import com.example.ludogoriesoft.lukeriaerpapi.models.*;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedModelMapperTest {
+
+    private final ModelMapper reflective = new ModelMapper();
+    private final ModelMapper generated = new GeneratedModelMapper(Mappers.getMapper(EntityDtoMapper.class));
+
+    @Test
+    void testGeneratedMappingsMatchReflectiveMappings() {
+        Client client = client();
+        Carton carton = new Carton(1L, "carton", "40x40", 12, BigDecimal.valueOf(1.5), false);
+        Plate plate = new Plate(2L, "plate", 30, "plate.png", BigDecimal.valueOf(0.4), false);
+        Package packageEntity = packageEntity(carton, plate);
+        Product product = new Product(4L, packageEntity, BigDecimal.valueOf(12.5), 40, false, "PR-1", true, "380000");
+        Order order = new Order();
+        order.setId(5L);
+        order.setClientId(client);
+        order.setOrderDate(LocalDate.of(2024, 1, 10));
+        order.setInvoiced(true);
+        OrderProduct orderProduct = new OrderProduct(6L, 3, order, packageEntity, false, BigDecimal.valueOf(7));
+        MonthlyOrder monthlyOrder = new MonthlyOrder(7L, client, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), true, false);
+        MonthlyOrderProduct monthlyOrderProduct = new MonthlyOrderProduct(8L, packageEntity, 10, 4, monthlyOrder, false);
+        Invoice invoice = new Invoice();
+        invoice.setId(9L);
+        invoice.setInvoiceDate(LocalDate.of(2024, 2, 1));
+        invoice.setInvoiceNumber(2000000001L);
+        invoice.setTotalPrice(BigDecimal.valueOf(99));
+        invoice.setCashPayment(true);
+        invoice.setDeadline(LocalDate.of(2024, 3, 1));
+        invoice.setCreated(true);
+        invoice.setBankAccount("BG00");
+        InvoiceOrderProduct invoiceOrderProduct = new InvoiceOrderProduct(10L, invoice, orderProduct, true);
+        MaterialOrder materialOrder = new MaterialOrder(11L, 50, 20, 1L, MaterialType.CARTON, BigDecimal.ONE, LocalDate.of(2024, 4, 1), false);
+        CustomerCustomPrice customerCustomPrice = new CustomerCustomPrice(12L, client, product, BigDecimal.valueOf(11), false);
+        User user = User.builder().id(13L).email("user@example.com").role(Role.CUSTOMER).build();
+        ClientUser clientUser = new ClientUser(14L, client, user, false);
+        CartItem cartItem = new CartItem();
+        cartItem.setId(15L);
+        cartItem.setProductId(product);
+        cartItem.setQuantity(2);
+        cartItem.setPrice(BigDecimal.valueOf(12.5));
+
+        assertSameMapping(carton, CartonDTO.class);
+        assertSameMapping(plate, PlateDTO.class);
+        assertSameMapping(packageEntity, PackageDTO.class);
+        assertSameMapping(product, ProductDTO.class);
+        assertSameMapping(client, ClientDTO.class);
+        assertSameMapping(clientUser, ClientUserDTO.class);
+        assertSameMapping(customerCustomPrice, CustomerCustomPriceDTO.class);
+        assertSameMapping(order, OrderDTO.class);
+        assertSameMapping(orderProduct, OrderProductDTO.class);
+        assertSameMapping(monthlyOrder, MonthlyOrderDTO.class);
+        assertSameMapping(monthlyOrderProduct, MonthlyOrderProductDTO.class);
+        assertSameMapping(invoice, InvoiceDTO.class);
+        assertSameMapping(invoiceOrderProduct, InvoiceOrderProductDTO.class);
+        assertSameMapping(materialOrder, MaterialOrderDTO.class);
+        assertSameMapping(cartItem, CartItemDTO.class);
+    }
+
+    @Test
+    void testMissingReferencesMapToNullIds() {
+        assertSameMapping(new Order(), OrderDTO.class);
+        assertSameMapping(new OrderProduct(), OrderProductDTO.class);
+        assertSameMapping(new Package(), PackageDTO.class);
+    }
+
+    @Test
+    void testUnregisteredPairsFallBackToReflectiveMapping() {
+        OrderDTO orderDTO = new OrderDTO(1L, 2L, LocalDate.of(2024, 1, 10), false);
+        User user = User.builder().id(3L).firstname("John").email("user@example.com").build();
+
+        assertEquals(reflective.map(orderDTO, Order.class), generated.map(orderDTO, Order.class));
+        assertEquals(reflective.map(user, UserDTO.class), generated.map(user, UserDTO.class));
+    }
+
+    private <D> void assertSameMapping(Object source, Class<D> destinationType) {
+        assertEquals(reflective.map(source, destinationType), generated.map(source, destinationType),
+                () -> source.getClass().getSimpleName() + " -> " + destinationType.getSimpleName());
+    }
+
+    private Package packageEntity(Carton carton, Plate plate) {
+        Package packageEntity = new Package();
+        packageEntity.setId(3L);
+        packageEntity.setName("package");
+        packageEntity.setEnglishName("package-en");
+        packageEntity.setAvailableQuantity(100);
+        packageEntity.setCartonId(carton);
+        packageEntity.setPlateId(plate);
+        packageEntity.setPiecesCarton(20);
+        packageEntity.setPhoto("package.png");
+        packageEntity.setPrice(BigDecimal.TEN);
+        packageEntity.setProductCode("P-1");
+        return packageEntity;
+    }
+
+    private Client client() {
+        Client client = new Client();
+        client.setId(20L);
+        client.setBusinessName("Business");
+        client.setEnglishBusinessName("Business EN");
+        client.setIdNumEIK("123456789");
+        client.setHasIdNumDDS(true);
+        client.setAddress("Address");
+        client.setEnglishAddress("Address EN");
+        client.setBulgarianClient(true);
+        client.setMol("Mol");
+        client.setEnglishMol("Mol EN");
+        client.setContactPhone("0888");
+        client.setDeliveryAddress("Delivery");
+        client.setInformation("Info");
+        return client;
+    }
+}
@@ -48,6 +48,8 @@ class InvoiceOrderProductServiceTest {
     private ModelMapper modelMapper;
     @Mock
     private ClientQueryService clientQueryService;
+    @Mock
+    private PackageOpenDemandRepository packageOpenDemandRepository;
 
     @InjectMocks
     private InvoiceOrderProductService invoiceOrderProductService;
@@ -77,7 +79,7 @@ class InvoiceOrderProductServiceTest {
         mockInvoiceOrderProductsList.add(invoiceOrderProduct);
 
 
-        Mockito.when(invoiceOrderProductRepository.findAll()).thenReturn(mockInvoiceOrderProductsList);
+        Mockito.when(invoiceOrderProductRepository.findInvoiceLines(1L)).thenReturn(mockInvoiceOrderProductsList);
         Mockito.when(orderProductService.findInvoiceOrderProductsByInvoiceId(1L)).thenReturn(mockInvoiceOrderProductsList);
 
         List<InvoiceOrderProduct> result = orderProductService.findInvoiceOrderProductsByInvoiceId(1L);
@@ -89,7 +91,7 @@ class InvoiceOrderProductServiceTest {
     void testFindInvoiceOrderProductsByInvoiceIdWhenNoMatchingProducts() {
         List<InvoiceOrderProduct> mockInvoiceOrderProductsList = new ArrayList<>();
 
-        Mockito.when(invoiceOrderProductRepository.findAll()).thenReturn(mockInvoiceOrderProductsList);
+        Mockito.when(invoiceOrderProductRepository.findInvoiceLines(1L)).thenReturn(mockInvoiceOrderProductsList);
 
         List<InvoiceOrderProduct> result = orderProductService.findInvoiceOrderProductsByInvoiceId(1L);
 
@@ -123,23 +125,17 @@ class InvoiceOrderProductServiceTest {
     @Test
     void testGetAllInvoiceOrderProducts() {
         // Arrange
-        List<InvoiceOrderProduct> mockInvoiceOrderProducts = new ArrayList<>();
-        mockInvoiceOrderProducts.add(new InvoiceOrderProduct(/* Add sample data here */));
-
-        when(invoiceOrderProductRepository.findByDeletedFalse()).thenReturn(mockInvoiceOrderProducts);
-
         List<InvoiceOrderProductDTO> mockInvoiceOrderProductDTOs = new ArrayList<>();
-        mockInvoiceOrderProductDTOs.add(new InvoiceOrderProductDTO(/* Add sample data here */));
+        mockInvoiceOrderProductDTOs.add(new InvoiceOrderProductDTO(1L, 2L, 3L, false));
 
-        when(modelMapper.map(any(InvoiceOrderProduct.class), eq(InvoiceOrderProductDTO.class)))
-                .thenReturn(mockInvoiceOrderProductDTOs.get(0));
+        when(invoiceOrderProductRepository.findAllActiveDTOs()).thenReturn(mockInvoiceOrderProductDTOs);
 
         // Act
         List<InvoiceOrderProductDTO> result = invoiceOrderProductService.getAllInvoiceOrderProducts();
 
         // Assert
         assertEquals(mockInvoiceOrderProductDTOs, result);
-        // You can also add more specific assertions based on your use case.
+        verify(modelMapper, never()).map(any(InvoiceOrderProduct.class), eq(InvoiceOrderProductDTO.class));
     }
 
     @Test
@@ -331,10 +327,13 @@ class InvoiceOrderProductServiceTest {
         invoiceOrderProductDTO.setOrderProductId(1L);
         invoiceOrderProductDTO.setId(1L);
         when(invoiceOrderProductRepository.save(any(InvoiceOrderProduct.class))).thenReturn(new InvoiceOrderProduct());
-        when(orderRepository.findByIdAndDeletedFalse(anyLong())).thenReturn(Optional.of(new Order()));
+        Order order = new Order();
+        order.setId(7L);
+        when(orderRepository.findByIdAndDeletedFalse(anyLong())).thenReturn(Optional.of(order));
         InvoiceOrderProductDTO result = invoiceOrderProductService.createInvoiceOrderProduct(invoiceOrderProductDTO);
         verify(invoiceOrderProductRepository).save(invoiceOrderProductCaptor.capture());
         InvoiceOrderProduct savedInvoiceOrderProduct = invoiceOrderProductCaptor.getValue();
+        verify(packageOpenDemandRepository).closeOrder(7L);
         verify(orderRepository).save(any(Order.class));
     }
 
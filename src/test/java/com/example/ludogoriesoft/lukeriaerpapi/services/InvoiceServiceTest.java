@@ -1,6 +1,7 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.InvoiceDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Invoice;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.InvoiceRepository;
 import jakarta.validation.ValidationException;
@@ -13,14 +14,19 @@ import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static com.example.ludogoriesoft.lukeriaerpapi.services.InvoiceService.FIRST_INVOICE_NUMBER_ABROAD;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -32,6 +38,9 @@ class InvoiceServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private JsonStreamWriter jsonStreamWriter;
+
     @InjectMocks
     private InvoiceService invoiceService;
 
@@ -41,6 +50,21 @@ class InvoiceServiceTest {
     }
 
 
+    @Test
+    void testExportInvoices_WritesStreamAndClosesCursor() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<InvoiceDTO> invoices = Stream.of(new InvoiceDTO()).onClose(() -> closed.set(true));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(invoiceRepository.streamAllActiveDTOs()).thenReturn(invoices);
+        when(jsonStreamWriter.write(invoices, outputStream, ExportFormat.NDJSON)).thenReturn(1L);
+
+        long written = invoiceService.exportInvoices(outputStream, ExportFormat.NDJSON);
+
+        assertEquals(1L, written);
+        assertTrue(closed.get());
+        verify(invoiceRepository, never()).findByDeletedFalse();
+    }
+
     @Test
     void testGenerateNextInvoiceNumber() {
         Mockito.when(invoiceRepository.findLastInvoiceNumber()).thenReturn(2000001330L);
@@ -71,17 +95,6 @@ class InvoiceServiceTest {
 
     @Test
     void testGetAllInvoices() {
-        Invoice invoice1 = new Invoice();
-        invoice1.setId(1L);
-        invoice1.setInvoiceNumber(1L);
-
-        Invoice invoice2 = new Invoice();
-        invoice2.setId(2L);
-        invoice2.setInvoiceNumber(1L);
-
-        List<Invoice> mockInvoices = Arrays.asList(invoice1, invoice2);
-        when(invoiceRepository.findByDeletedFalse()).thenReturn(mockInvoices);
-
         InvoiceDTO invoiceDTO1 = new InvoiceDTO();
         invoiceDTO1.setId(1L);
         invoiceDTO1.setInvoiceNumber(1L);
@@ -90,18 +103,19 @@ class InvoiceServiceTest {
         invoiceDTO2.setId(2L);
         invoiceDTO2.setInvoiceNumber(1L);
 
-        when(modelMapper.map(invoice1, InvoiceDTO.class)).thenReturn(invoiceDTO1);
-        when(modelMapper.map(invoice2, InvoiceDTO.class)).thenReturn(invoiceDTO2);
+        List<InvoiceDTO> mockInvoices = Arrays.asList(invoiceDTO1, invoiceDTO2);
+        when(invoiceRepository.findAllActiveDTOs()).thenReturn(mockInvoices);
 
         List<InvoiceDTO> result = invoiceService.getAllInvoices();
 
         assertEquals(mockInvoices.size(), result.size());
-        assertEquals(mockInvoices.get(0).getInvoiceNumber(), result.get(0).getInvoiceNumber());
-        assertEquals(mockInvoices.get(1).getInvoiceNumber(), result.get(1).getInvoiceNumber());
+        assertEquals(1L, result.get(0).getInvoiceNumber());
+        assertEquals(1L, result.get(1).getInvoiceNumber());
 
-        verify(invoiceRepository, times(1)).findByDeletedFalse();
+        verify(invoiceRepository, times(1)).findAllActiveDTOs();
+        verify(invoiceRepository, never()).findByDeletedFalse();
 
-        verify(modelMapper, times(mockInvoices.size())).map(any(Invoice.class), eq(InvoiceDTO.class));
+        verify(modelMapper, never()).map(any(Invoice.class), eq(InvoiceDTO.class));
     }
 
     @Test
@@ -0,0 +1,87 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonStreamWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private JsonStreamWriter jsonStreamWriter;
+
+    @BeforeEach
+    void setUp() {
+        jsonStreamWriter = new JsonStreamWriter(objectMapper);
+    }
+
+    @Test
+    void writesOneDocumentPerLineForNdjson() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long written = jsonStreamWriter.write(Stream.of(row(1L), row(2L)), outputStream, ExportFormat.NDJSON);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertEquals(row(1L), objectMapper.readValue(lines[0], OrderProductDTO.class));
+        assertEquals(row(2L), objectMapper.readValue(lines[1], OrderProductDTO.class));
+    }
+
+    @Test
+    void writesSingleArrayForJson() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        jsonStreamWriter.write(Stream.of(row(1L), row(2L)), outputStream, ExportFormat.JSON);
+
+        OrderProductDTO[] rows = objectMapper.readValue(outputStream.toByteArray(), OrderProductDTO[].class);
+        assertEquals(2, rows.length);
+        assertEquals(row(2L), rows[1]);
+    }
+
+    @Test
+    void writesEmptyArrayWhenThereAreNoRows() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long written = jsonStreamWriter.write(Stream.empty(), outputStream, ExportFormat.JSON);
+
+        assertEquals(0, written);
+        assertEquals("[]", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void flushesFirstRowAndThenInBatches() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        int rows = JsonStreamWriter.FLUSH_EVERY * 2 + 1;
+
+        jsonStreamWriter.write(IntStream.rangeClosed(1, rows).mapToObj(id -> row((long) id)), outputStream, ExportFormat.NDJSON);
+
+        assertTrue(outputStream.flushes >= 3);
+        assertTrue(outputStream.flushes <= 4);
+    }
+
+    private static OrderProductDTO row(Long id) {
+        return new OrderProductDTO(id, 3, 10L, 20L, BigDecimal.valueOf(1.5));
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
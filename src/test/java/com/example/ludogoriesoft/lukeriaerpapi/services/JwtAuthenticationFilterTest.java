@@ -1,12 +1,15 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.enums.Role;
-import com.example.ludogoriesoft.lukeriaerpapi.models.Token;
 import com.example.ludogoriesoft.lukeriaerpapi.models.User;
-import com.example.ludogoriesoft.lukeriaerpapi.repository.TokenRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtAuthenticationFilter;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtDenylist;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtService;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtServiceImpl;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenService;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.UserServiceAuthentication;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,12 +20,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.io.IOException;
-import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class JwtAuthenticationFilterTest {
@@ -37,7 +42,10 @@ public class JwtAuthenticationFilterTest {
     private ModelMapper modelMapper;
 
     @Mock
-    private TokenRepository tokenRepository;
+    private TokenService tokenService;
+
+    @Mock
+    private JwtDenylist jwtDenylist;
 
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -78,7 +86,7 @@ public class JwtAuthenticationFilterTest {
         user.setRole(Role.CUSTOMER);
         when(userService.findByEmail("user@example.com")).thenReturn(user);
 
-        when(tokenRepository.findByToken("validToken")).thenReturn(Optional.of(mock(Token.class)));
+        when(tokenService.isTokenActive("validToken")).thenReturn(true);
         when(jwtService.isTokenValid("validToken", user)).thenReturn(true);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -110,10 +118,64 @@ public class JwtAuthenticationFilterTest {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalidToken");
         when(jwtService.extractUsername("invalidToken")).thenReturn("user@example.com");
         when(userService.findByEmail("user@example.com")).thenReturn(mock(User.class));
-        when(tokenRepository.findByToken("invalidToken")).thenReturn(Optional.empty());
+        when(tokenService.isTokenActive("invalidToken")).thenReturn(false);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_StatelessMode_AuthenticatesFromClaimsWithoutDatabase() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(request.getServletPath()).thenReturn("/api/v1/resource");
+        when(request.getHeader("Authorization")).thenReturn("Bearer statelessToken");
+        when(jwtDenylist.isEnabled()).thenReturn(true);
+        when(jwtService.extractAllClaims("statelessToken")).thenReturn(accessClaims("jti-1"));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(9L, principal.getId());
+        assertEquals("user@example.com", principal.getEmail());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_CUSTOMER")));
+        verifyNoInteractions(userService, tokenService);
         verify(filterChain, times(1)).doFilter(request, response);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilterInternal_StatelessMode_DeniedJtiIsNotAuthenticated() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain filterChain = mock(FilterChain.class);
+
+        when(request.getServletPath()).thenReturn("/api/v1/resource");
+        when(request.getHeader("Authorization")).thenReturn("Bearer revokedToken");
+        when(jwtDenylist.isEnabled()).thenReturn(true);
+        when(jwtDenylist.isDenied("jti-2")).thenReturn(true);
+        when(jwtService.extractAllClaims("revokedToken")).thenReturn(accessClaims("jti-2"));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    private Claims accessClaims(String jti) {
+        Claims claims = new DefaultClaims();
+        claims.setId(jti);
+        claims.setSubject("user@example.com");
+        claims.put(JwtServiceImpl.TOKEN_TYPE_CLAIM, "ACCESS");
+        claims.put(JwtServiceImpl.USER_ID_CLAIM, 9);
+        claims.put(JwtServiceImpl.ROLE_CLAIM, Role.CUSTOMER.name());
+        return claims;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.DeniedToken;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.DeniedTokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtDenylist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtDenylistTest {
+
+    @Mock
+    private DeniedTokenRepository deniedTokenRepository;
+
+    private JwtDenylist jwtDenylist;
+
+    @BeforeEach
+    void setUp() {
+        jwtDenylist = new JwtDenylist(deniedTokenRepository, true);
+    }
+
+    @Test
+    void testDenyPersistsOnceAndBlocksUntilExpiry() {
+        jwtDenylist.deny("jti-1", Instant.now().plusSeconds(60));
+        jwtDenylist.deny("jti-1", Instant.now().plusSeconds(60));
+
+        assertTrue(jwtDenylist.isDenied("jti-1"));
+        assertFalse(jwtDenylist.isDenied("jti-2"));
+        assertFalse(jwtDenylist.isDenied(null));
+        verify(deniedTokenRepository, times(1)).save(any(DeniedToken.class));
+    }
+
+    @Test
+    void testAlreadyExpiredTokenIsNotDenied() {
+        jwtDenylist.deny("jti-1", Instant.now().minusSeconds(1));
+
+        assertFalse(jwtDenylist.isDenied("jti-1"));
+        verifyNoInteractions(deniedTokenRepository);
+    }
+
+    @Test
+    void testRefreshRereadsRecentIdsForRowsThatCommittedLate() {
+        DeniedToken first = new DeniedToken(1500L, "jti-1500", LocalDateTime.now().plusMinutes(5));
+        DeniedToken late = new DeniedToken(1501L, "jti-1501", LocalDateTime.now().plusMinutes(5));
+        DeniedToken last = new DeniedToken(1502L, "jti-1502", LocalDateTime.now().plusMinutes(5));
+        when(deniedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(eq(0L), any(LocalDateTime.class))).thenReturn(List.of(first, last));
+        when(deniedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(eq(502L), any(LocalDateTime.class))).thenReturn(List.of(late, last));
+
+        jwtDenylist.refresh();
+        assertFalse(jwtDenylist.isDenied("jti-1501"));
+        jwtDenylist.refresh();
+
+        assertTrue(jwtDenylist.isDenied("jti-1500"));
+        assertTrue(jwtDenylist.isDenied("jti-1501"));
+        assertTrue(jwtDenylist.isDenied("jti-1502"));
+        verify(deniedTokenRepository).findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(eq(502L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRefreshIsSkippedWhenStatelessModeIsOff() {
+        new JwtDenylist(deniedTokenRepository, false).refresh();
+
+        verifyNoInteractions(deniedTokenRepository);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.enums.Role;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtServiceImpl;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +32,35 @@ public class JwtServiceImplTest {
         jwtService = new JwtServiceImpl(secretKey, jwtExpiration, refreshExpiration);
     }
 
+    @Test
+    void testGenerateTokenCarriesIdentityClaimsForUser() {
+        com.example.ludogoriesoft.lukeriaerpapi.models.User user = com.example.ludogoriesoft.lukeriaerpapi.models.User.builder()
+                .id(3L)
+                .email("user@example.com")
+                .firstname("John")
+                .usernameField("john")
+                .role(Role.ADMIN)
+                .build();
+
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(user));
+
+        assertNotNull(claims.getId());
+        assertEquals("ACCESS", claims.get(JwtServiceImpl.TOKEN_TYPE_CLAIM, String.class));
+        assertEquals(3L, claims.get(JwtServiceImpl.USER_ID_CLAIM, Long.class));
+        assertEquals("ADMIN", claims.get(JwtServiceImpl.ROLE_CLAIM, String.class));
+        assertEquals("john", claims.get(JwtServiceImpl.USERNAME_CLAIM, String.class));
+    }
+
+    @Test
+    void testRefreshTokenIsTypedAndUnique() {
+        UserDetails userDetails = createUserDetails();
+        String first = jwtService.generateRefreshToken(userDetails);
+        String second = jwtService.generateRefreshToken(userDetails);
+
+        assertNotEquals(first, second);
+        assertEquals("REFRESH", jwtService.extractClaim(first, claims -> claims.get(JwtServiceImpl.TOKEN_TYPE_CLAIM, String.class)));
+    }
+
     @Test
     void testExtractUsername() {
         String token = jwtService.generateToken(createUserDetails());
@@ -71,6 +102,23 @@ public class JwtServiceImplTest {
         assertTrue(jwtService.isTokenValid(token, createUserDetails()));
     }
 
+    @Test
+    void testExtractAllClaimsReturnsCachedClaimsForSameToken() {
+        String token = jwtService.generateToken(createUserDetails());
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+        assertSame(first, second);
+    }
+
+    @Test
+    void testExtractAllClaimsWithTamperedTokenThrows() {
+        String token = jwtService.generateToken(createUserDetails());
+        int index = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, index) + replacement + token.substring(index + 1);
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(tampered));
+    }
+
     private UserDetails createUserDetails() {
         return User.withUsername("testuser")
                 .password("password")
@@ -3,7 +3,6 @@ package com.example.ludogoriesoft.lukeriaerpapi.services;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
-import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -17,8 +16,6 @@ import static org.mockito.Mockito.when;
 class MaterialOrderServiceCalculateTest {
     private MaterialOrderService materialOrderService;
 
-
-    private CartonRepository cartonRepository;
     private Carton carton;
 
     @BeforeEach
@@ -26,7 +23,7 @@ class MaterialOrderServiceCalculateTest {
         // Създаваме мок на Carton
         carton = mock(Carton.class);
         // Инициализираме MaterialOrderService
-        materialOrderService = new MaterialOrderService(null, null, cartonRepository, null, null, null, null);
+        materialOrderService = new MaterialOrderService(null, null, null, null, null, null, null, null);
     }
 
     @Test
@@ -1,7 +1,14 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDetailsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialReceiptDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderLineMaterialsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDemandDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
@@ -19,8 +26,12 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -47,6 +58,12 @@ class MaterialOrderServiceTest {
 
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
+    @Mock
+    private PackageOpenDemandRepository packageOpenDemandRepository;
+    @Mock
+    private MaterialRegistry materialRegistry;
 
 
     @BeforeEach
@@ -79,6 +96,30 @@ class MaterialOrderServiceTest {
         assertEquals(dto2, result.get(1));
     }
 
+    @Test
+    void testGetAllMaterialOrderDetailsLoadsEachMaterialTypeOnce() {
+        MaterialOrder order1 = new MaterialOrder(1L, 10, null, 1L, MaterialType.CARTON, BigDecimal.TEN, LocalDate.now(), false);
+        MaterialOrder order2 = new MaterialOrder(2L, 20, null, 2L, MaterialType.PACKAGE, BigDecimal.TEN, LocalDate.now(), false);
+        MaterialOrder order3 = new MaterialOrder(3L, 30, null, 4L, MaterialType.CARTON, BigDecimal.TEN, LocalDate.now(), false);
+        when(materialOrderRepository.findByDeletedFalse()).thenReturn(List.of(order1, order2, order3));
+        when(modelMapper.map(any(MaterialOrder.class), eq(MaterialOrderDetailsDTO.class)))
+                .thenAnswer(invocation -> new ModelMapper().map(invocation.getArgument(0), MaterialOrderDetailsDTO.class));
+        when(materialRegistry.load(MaterialType.CARTON, Set.of(1L, 4L)))
+                .thenReturn(Map.of(1L, new MaterialDTO(1L, "Carton 1", 7), 4L, new MaterialDTO(4L, "Carton 4", 0)));
+        when(materialRegistry.load(MaterialType.PACKAGE, Set.of(2L)))
+                .thenReturn(Map.of(2L, new MaterialDTO(2L, "Package 2", "package.png", 12)));
+
+        List<MaterialOrderDetailsDTO> result = materialOrderService.getAllMaterialOrderDetails();
+
+        assertEquals(3, result.size());
+        assertEquals("Carton 1", result.get(0).getMaterialName());
+        assertEquals(7, result.get(0).getMaterialAvailableQuantity());
+        assertEquals("package.png", result.get(1).getMaterialPhoto());
+        assertEquals(12, result.get(1).getMaterialAvailableQuantity());
+        assertEquals("Carton 4", result.get(2).getMaterialName());
+        verify(materialRegistry, times(2)).load(any(MaterialType.class), anyCollection());
+    }
+
     @Test
     void testGetMaterialOrderById_ValidId_ReturnsMaterialOrderDTO() throws ChangeSetPersister.NotFoundException {
         // Mocking the MaterialOrder object
@@ -115,8 +156,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the existsById methods to return true for valid IDs
-        when(cartonRepository.existsById(1L)).thenReturn(true);
+        // Mock the registry lookup to find the material
+        when(materialRegistry.contains(MaterialType.CARTON, 1L)).thenReturn(true);
 
         // Call the validate method and expect no exception to be thrown
         assertDoesNotThrow(() -> materialOrderService.validate(materialOrderDTO));
@@ -152,8 +193,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the existsById method to return false for the carton ID
-        when(cartonRepository.existsById(1L)).thenReturn(false);
+        // Mock the registry lookup to miss the carton
+        when(materialRegistry.contains(MaterialType.CARTON, 1L)).thenReturn(false);
 
         // Call the validate method and expect a ValidationException to be thrown
         assertThrows(ValidationException.class, () -> materialOrderService.validate(materialOrderDTO));
@@ -168,8 +209,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("PACKAGE");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the existsById method to return true for the package ID
-        when(packageRepository.existsById(1L)).thenReturn(true);
+        // Mock the registry lookup to find the package
+        when(materialRegistry.contains(MaterialType.PACKAGE, 1L)).thenReturn(true);
 
         // Call the validate method and expect no exception to be thrown
         assertDoesNotThrow(() -> materialOrderService.validate(materialOrderDTO));
@@ -183,8 +224,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("PLATE");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the existsById method to return true for the plate ID
-        when(plateRepository.existsById(1L)).thenReturn(true);
+        // Mock the registry lookup to find the plate
+        when(materialRegistry.contains(MaterialType.PLATE, 1L)).thenReturn(true);
 
         // Call the validate method and expect no exception to be thrown
         assertDoesNotThrow(() -> materialOrderService.validate(materialOrderDTO));
@@ -198,8 +239,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("PACKAGE");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the existsById method to return false for the package ID
-        when(packageRepository.existsById(1L)).thenReturn(false);
+        // Mock the registry lookup to miss the package
+        when(materialRegistry.contains(MaterialType.PACKAGE, 1L)).thenReturn(false);
 
         // Call the validate method and expect a ValidationException to be thrown
         assertThrows(ValidationException.class, () -> materialOrderService.validate(materialOrderDTO));
@@ -213,8 +254,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("PLATE");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the existsById method to return false for the plate ID
-        when(plateRepository.existsById(1L)).thenReturn(false);
+        // Mock the registry lookup to miss the plate
+        when(materialRegistry.contains(MaterialType.PLATE, 1L)).thenReturn(false);
 
         // Call the validate method and expect a ValidationException to be thrown
         assertThrows(ValidationException.class, () -> materialOrderService.validate(materialOrderDTO));
@@ -276,14 +317,14 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the behavior of the cartonRepository.existsById method to return false for the invalid Carton ID
-        when(cartonRepository.existsById(1L)).thenReturn(false);
+        // Mock the registry lookup to miss the invalid Carton ID
+        when(materialRegistry.contains(MaterialType.CARTON, 1L)).thenReturn(false);
 
         // Call the createMaterialOrder method and expect a ValidationException to be thrown
         assertThrows(ValidationException.class, () -> materialOrderService.createMaterialOrder(materialOrderDTO));
 
-        // Verify that the cartonRepository.existsById method is called with the provided Carton ID
-        verify(cartonRepository).existsById(1L);
+        // Verify that the registry is asked for the provided Carton ID
+        verify(materialRegistry).contains(MaterialType.CARTON, 1L);
 
         // Verify that the materialOrderRepository.save method is not called since the validation should fail before saving
         verify(materialOrderRepository, never()).save(any(MaterialOrder.class));
@@ -297,19 +338,73 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the behavior of the cartonRepository.existsById method to return false for the invalid Carton ID
-        when(cartonRepository.existsById(1L)).thenReturn(false);
+        // Mock the registry lookup to miss the invalid Carton ID
+        when(materialRegistry.contains(MaterialType.CARTON, 1L)).thenReturn(false);
 
         // Call the createMaterialOrder method and expect a ValidationException to be thrown
         assertThrows(ValidationException.class, () -> materialOrderService.createMaterialOrder(materialOrderDTO));
 
-        // Verify that the cartonRepository.existsById method is called with the provided Carton ID
-        verify(cartonRepository).existsById(1L);
+        // Verify that the registry is asked for the provided Carton ID
+        verify(materialRegistry).contains(MaterialType.CARTON, 1L);
 
         // Verify that the materialOrderRepository.save method is not called since the validation should fail before saving
         verify(materialOrderRepository, never()).save(any(MaterialOrder.class));
     }
 
+    @Test
+    void testReceiveMaterialOrdersAppliesAllDeltasInOneCall() throws ChangeSetPersister.NotFoundException {
+        MaterialOrder newOrder = new MaterialOrder(1L, 50, null, 3L, MaterialType.CARTON, BigDecimal.TEN, null, false);
+        MaterialOrder receivedOrder = new MaterialOrder(2L, 20, 15, 4L, MaterialType.PLATE, BigDecimal.TEN, null, false);
+        when(materialOrderRepository.findAllByIdInAndDeletedFalse(Set.of(1L, 2L))).thenReturn(List.of(newOrder, receivedOrder));
+        when(materialRegistry.resolve(anyCollection())).thenAnswer(invocation -> {
+            Map<MaterialRegistry.MaterialKey, MaterialRegistry.Material> resolved = new HashMap<>();
+            for (MaterialRegistry.MaterialKey key : invocation.<Collection<MaterialRegistry.MaterialKey>>getArgument(0)) {
+                resolved.put(key, new MaterialRegistry.Material(key.materialType(), key.materialId(), "material", null));
+            }
+            return resolved;
+        });
+        LocalDate arrivalDate = LocalDate.of(2024, 12, 31);
+
+        materialOrderService.receiveMaterialOrders(List.of(
+                new MaterialReceiptDTO(1L, 48, arrivalDate), new MaterialReceiptDTO(2L, 20, null)));
+
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(
+                new StockAdjustment(StockItemType.CARTON, 3L, 48), new StockAdjustment(StockItemType.PLATE, 4L, 5)));
+        assertEquals(48, newOrder.getReceivedQuantity());
+        assertEquals(arrivalDate, newOrder.getArrivalDate());
+        assertEquals(20, receivedOrder.getReceivedQuantity());
+        verify(materialOrderRepository, never()).save(any(MaterialOrder.class));
+    }
+
+    @Test
+    void testReceiveMaterialOrdersRejectsDuplicateLines() {
+        List<MaterialReceiptDTO> receipts = List.of(new MaterialReceiptDTO(1L, 10, null), new MaterialReceiptDTO(1L, 12, null));
+
+        assertThrows(ValidationException.class, () -> materialOrderService.receiveMaterialOrders(receipts));
+        verifyNoInteractions(materialOrderRepository, stockAdjustmentRepository);
+    }
+
+    @Test
+    void testReceiveMaterialOrdersWithUnknownOrder_ThrowsNotFoundException() {
+        when(materialOrderRepository.findAllByIdInAndDeletedFalse(Set.of(1L, 2L))).thenReturn(List.of(
+                new MaterialOrder(1L, 50, null, 3L, MaterialType.CARTON, BigDecimal.TEN, null, false)));
+        List<MaterialReceiptDTO> receipts = List.of(new MaterialReceiptDTO(1L, 10, null), new MaterialReceiptDTO(2L, 10, null));
+
+        assertThrows(ChangeSetPersister.NotFoundException.class, () -> materialOrderService.receiveMaterialOrders(receipts));
+        verifyNoInteractions(stockAdjustmentRepository);
+    }
+
+    @Test
+    void testReceiveMaterialOrdersWithUnknownMaterial_ThrowsValidationException() {
+        when(materialOrderRepository.findAllByIdInAndDeletedFalse(Set.of(1L))).thenReturn(List.of(
+                new MaterialOrder(1L, 50, null, 3L, MaterialType.CARTON, BigDecimal.TEN, null, false)));
+        when(materialRegistry.resolve(anyCollection())).thenReturn(Map.of());
+        List<MaterialReceiptDTO> receipts = List.of(new MaterialReceiptDTO(1L, 10, null));
+
+        assertThrows(ValidationException.class, () -> materialOrderService.receiveMaterialOrders(receipts));
+        verifyNoInteractions(stockAdjustmentRepository);
+    }
+
     @Test
     void testUpdateMaterialOrder_ValidMaterialOrderDTO_UpdatesAndReturnsUpdatedMaterialOrderDTO() throws ChangeSetPersister.NotFoundException {
         Long existingMaterialOrderId = 1L;
@@ -326,7 +421,7 @@ class MaterialOrderServiceTest {
         existingMaterialOrder.setReceivedQuantity(2);
         when(materialOrderRepository.findByIdAndDeletedFalse(existingMaterialOrderId)).thenReturn(Optional.of(existingMaterialOrder));
 
-        when(cartonRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        when(materialRegistry.contains(MaterialType.CARTON, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         Carton carton = new Carton();
         carton.setId(materialOrderDTO.getMaterialId());
@@ -350,7 +445,9 @@ class MaterialOrderServiceTest {
 
         verify(materialOrderRepository).findByIdAndDeletedFalse(existingMaterialOrderId);
 
-        verify(cartonRepository).existsById(materialOrderDTO.getMaterialId());
+        verify(materialRegistry).contains(MaterialType.CARTON, materialOrderDTO.getMaterialId());
+
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(new StockAdjustment(StockItemType.CARTON, 1L, 3)));
 
         verify(materialOrderRepository).save(updatedMaterialOrder);
 
@@ -378,7 +475,7 @@ class MaterialOrderServiceTest {
         existingMaterialOrder.setReceivedQuantity(2);
         when(materialOrderRepository.findByIdAndDeletedFalse(existingMaterialOrderId)).thenReturn(Optional.of(existingMaterialOrder));
 
-        when(packageRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        when(materialRegistry.contains(MaterialType.PACKAGE, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         Package aPackage = new Package();
         aPackage.setId(materialOrderDTO.getMaterialId());
@@ -402,7 +499,7 @@ class MaterialOrderServiceTest {
 
         verify(materialOrderRepository).findByIdAndDeletedFalse(existingMaterialOrderId);
 
-        verify(packageRepository).existsById(materialOrderDTO.getMaterialId());
+        verify(materialRegistry).contains(MaterialType.PACKAGE, materialOrderDTO.getMaterialId());
 
         verify(materialOrderRepository).save(updatedMaterialOrder);
 
@@ -430,7 +527,7 @@ class MaterialOrderServiceTest {
         existingMaterialOrder.setReceivedQuantity(2);
         when(materialOrderRepository.findByIdAndDeletedFalse(existingMaterialOrderId)).thenReturn(Optional.of(existingMaterialOrder));
 
-        when(plateRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        when(materialRegistry.contains(MaterialType.PLATE, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         Plate plate = new Plate();
         plate.setId(materialOrderDTO.getMaterialId());
@@ -452,7 +549,7 @@ class MaterialOrderServiceTest {
 
         MaterialOrderDTO result = materialOrderService.updateMaterialOrder(existingMaterialOrderId, materialOrderDTO);
         verify(materialOrderRepository).findByIdAndDeletedFalse(existingMaterialOrderId);
-        verify(plateRepository).existsById(materialOrderDTO.getMaterialId());
+        verify(materialRegistry).contains(MaterialType.PLATE, materialOrderDTO.getMaterialId());
         verify(materialOrderRepository).save(updatedMaterialOrder);
         verify(modelMapper).map(materialOrderDTO, MaterialOrder.class);
         verify(modelMapper).map(updatedMaterialOrder, MaterialOrderDTO.class);
@@ -469,8 +566,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the behavior of the cartonRepository.existsById method to return true for the valid Carton ID
-        when(cartonRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        // Mock the registry lookup to find the valid Carton ID
+        when(materialRegistry.contains(MaterialType.CARTON, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         // Mock the behavior of the modelMapper to return a MaterialOrder when mapping from DTO to entity
         MaterialOrder materialOrderEntity = new MaterialOrder();
@@ -485,8 +582,8 @@ class MaterialOrderServiceTest {
         // Call the createMaterialOrder method
         MaterialOrderDTO result = materialOrderService.createMaterialOrder(materialOrderDTO);
 
-        // Verify that the cartonRepository.existsById method is called with the Carton ID from the MaterialOrderDTO
-        verify(cartonRepository).existsById(materialOrderDTO.getMaterialId());
+        // Verify that the registry is asked for the Carton ID from the MaterialOrderDTO
+        verify(materialRegistry).contains(MaterialType.CARTON, materialOrderDTO.getMaterialId());
 
         // Verify that the modelMapper.map method is called with the input DTO
         verify(modelMapper).map(materialOrderDTO, MaterialOrder.class);
@@ -506,8 +603,8 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(10);
 
-        // Mock the behavior of the cartonRepository.existsById method to return true for the valid Carton ID
-        when(cartonRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        // Mock the registry lookup to find the valid Carton ID
+        when(materialRegistry.contains(MaterialType.CARTON, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         // Call the validate method
         assertDoesNotThrow(() -> materialOrderService.validate(materialOrderDTO));
@@ -522,7 +619,7 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("CARTON");
         materialOrderDTO.setOrderedQuantity(-5);
 
-        when(cartonRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        when(materialRegistry.contains(MaterialType.CARTON, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         // Call the validate method and expect ValidationException with specific message
         ValidationException exception = assertThrows(ValidationException.class, () -> materialOrderService.validate(materialOrderDTO));
@@ -537,7 +634,7 @@ class MaterialOrderServiceTest {
         materialOrderDTO.setMaterialType("INVALIt");
         materialOrderDTO.setOrderedQuantity(1);
 
-        when(cartonRepository.existsById(materialOrderDTO.getMaterialId())).thenReturn(true);
+        when(materialRegistry.contains(MaterialType.CARTON, materialOrderDTO.getMaterialId())).thenReturn(true);
 
         // Call the validate method and expect ValidationException with specific message
         ValidationException exception = assertThrows(ValidationException.class, () -> materialOrderService.validate(materialOrderDTO));
@@ -601,11 +698,8 @@ class MaterialOrderServiceTest {
         // When & Then
         assertThrows(ValidationException.class, () -> materialOrderService.validate(materialOrderDTO));
 
-        // Verify that neither cartonRepository.existsById nor packageRepository.existsById nor plateRepository.existsById
-        // was called for the default case in the switch statement
-        verify(cartonRepository, never()).existsById(anyLong());
-        verify(packageRepository, never()).existsById(anyLong());
-        verify(plateRepository, never()).existsById(anyLong());
+        // Verify that the registry is not consulted for an unknown material type
+        verifyNoInteractions(materialRegistry);
     }
 
 
@@ -640,24 +734,15 @@ class MaterialOrderServiceTest {
 
     @Test
     void testIncreaseProductsQuantityForCarton() {
-        // Create a test MaterialOrder for a CARTON
         MaterialOrder cartonOrder = new MaterialOrder();
         cartonOrder.setMaterialType(MaterialType.CARTON);
-        cartonOrder.setMaterialId(1L); // Replace with the appropriate ID
+        cartonOrder.setMaterialId(1L);
         cartonOrder.setReceivedQuantity(10);
 
-        // Mock the Carton object that will be returned by the repository
-        Carton carton = new Carton();
-        carton.setAvailableQuantity(5); // Set the initial available quantity
-
-        // Mock the repository's findById method to return the mocked Carton
-        when(cartonRepository.findById(cartonOrder.getMaterialId())).thenReturn(Optional.of(carton));
-
-        // Call the method to be tested
         materialOrderService.increaseProductsQuantity(cartonOrder);
 
-        // Verify that the available quantity is increased as expected
-        assertEquals(15, carton.getAvailableQuantity());
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(new StockAdjustment(StockItemType.CARTON, 1L, 10)));
+        verify(cartonRepository, never()).save(any(Carton.class));
     }
 
     @Test
@@ -667,14 +752,9 @@ class MaterialOrderServiceTest {
         plateOrder.setMaterialId(1L);
         plateOrder.setReceivedQuantity(10);
 
-        Plate plate = new Plate();
-        plate.setAvailableQuantity(5);
-
-        when(plateRepository.findById(plateOrder.getMaterialId())).thenReturn(Optional.of(plate));
-
         materialOrderService.increaseProductsQuantity(plateOrder);
 
-        assertEquals(15, plate.getAvailableQuantity());
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(new StockAdjustment(StockItemType.PLATE, 1L, 10)));
     }
 
     @Test
@@ -684,41 +764,35 @@ class MaterialOrderServiceTest {
         packageOrder.setMaterialId(1L);
         packageOrder.setReceivedQuantity(10);
 
-        Package aPackage = new Package();
-        aPackage.setAvailableQuantity(5);
-
-        when(packageRepository.findById(packageOrder.getMaterialId())).thenReturn(Optional.of(aPackage));
-
         materialOrderService.increaseProductsQuantity(packageOrder);
 
-        assertEquals(15, aPackage.getAvailableQuantity());
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.MATERIAL_RECEIPT, List.of(new StockAdjustment(StockItemType.PACKAGE, 1L, 10)));
     }
 
     @Test
-    void testAllOrderedProducts() {
-        Package entityPackage = new Package();
-        entityPackage.setId(1L);
-
-        List<OrderProduct> orderProducts = new ArrayList<>();
-        OrderProduct orderProduct1 = new OrderProduct();
-        orderProduct1.setPackageId(entityPackage);
-        orderProduct1.setNumber(5);
-        Order order=new Order();
-        order.setInvoiced(false);
-        orderProduct1.setOrderId(order);
+    void testIncreaseProductsQuantityWithoutReceivedQuantity() {
+        MaterialOrder packageOrder = new MaterialOrder();
+        packageOrder.setMaterialType(MaterialType.PACKAGE);
+        packageOrder.setMaterialId(1L);
 
-        orderProducts.add(orderProduct1);
+        materialOrderService.increaseProductsQuantity(packageOrder);
 
+        verifyNoInteractions(stockAdjustmentRepository);
+    }
 
-        when(orderProductRepository.findAll()).thenReturn(orderProducts);
+    @Test
+    void testAllOrderedProducts() {
+        when(packageOpenDemandRepository.findAll())
+                .thenReturn(List.of(new PackageDemandDTO(1L, 5L), new PackageDemandDTO(2L, 12L)));
 
         List<MaterialOrderDTO> result = materialOrderService.allOrderedProducts();
 
-        assertEquals(1, result.size());
+        assertEquals(2, result.size());
 
         assertEquals(1L, result.get(0).getMaterialId());
         assertEquals(5, result.get(0).getOrderedQuantity());
-
+        assertEquals(2L, result.get(1).getMaterialId());
+        assertEquals(12, result.get(1).getOrderedQuantity());
     }
 
     @Test
@@ -883,24 +957,36 @@ class MaterialOrderServiceTest {
     void testGetAllOrderProductsByOrderId() {
         Long orderId = 123L;
 
-        // Create a list of mock OrderProduct objects
-        List<OrderProduct> mockOrderProducts = new ArrayList<>();
-        OrderProduct orderProduct = new OrderProduct();
-        orderProduct.setId(1L);
-        Order order = new Order();
-        order.setId(1L);
-        orderProduct.setOrderId(order);
-        mockOrderProducts.add(orderProduct);
-        mockOrderProducts.add(orderProduct);
-        mockOrderProducts.add(orderProduct);
-        // Mock the findAll() method of the orderProductRepository to return the mockOrderProducts list
-        when(orderProductRepository.findAll()).thenReturn(mockOrderProducts);
-
-        // Call the method under test
+        when(orderProductRepository.findMaterialsByOrderId(orderId)).thenReturn(new ArrayList<>());
+
         List<MaterialOrderDTO> result = materialOrderService.getAllOrderProductsByOrderId(orderId);
 
-        // Verify the expected result
-        Assertions.assertEquals(0, result.size()); // Expecting 2 OrderProduct objects with matching orderId
+        Assertions.assertEquals(0, result.size());
+        verify(orderProductRepository).findMaterialsByOrderId(orderId);
+        verify(orderProductRepository, never()).findByDeletedFalse();
+    }
+
+    @Test
+    void testGetAllOrderProductsByOrderId_MissingMaterials() {
+        when(orderProductRepository.findMaterialsByOrderId(1L)).thenReturn(List.of(
+                new OrderLineMaterialsDTO(10L, 100, 40, 30, 20L, 50, 30L, 4, 12),
+                new OrderLineMaterialsDTO(11L, 20, 25, 0, 21L, 0, 31L, 0, 10)));
+
+        List<MaterialOrderDTO> result = materialOrderService.getAllOrderProductsByOrderId(1L);
+
+        assertEquals(3, result.size());
+        assertEquals(new MaterialOrderDTO(null, 50, null, 20L, "PLATE", null, null), result.get(0));
+        assertEquals(new MaterialOrderDTO(null, 4, null, 30L, "CARTON", null, null), result.get(1));
+        assertEquals(new MaterialOrderDTO(null, 70, null, 10L, "PACKAGE", null, null), result.get(2));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testGetAllOrderProductsByOrderId_PackageWithoutProduct() {
+        when(orderProductRepository.findMaterialsByOrderId(1L)).thenReturn(List.of(
+                new OrderLineMaterialsDTO(10L, 100, null, 30, 20L, 50, 30L, 4, 12)));
+
+        assertThrows(RuntimeException.class, () -> materialOrderService.getAllOrderProductsByOrderId(1L));
     }
 
     @Test
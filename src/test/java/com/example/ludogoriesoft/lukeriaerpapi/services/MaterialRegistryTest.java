@@ -0,0 +1,98 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MaterialRegistryTest {
+
+    @Mock
+    private CartonRepository cartonRepository;
+    @Mock
+    private PlateRepository plateRepository;
+    @Mock
+    private PackageRepository packageRepository;
+
+    private final AtomicLong now = new AtomicLong();
+    private MaterialRegistry materialRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        materialRegistry = new MaterialRegistry(cartonRepository, plateRepository, packageRepository,
+                Duration.ofMinutes(10), now::get);
+        when(cartonRepository.findAllMaterials()).thenReturn(List.of(new MaterialDTO(1L, "Carton 1", 5)));
+        when(plateRepository.findAllMaterials()).thenReturn(List.of(new MaterialDTO(1L, "Plate 1", "plate.png", 5)));
+        when(packageRepository.findAllMaterials()).thenReturn(List.of(new MaterialDTO(2L, "Package 2", "package.png", 5)));
+    }
+
+    @Test
+    void testResolveLooksUpEveryTypeFromOneIndex() {
+        MaterialRegistry.MaterialKey carton = new MaterialRegistry.MaterialKey(MaterialType.CARTON, 1L);
+        MaterialRegistry.MaterialKey plate = new MaterialRegistry.MaterialKey(MaterialType.PLATE, 1L);
+        MaterialRegistry.MaterialKey aPackage = new MaterialRegistry.MaterialKey(MaterialType.PACKAGE, 2L);
+
+        Map<MaterialRegistry.MaterialKey, MaterialRegistry.Material> resolved =
+                materialRegistry.resolve(List.of(carton, plate, aPackage));
+
+        assertEquals(new MaterialRegistry.Material(MaterialType.CARTON, 1L, "Carton 1", null), resolved.get(carton));
+        assertEquals(new MaterialRegistry.Material(MaterialType.PLATE, 1L, "Plate 1", "plate.png"), resolved.get(plate));
+        assertEquals("package.png", resolved.get(aPackage).photo());
+        assertTrue(materialRegistry.contains(MaterialType.PACKAGE, 2L));
+        verify(packageRepository, times(1)).findAllMaterials();
+    }
+
+    @Test
+    void testIndexIsCachedUntilInvalidated() {
+        materialRegistry.contains(MaterialType.CARTON, 1L);
+        materialRegistry.contains(MaterialType.PLATE, 1L);
+        verify(cartonRepository, times(1)).findAllMaterials();
+
+        materialRegistry.invalidate();
+        materialRegistry.contains(MaterialType.CARTON, 1L);
+        verify(cartonRepository, times(2)).findAllMaterials();
+    }
+
+    @Test
+    void testMissRebuildsTheIndexAtMostOnceASecond() {
+        materialRegistry.contains(MaterialType.CARTON, 1L);
+
+        assertFalse(materialRegistry.contains(MaterialType.CARTON, 9L));
+        verify(cartonRepository, times(1)).findAllMaterials();
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        when(cartonRepository.findAllMaterials()).thenReturn(List.of(new MaterialDTO(9L, "Carton 9", 5)));
+
+        assertTrue(materialRegistry.contains(MaterialType.CARTON, 9L));
+        verify(cartonRepository, times(2)).findAllMaterials();
+    }
+
+    @Test
+    void testLoadReadsStockWithOneQueryPerType() {
+        when(plateRepository.findMaterialsByIdIn(Set.of(1L, 3L))).thenReturn(List.of(
+                new MaterialDTO(1L, "Plate 1", "plate.png", 40), new MaterialDTO(3L, "Plate 3", null, 0)));
+
+        Map<Long, MaterialDTO> plates = materialRegistry.load(MaterialType.PLATE, Set.of(1L, 3L));
+
+        assertEquals(40, plates.get(1L).getAvailableQuantity());
+        assertEquals(0, plates.get(3L).getAvailableQuantity());
+        assertTrue(materialRegistry.load(MaterialType.CARTON, Set.of()).isEmpty());
+        verify(plateRepository, times(1)).findMaterialsByIdIn(Set.of(1L, 3L));
+        verifyNoInteractions(cartonRepository);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialQuantityDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDemandDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.MaterialType;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class MaterialRequirementsServiceTest {
+
+    @Mock
+    private BillOfMaterials billOfMaterials;
+    @Mock
+    private PackageOpenDemandRepository packageOpenDemandRepository;
+    @Mock
+    private MaterialOrderRepository materialOrderRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private PackageRepository packageRepository;
+    @Mock
+    private PlateRepository plateRepository;
+    @Mock
+    private CartonRepository cartonRepository;
+
+    @InjectMocks
+    private MaterialRequirementsService materialRequirementsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(billOfMaterials.packages()).thenReturn(Map.of(
+                1L, new BillOfMaterials.PackageBom(1L, List.of(11L), 5L, 7L, 12),
+                2L, new BillOfMaterials.PackageBom(2L, List.of(12L), 5L, 8L, 10),
+                3L, new BillOfMaterials.PackageBom(3L, List.of(13L), 6L, 7L, 12)));
+        when(productRepository.findAllActiveDTOs()).thenReturn(List.of(
+                product(11L, 1L, 40), product(12L, 2L, 0), product(13L, 3L, 20)));
+        when(packageRepository.findAllActiveDTOs()).thenReturn(List.of(
+                packageDTO(1L, 10), packageDTO(2L, 80), packageDTO(3L, 0)));
+        when(plateRepository.findAllActiveDTOs()).thenReturn(List.of(
+                new PlateDTO(5L, "plate", 30, null, BigDecimal.ONE), new PlateDTO(6L, "plate", null, null, BigDecimal.ONE)));
+        when(cartonRepository.findAllActiveDTOs()).thenReturn(List.of(
+                new CartonDTO(7L, "carton", "S", 2, BigDecimal.ONE), new CartonDTO(8L, "carton", "M", 0, BigDecimal.ONE)));
+        when(materialOrderRepository.sumOpenOrdersByMaterial()).thenReturn(List.of(
+                new MaterialQuantityDTO(MaterialType.PLATE, 5L, 50L), new MaterialQuantityDTO(MaterialType.CARTON, 8L, 5L)));
+    }
+
+    @Test
+    void testPlanPurchasesNetsSharedMaterialsStockAndOpenOrders() {
+        when(packageOpenDemandRepository.findAll()).thenReturn(List.of(
+                new PackageDemandDTO(1L, 100L), new PackageDemandDTO(2L, 50L), new PackageDemandDTO(3L, 10L)));
+
+        List<MaterialOrderDTO> purchases = materialRequirementsService.planPurchases();
+
+        assertEquals(List.of(
+                purchase(MaterialType.CARTON, 7L, 3),
+                purchase(MaterialType.PACKAGE, 1L, 50),
+                purchase(MaterialType.PLATE, 5L, 30)), purchases);
+    }
+
+    @Test
+    void testPlanPurchasesSkipsDeletedPackages() {
+        when(packageOpenDemandRepository.findAll()).thenReturn(List.of(new PackageDemandDTO(99L, 100L)));
+
+        assertTrue(materialRequirementsService.planPurchases().isEmpty());
+        verifyNoInteractions(materialOrderRepository, plateRepository, cartonRepository);
+    }
+
+    @Test
+    void testPlanPurchasesWithoutDemand() {
+        when(packageOpenDemandRepository.findAll()).thenReturn(List.of());
+
+        assertTrue(materialRequirementsService.planPurchases().isEmpty());
+    }
+
+    private static ProductDTO product(Long id, Long packageId, int availableQuantity) {
+        return new ProductDTO(id, BigDecimal.ONE, packageId, availableQuantity, "P" + id, true, "barcode");
+    }
+
+    private static PackageDTO packageDTO(Long id, int availableQuantity) {
+        return new PackageDTO(id, "package", "package", availableQuantity, null, null, 12, null, BigDecimal.ONE, "P" + id);
+    }
+
+    private static MaterialOrderDTO purchase(MaterialType materialType, Long materialId, int quantity) {
+        MaterialOrderDTO purchase = new MaterialOrderDTO();
+        purchase.setMaterialType(materialType.toString());
+        purchase.setMaterialId(materialId);
+        purchase.setOrderedQuantity(quantity);
+        return purchase;
+    }
+}
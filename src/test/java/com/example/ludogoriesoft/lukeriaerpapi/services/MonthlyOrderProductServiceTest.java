@@ -51,12 +51,12 @@ class MonthlyOrderProductServiceTest {
 
     @Test
     void testGetAllMonthlyOrderProducts() {
-        Mockito.when(monthlyOrderProductRepository.findByDeletedFalse()).thenReturn(Collections.emptyList());
-        Mockito.when(modelMapper.map(Mockito.any(), Mockito.any())).thenReturn(new MonthlyOrderDTO());
+        Mockito.when(monthlyOrderProductRepository.findAllActiveDTOs()).thenReturn(Collections.emptyList());
 
         List<MonthlyOrderProductDTO> monthlyOrders = monthlyOrderProductService.getAllMonthlyOrderProducts();
         Assertions.assertNotNull(monthlyOrders);
         Assertions.assertEquals(0, monthlyOrders.size());
+        Mockito.verifyNoInteractions(modelMapper);
     }
 
     @Test
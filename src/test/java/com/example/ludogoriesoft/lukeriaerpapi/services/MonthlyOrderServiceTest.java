@@ -44,12 +44,12 @@ class MonthlyOrderServiceTest {
 
     @Test
     void testGetAllMonthlyOrders() {
-        Mockito.when(monthlyOrderRepository.findByDeletedFalse()).thenReturn(Collections.emptyList());
-        Mockito.when(modelMapper.map(Mockito.any(), Mockito.any())).thenReturn(new MonthlyOrderDTO());
+        Mockito.when(monthlyOrderRepository.findAllActiveDTOs()).thenReturn(Collections.emptyList());
 
         List<MonthlyOrderDTO> monthlyOrders = monthlyOrderService.getAllMonthlyOrders();
         Assertions.assertNotNull(monthlyOrders);
         Assertions.assertEquals(0, monthlyOrders.size());
+        Mockito.verifyNoInteractions(modelMapper);
     }
 
 
@@ -1,9 +1,13 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderWithProductsDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.enums.OrderStatus;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.InsufficientStockException;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
@@ -17,6 +21,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -57,6 +62,10 @@ class OrderProductServiceTest {
     private CartonRepository cartonRepository;
     @Mock
     private PlateRepository plateRepository;
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
+    @Mock
+    private PackageOpenDemandRepository packageOpenDemandRepository;
 
     @BeforeEach
     void setup() {
@@ -75,7 +84,7 @@ class OrderProductServiceTest {
         mockInvoiceOrderProductsList.add(invoiceOrderProduct);
 
 
-        Mockito.when(invoiceOrderProductRepository.findAll()).thenReturn(mockInvoiceOrderProductsList);
+        Mockito.when(invoiceOrderProductRepository.findInvoiceLines(1L)).thenReturn(mockInvoiceOrderProductsList);
         Mockito.when(orderProductService.findInvoiceOrderProductsByInvoiceId(1L)).thenReturn(mockInvoiceOrderProductsList);
 
         List<InvoiceOrderProduct> result = orderProductService.findInvoiceOrderProductsByInvoiceId(1L);
@@ -112,11 +121,72 @@ class OrderProductServiceTest {
         invoiceOrderProduct2.setOrderProductId(orderProduct);
         List<InvoiceOrderProduct> invoiceOrderProductsList = Arrays.asList(invoiceOrderProduct1, invoiceOrderProduct2);
 
-        when(productRepository.findByIdAndDeletedFalse(any())).thenReturn(Optional.of(product));
+        when(productRepository.findByPackageIdAndDeletedFalse(packageEntity)).thenReturn(Optional.of(product));
+        when(productRepository.findStockReportByIdAndDeletedFalse(any())).thenReturn(Optional.of(product));
         boolean result = orderProductService.reduceProducts(invoiceOrderProductsList);
         assertTrue(result);
-        verify(productRepository, times(2)).save(product);
-        assertTrue(result);
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.INVOICE, List.of(
+                new StockAdjustment(StockItemType.PRODUCT, 1L, -20),
+                new StockAdjustment(StockItemType.PRODUCT, 1L, -20)));
+        verify(productRepository, never()).save(any(Product.class));
+        verify(emailContentBuilder).generateStockReportEmail(List.of(product, product));
+    }
+
+    @Test
+    void testReduceProducts_InsufficientStock() {
+        Package packageEntity = new Package();
+        packageEntity.setId(1L);
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setNumber(20);
+        orderProduct.setPackageId(packageEntity);
+        InvoiceOrderProduct invoiceOrderProduct = new InvoiceOrderProduct();
+        invoiceOrderProduct.setOrderProductId(orderProduct);
+        Product product = new Product();
+        product.setId(1L);
+        when(productRepository.findByPackageIdAndDeletedFalse(packageEntity)).thenReturn(Optional.of(product));
+        doThrow(new InsufficientStockException(List.of(new StockAdjustment(StockItemType.PRODUCT, 1L, -20))))
+                .when(stockAdjustmentRepository).adjustOrReject(eq(StockMovementReason.INVOICE), anyList());
+
+        assertThrows(ValidationException.class, () -> orderProductService.reduceProducts(List.of(invoiceOrderProduct)));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void testReduceProducts_ReducesTheProductOfThePackage() {
+        Package packageEntity = new Package();
+        packageEntity.setId(5L);
+        Product product = new Product();
+        product.setId(9L);
+        product.setPackageId(packageEntity);
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setNumber(20);
+        orderProduct.setPackageId(packageEntity);
+        InvoiceOrderProduct invoiceOrderProduct = new InvoiceOrderProduct();
+        invoiceOrderProduct.setOrderProductId(orderProduct);
+        when(productRepository.findByPackageIdAndDeletedFalse(packageEntity)).thenReturn(Optional.of(product));
+        when(productRepository.findStockReportByIdAndDeletedFalse(9L)).thenReturn(Optional.of(product));
+
+        assertTrue(orderProductService.reduceProducts(List.of(invoiceOrderProduct)));
+
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.INVOICE, List.of(
+                new StockAdjustment(StockItemType.PRODUCT, 9L, -20)));
+        verify(emailContentBuilder).generateStockReportEmail(List.of(product));
+    }
+
+    @Test
+    void testReduceProducts_PackageWithoutProduct_ReturnsFalse() {
+        Package packageEntity = new Package();
+        packageEntity.setId(5L);
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setNumber(20);
+        orderProduct.setPackageId(packageEntity);
+        InvoiceOrderProduct invoiceOrderProduct = new InvoiceOrderProduct();
+        invoiceOrderProduct.setOrderProductId(orderProduct);
+        when(productRepository.findByPackageIdAndDeletedFalse(packageEntity)).thenReturn(Optional.empty());
+
+        assertFalse(orderProductService.reduceProducts(List.of(invoiceOrderProduct)));
+
+        verifyNoInteractions(stockAdjustmentRepository, emailService);
     }
 
     @Test
@@ -144,6 +214,7 @@ class OrderProductServiceTest {
         aPackage.setId(1L);
         orderDTO.setOrderId(1L);
         orderDTO.setPackageId(1L);
+        orderDTO.setNumber(4);
 
         when(orderRepository.existsById(order1.getId())).thenReturn(true);
         when(packageRepository.existsById(aPackage.getId())).thenReturn(true);
@@ -160,6 +231,7 @@ class OrderProductServiceTest {
         verify(orderProductRepository, times(1)).save(order);
         verify(modelMapper, times(1)).map(orderDTO, OrderProduct.class);
         verify(modelMapper, times(1)).map(order, OrderProductDTO.class);
+        verify(packageOpenDemandRepository).addLine(1L, 1L, 4);
         assertEquals(expectedDTO, createdOrderDTO);
     }
 
@@ -234,22 +306,36 @@ class OrderProductServiceTest {
 
     @Test
     void testGetAllOrders_ReturnsListOfOrderProductDTOs() {
-        OrderProduct order1 = new OrderProduct();
+        OrderProductDTO order1 = new OrderProductDTO();
         order1.setId(1L);
-        OrderProduct order2 = new OrderProduct();
+        OrderProductDTO order2 = new OrderProductDTO();
         order2.setId(2L);
-        List<OrderProduct> orders = Arrays.asList(order1, order2);
+        List<OrderProductDTO> orders = Arrays.asList(order1, order2);
 
-        when(orderProductRepository.findByDeletedFalse()).thenReturn(orders);
-        when(modelMapper.map(any(), eq(OrderProductDTO.class))).thenReturn(new OrderProductDTO());
+        when(orderProductRepository.findAllActiveDTOs()).thenReturn(orders);
 
         List<OrderProductDTO> result = orderProductService.getAllOrderProducts();
 
         assertNotNull(result);
         assertEquals(2, result.size());
 
-        verify(orderProductRepository, times(1)).findByDeletedFalse();
-        verify(modelMapper, times(2)).map(any(), eq(OrderProductDTO.class));
+        verify(orderProductRepository, times(1)).findAllActiveDTOs();
+        verify(modelMapper, never()).map(any(), eq(OrderProductDTO.class));
+    }
+
+    @Test
+    void testGetOrderProductsPage_DefaultSizeAndNoMoreRows() {
+        OrderProductDTO orderProductDTO = new OrderProductDTO();
+        orderProductDTO.setId(7L);
+        when(orderProductRepository.findPageOrderedById(isNull(), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(orderProductDTO));
+
+        KeysetPageDTO<OrderProductDTO> page = orderProductService.getOrderProductsPage(null, 3L, null);
+
+        assertEquals(List.of(orderProductDTO), page.getItems());
+        assertFalse(page.isHasNext());
+        verify(orderProductRepository).findPageOrderedById(isNull(), eq(3L),
+                argThat(pageable -> pageable.getPageSize() == KeysetPages.DEFAULT_SIZE + 1));
     }
 
     @Test
@@ -332,6 +418,10 @@ class OrderProductServiceTest {
 
         OrderProduct existingOrderProduct = new OrderProduct();
         existingOrderProduct.setId(id);
+        existingOrderProduct.setOrderId(order);
+        existingOrderProduct.setPackageId(aPackage);
+        existingOrderProduct.setNumber(3);
+        orderDTO.setNumber(5);
         when(orderProductRepository.findByIdAndDeletedFalse(id)).thenReturn(java.util.Optional.of(existingOrderProduct));
 
         OrderProduct updatedOrderProduct = new OrderProduct();
@@ -349,6 +439,8 @@ class OrderProductServiceTest {
         verify(modelMapper, times(1)).map(orderDTO, OrderProduct.class);
         verify(orderProductRepository, times(1)).save(updatedOrderProduct);
         verify(modelMapper, times(1)).map(updatedOrderProduct, OrderProductDTO.class);
+        verify(packageOpenDemandRepository).addLine(1L, 1L, -3);
+        verify(packageOpenDemandRepository).addLine(1L, 1L, 5);
         assertEquals(expectedDTO, updatedOrderDTO);
     }
 
@@ -381,6 +473,7 @@ class OrderProductServiceTest {
         orderProductService.deleteOrderProduct(orderId);
 
         verify(orderProductRepository, times(1)).save(order);
+        verifyNoInteractions(packageOpenDemandRepository);
         assertTrue(order.isDeleted());
     }
 
@@ -1,14 +1,21 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderPageRequestDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderProductDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.UserDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.OrderPageSort;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.InsufficientStockException;
 import com.example.ludogoriesoft.lukeriaerpapi.models.*;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.*;
 import com.example.ludogoriesoft.lukeriaerpapi.services.OrderService;
 import com.example.ludogoriesoft.lukeriaerpapi.services.OrderProductService;
-import com.example.ludogoriesoft.lukeriaerpapi.services.UserService;
+import com.example.ludogoriesoft.lukeriaerpapi.services.CustomerContext;
+import com.example.ludogoriesoft.lukeriaerpapi.services.CustomerContextResolver;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +27,7 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -41,10 +49,7 @@ public class OrderServiceTest {
     private ModelMapper modelMapper;
 
     @Mock
-    private ClientUserRepository clientUserRepository;
-
-    @Mock
-    private UserService userService;
+    private CustomerContextResolver customerContextResolver;
 
     @Mock
     private ShoppingCartRepository shoppingCartRepository;
@@ -53,7 +58,13 @@ public class OrderServiceTest {
     private CustomerCustomPriceRepository customerCustomPriceRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
+    @Mock
+    private StockReservations stockReservations;
+
+    @Mock
+    private PackageOpenDemandRepository packageOpenDemandRepository;
 
     @Mock
     private OrderProductService orderProductService;
@@ -92,14 +103,75 @@ public class OrderServiceTest {
 
     @Test
     void testGetAllOrders() {
-        when(orderRepository.findByDeletedFalse()).thenReturn(List.of(order));
-        when(modelMapper.map(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+        when(orderRepository.findAllActiveDTOs()).thenReturn(List.of(orderDTO));
 
         List<OrderDTO> orders = orderService.getAllOrders();
 
         assertNotNull(orders);
         assertEquals(1, orders.size());
         assertEquals(orderDTO, orders.get(0));
+        verify(modelMapper, never()).map(any(Order.class), eq(OrderDTO.class));
+    }
+
+    @Test
+    void testGetOrdersPage_ById_TrimsLookaheadRow() {
+        OrderDTO newest = new OrderDTO(3L, 1L, LocalDate.of(2024, 3, 3), false);
+        OrderDTO middle = new OrderDTO(2L, 1L, LocalDate.of(2024, 3, 2), false);
+        OrderDTO lookahead = new OrderDTO(1L, 1L, LocalDate.of(2024, 3, 1), false);
+        OrderPageRequestDTO request = new OrderPageRequestDTO();
+        request.setCursorId(4L);
+        request.setClientId(1L);
+        request.setSize(2);
+        when(orderRepository.findPageOrderedById(eq(4L), eq(1L), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle, lookahead));
+
+        KeysetPageDTO<OrderDTO> page = orderService.getOrdersPage(request);
+
+        assertEquals(List.of(newest, middle), page.getItems());
+        assertTrue(page.isHasNext());
+        verify(orderRepository).findPageOrderedById(eq(4L), eq(1L), isNull(), isNull(), isNull(),
+                argThat(pageable -> pageable.getPageNumber() == 0 && pageable.getPageSize() == 3));
+    }
+
+    @Test
+    void testGetOrdersPage_ByOrderDate_LastPage() {
+        LocalDate cursorDate = LocalDate.of(2024, 3, 1);
+        OrderPageRequestDTO request = new OrderPageRequestDTO();
+        request.setSort(OrderPageSort.ORDER_DATE);
+        request.setCursorOrderDate(cursorDate);
+        request.setCursorId(10L);
+        request.setInvoiced(true);
+        when(orderRepository.findPageOrderedByOrderDate(eq(cursorDate), eq(10L), isNull(), eq(true), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(orderDTO));
+
+        KeysetPageDTO<OrderDTO> page = orderService.getOrdersPage(request);
+
+        assertEquals(List.of(orderDTO), page.getItems());
+        assertFalse(page.isHasNext());
+        verify(orderRepository, never()).findPageOrderedById(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetOrdersPage_ByOrderDate_IncompleteCursor() {
+        OrderPageRequestDTO request = new OrderPageRequestDTO();
+        request.setSort(OrderPageSort.ORDER_DATE);
+        request.setCursorId(10L);
+
+        assertThrows(ValidationException.class, () -> orderService.getOrdersPage(request));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testGetOrdersPage_InvalidSizeOrRange() {
+        OrderPageRequestDTO tooLarge = new OrderPageRequestDTO();
+        tooLarge.setSize(KeysetPages.MAX_SIZE + 1);
+        OrderPageRequestDTO reversedRange = new OrderPageRequestDTO();
+        reversedRange.setFrom(LocalDate.of(2024, 2, 1));
+        reversedRange.setTo(LocalDate.of(2024, 1, 1));
+
+        assertThrows(ValidationException.class, () -> orderService.getOrdersPage(tooLarge));
+        assertThrows(ValidationException.class, () -> orderService.getOrdersPage(reversedRange));
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
@@ -169,6 +241,7 @@ public class OrderServiceTest {
         orderService.deleteOrder(1L);
 
         verify(orderRepository, times(1)).save(order);
+        verify(packageOpenDemandRepository).closeOrder(order.getId());
         assertTrue(order.isDeleted());
     }
 
@@ -193,11 +266,13 @@ public class OrderServiceTest {
     @Test
     void testCreateOrderFromShoppingCart() throws ChangeSetPersister.NotFoundException {
         ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(3L);
         Package packageObj = new Package();
         packageObj.setId(1L);
 
         CartItem cartItem = new CartItem();
         Product product = new Product();
+        product.setId(5L);
         product.setPrice(BigDecimal.valueOf(10));
         product.setPackageId(packageObj);
         cartItem.setProductId(product);
@@ -209,9 +284,7 @@ public class OrderServiceTest {
         ClientUser clientUser = new ClientUser();
         clientUser.setClient(client);
 
-        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(1L)).thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client)).thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(userDTO.getId(), client, shoppingCart));
         when(clientRepository.existsById(1L)).thenReturn(true);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(modelMapper.map(any(OrderDTO.class), eq(Order.class))).thenReturn(order);
@@ -219,8 +292,33 @@ public class OrderServiceTest {
 
         orderService.createOrderFromShoppingCart();
 
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.CHECKOUT, List.of(new StockAdjustment(StockItemType.PRODUCT, product.getId(), -2)));
+        verify(stockReservations).releaseCartAfterCommit(3L);
         verify(orderProductService, times(1)).createOrderProduct(any(OrderProductDTO.class));
         assertTrue(shoppingCart.getItems().isEmpty());
         verify(shoppingCartRepository, times(1)).save(shoppingCart);
     }
+
+    @Test
+    void testCreateOrderFromShoppingCart_InsufficientStock() throws ChangeSetPersister.NotFoundException {
+        Product product = new Product();
+        product.setId(5L);
+        CartItem cartItem = new CartItem();
+        cartItem.setProductId(product);
+        cartItem.setQuantity(2);
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setItems(new ArrayList<>(List.of(cartItem)));
+
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(userDTO.getId(), client, shoppingCart));
+        when(clientRepository.existsById(1L)).thenReturn(true);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(modelMapper.map(any(OrderDTO.class), eq(Order.class))).thenReturn(order);
+        when(modelMapper.map(any(Order.class), eq(OrderDTO.class))).thenReturn(orderDTO);
+        doThrow(new InsufficientStockException(List.of(new StockAdjustment(StockItemType.PRODUCT, 5L, -2))))
+                .when(stockAdjustmentRepository).adjustOrReject(eq(StockMovementReason.CHECKOUT), anyList());
+
+        assertThrows(ValidationException.class, () -> orderService.createOrderFromShoppingCart());
+        verifyNoInteractions(orderProductService, stockReservations);
+        assertFalse(shoppingCart.getItems().isEmpty());
+    }
 }
@@ -0,0 +1,40 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageOpenDemandRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageOpenDemandJobTest {
+
+    @Mock
+    private PackageOpenDemandRepository packageOpenDemandRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PackageOpenDemandJob packageOpenDemandJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        packageOpenDemandJob = new PackageOpenDemandJob(packageOpenDemandRepository, meterRegistry);
+    }
+
+    @Test
+    void testVerifyCountsCorrectedPackages() {
+        when(packageOpenDemandRepository.rebuild()).thenReturn(3, 0);
+
+        packageOpenDemandJob.verify();
+        packageOpenDemandJob.verify();
+
+        verify(packageOpenDemandRepository, times(2)).rebuild();
+        assertEquals(3.0, meterRegistry.get("package.open.demand.drift").counter().count());
+        assertEquals(2, meterRegistry.get("package.open.demand.verify").timer().count());
+    }
+}
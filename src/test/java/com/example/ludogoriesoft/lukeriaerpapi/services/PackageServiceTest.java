@@ -8,6 +8,7 @@ import com.example.ludogoriesoft.lukeriaerpapi.dtos.CartonDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.PackageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import com.example.ludogoriesoft.lukeriaerpapi.models.EmailContentBuilder;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
@@ -15,6 +16,7 @@ import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CartonRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.UserRepository;
 import jakarta.validation.ValidationException;
 import java.math.BigDecimal;
@@ -48,6 +50,13 @@ class PackageServiceTest {
     private EmailContentBuilder emailContentBuilder;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BillOfMaterials billOfMaterials;
+    @Mock
+    private MaterialRegistry materialRegistry;
+
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
 
     @InjectMocks
     private PackageService packageService;
@@ -59,17 +68,6 @@ class PackageServiceTest {
 
     @Test
     void testGetAllPackages() {
-        Package package1 = new Package();
-        package1.setId(1L);
-        package1.setName("Package 1");
-
-        Package package2 = new Package();
-        package2.setId(2L);
-        package2.setName("Package 2");
-
-        List<Package> mockPackages = Arrays.asList(package1, package2);
-        when(packageRepository.findByDeletedFalse()).thenReturn(mockPackages);
-
         PackageDTO packageDTO1 = new PackageDTO();
         packageDTO1.setId(1L);
         packageDTO1.setName("Package 1");
@@ -78,25 +76,26 @@ class PackageServiceTest {
         packageDTO2.setId(2L);
         packageDTO2.setName("Package 2");
 
-        when(modelMapper.map(package1, PackageDTO.class)).thenReturn(packageDTO1);
-        when(modelMapper.map(package2, PackageDTO.class)).thenReturn(packageDTO2);
+        List<PackageDTO> mockPackages = Arrays.asList(packageDTO1, packageDTO2);
+        when(packageRepository.findAllActiveDTOs()).thenReturn(mockPackages);
 
         List<PackageDTO> result = packageService.getAllPackages();
 
         assertEquals(mockPackages.size(), result.size());
-        assertEquals(mockPackages.get(0).getName(), result.get(0).getName());
-        assertEquals(mockPackages.get(1).getName(), result.get(1).getName());
+        assertEquals("Package 1", result.get(0).getName());
+        assertEquals("Package 2", result.get(1).getName());
 
-        verify(packageRepository, times(1)).findByDeletedFalse();
+        verify(packageRepository, times(1)).findAllActiveDTOs();
+        verify(packageRepository, never()).findByDeletedFalse();
 
-        verify(modelMapper, times(mockPackages.size())).map(any(Package.class), eq(PackageDTO.class));
+        verify(modelMapper, never()).map(any(Package.class), eq(PackageDTO.class));
     }
 
     @Test
     void testSendProductStockReportById_PackageNotFound() throws ChangeSetPersister.NotFoundException {
         Long packageId = 1L;
 
-        when(packageRepository.findByIdAndDeletedFalse(packageId)).thenReturn(Optional.empty());
+        when(packageRepository.findStockReportByIdAndDeletedFalse(packageId)).thenReturn(Optional.empty());
 
         assertThrows(ChangeSetPersister.NotFoundException.class, () -> {
             packageService.sendProductStockReportById(packageId);
@@ -135,7 +134,7 @@ class PackageServiceTest {
         List<String> emails = List.of("email1@example.com", "email2@example.com");
         String emailBody = "Generated Email Body";
 
-        when(packageRepository.findByIdAndDeletedFalse(packageId)).thenReturn(Optional.of(productPackage));
+        when(packageRepository.findStockReportByIdAndDeletedFalse(packageId)).thenReturn(Optional.of(productPackage));
         when(modelMapper.map(productPackage, PackageDTO.class)).thenReturn(new PackageDTO());
         when(modelMapper.map(any(Plate.class), eq(PlateDTO.class))).thenReturn(new PlateDTO());
         when(modelMapper.map(any(Carton.class), eq(CartonDTO.class))).thenReturn(new CartonDTO());
@@ -180,6 +179,7 @@ class PackageServiceTest {
         // Assert
         assertNotNull(updatedPackageDTO);
         assertEquals("Updated Package", updatedPackageDTO.getName());
+        verify(stockAdjustmentRepository).setQuantity(StockItemType.PACKAGE, packageId, 20);
         // Add more assertions based on your requirements
     }
 
@@ -421,6 +421,7 @@ class PackageServiceTest {
         when(packageRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(existingPackage));
         packageService.deletePackage(1L);
         verify(packageRepository, times(1)).findByIdAndDeletedFalse(1L);
+        verify(billOfMaterials).invalidate();
     }
 
     @Test
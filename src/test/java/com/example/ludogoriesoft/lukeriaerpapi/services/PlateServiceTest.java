@@ -1,8 +1,10 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.PlateDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PlateRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,12 @@ class PlateServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private MaterialRegistry materialRegistry;
+
+    @Mock
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
     @InjectMocks
     private PlateService plateService;
 
@@ -38,17 +46,6 @@ class PlateServiceTest {
 
     @Test
     void testGetAllPlates() {
-        Plate plate1 = new Plate();
-        plate1.setId(1L);
-        plate1.setName("Plate 1");
-
-        Plate plate2 = new Plate();
-        plate2.setId(2L);
-        plate2.setName("Plate 2");
-
-        List<Plate> mockPlates = Arrays.asList(plate1, plate2);
-        when(plateRepository.findByDeletedFalse()).thenReturn(mockPlates);
-
         PlateDTO plateDTO1 = new PlateDTO();
         plateDTO1.setId(1L);
         plateDTO1.setName("Plate 1");
@@ -57,18 +54,19 @@ class PlateServiceTest {
         plateDTO2.setId(2L);
         plateDTO2.setName("Plate 2");
 
-        when(modelMapper.map(plate1, PlateDTO.class)).thenReturn(plateDTO1);
-        when(modelMapper.map(plate2, PlateDTO.class)).thenReturn(plateDTO2);
+        List<PlateDTO> mockPlates = Arrays.asList(plateDTO1, plateDTO2);
+        when(plateRepository.findAllActiveDTOs()).thenReturn(mockPlates);
 
         List<PlateDTO> result = plateService.getAllPlates();
 
         assertEquals(mockPlates.size(), result.size());
-        assertEquals(mockPlates.get(0).getName(), result.get(0).getName());
-        assertEquals(mockPlates.get(1).getName(), result.get(1).getName());
+        assertEquals("Plate 1", result.get(0).getName());
+        assertEquals("Plate 2", result.get(1).getName());
 
-        verify(plateRepository, times(1)).findByDeletedFalse();
+        verify(plateRepository, times(1)).findAllActiveDTOs();
+        verify(plateRepository, never()).findByDeletedFalse();
 
-        verify(modelMapper, times(mockPlates.size())).map(any(Plate.class), eq(PlateDTO.class));
+        verify(modelMapper, never()).map(any(Plate.class), eq(PlateDTO.class));
     }
 
     @Test
@@ -125,6 +123,7 @@ class PlateServiceTest {
         PlateDTO result = plateService.createPlate(plateDTO);
 
         // Assert
+        verify(stockAdjustmentRepository).recordOpeningQuantity(StockItemType.PLATE, null, 10);
         assertEquals(plateDTO.getName(), result.getName());
         assertEquals(plateDTO.getPhoto(), result.getPhoto());
         assertEquals(plateDTO.getAvailableQuantity(), result.getAvailableQuantity());
@@ -132,6 +131,7 @@ class PlateServiceTest {
 
         // Verify that plateRepository.save() is called with the expected Plate object
         verify(plateRepository).save(plateEntity);
+        verify(materialRegistry).invalidate();
     }
 
     @Test
@@ -203,6 +203,7 @@ class PlateServiceTest {
         when(plateRepository.save(existingPlate)).thenReturn(updatedPlate);
         PlateDTO result = plateService.updatePlate(plateId, plateDTO);
 
+        verify(stockAdjustmentRepository).setQuantity(StockItemType.PLATE, plateId, 20);
         verify(plateRepository).save(existingPlate);
     }
 
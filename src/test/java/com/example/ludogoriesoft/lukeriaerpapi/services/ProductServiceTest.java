@@ -1,6 +1,9 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.ProductDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockMovementReason;
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.InsufficientStockException;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Plate;
@@ -39,33 +42,26 @@ class ProductServiceTest {
     @Mock
     private ProductService productService;
     @Mock
-    private PlateRepository plateRepository;
+    private ManufacturedProductRepository manufacturedProductRepository;
     @Mock
-    private CartonRepository cartonRepository;
+    private StockAdjustmentRepository stockAdjustmentRepository;
     @Mock
-    private ManufacturedProductRepository manufacturedProductRepository;
+    private BillOfMaterials billOfMaterials;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.initMocks(this);
-        productService = new ProductService(productRepository, packageRepository, modelMapper, plateRepository, cartonRepository, manufacturedProductRepository);
+        productService = new ProductService(productRepository, packageRepository, modelMapper, manufacturedProductRepository, stockAdjustmentRepository, billOfMaterials);
     }
 
     @Test
     void testGetAllProducts() {
-        Package aPackage = new Package();
-        aPackage.setId(1L);
         // Arrange
-        List<Product> products = new ArrayList<>();
-        Plate plate = new Plate();
-        plate.setId(1L);
-        products.add(new Product(1L, aPackage, BigDecimal.valueOf(10.0), 5, false, "L111",true,"barcode"));
-        products.add(new Product(2L, aPackage, BigDecimal.valueOf(15.0), 3, false, "L111",true,"barcode"));
+        List<ProductDTO> products = new ArrayList<>();
+        products.add(new ProductDTO(1L, BigDecimal.valueOf(10.0), 1L, 5, "L111", true, "barcode"));
+        products.add(new ProductDTO(2L, BigDecimal.valueOf(15.0), 1L, 3, "L111", true, "barcode"));
 
-        when(productRepository.findByDeletedFalse()).thenReturn(products);
-
-        when(modelMapper.map(products.get(0), ProductDTO.class)).thenReturn(new ProductDTO(1L, BigDecimal.valueOf(10.0), aPackage.getId(), 5, "L111",true,"barcode"));
-        when(modelMapper.map(products.get(1), ProductDTO.class)).thenReturn(new ProductDTO(2L, BigDecimal.valueOf(15.0), aPackage.getId(), 3, "L111",true,"barcode"));
+        when(productRepository.findAllActiveDTOs()).thenReturn(products);
 
         // Act
         List<ProductDTO> result = productService.getAllProducts();
@@ -78,7 +74,7 @@ class ProductServiceTest {
         assertEquals(2L, result.get(1).getId());
         assertEquals(BigDecimal.valueOf(15.0), result.get(1).getPrice());
         assertEquals(3, result.get(1).getAvailableQuantity());
-
+        verify(productRepository, never()).findByDeletedFalse();
     }
 
     @Test
@@ -149,6 +145,7 @@ class ProductServiceTest {
 
 
         assertNotNull(updatedProductDTO);
+        verify(stockAdjustmentRepository).setQuantity(StockItemType.PRODUCT, productId, 20);
 
     }
 
@@ -185,6 +182,7 @@ class ProductServiceTest {
 
         // Assert
         assertNotNull(createdProductDTO);
+        verify(stockAdjustmentRepository).recordOpeningQuantity(StockItemType.PRODUCT, 1L, 0);
 
     }
 
@@ -289,6 +287,7 @@ class ProductServiceTest {
         // Assert
         verify(product).setDeleted(true);
         verify(productRepository).save(product);
+        verify(billOfMaterials).invalidate();
     }
     @Test
     void testGetProductsForSale() {
@@ -351,17 +350,47 @@ class ProductServiceTest {
         aPackage.setPiecesCarton(1);
         product.setPackageId(aPackage);
 
+        ProductDTO productDTO = new ProductDTO();
+        Mockito.when(productRepository.findStockReportByIdAndDeletedFalse(productId)).thenReturn(Optional.of(product));
         Mockito.when(productRepository.findByIdAndDeletedFalse(productId)).thenReturn(Optional.of(product));
-        Mockito.when(packageRepository.findByIdAndDeletedFalse(aPackage.getId())).thenReturn(Optional.of(aPackage));
-        Mockito.when(plateRepository.findByIdAndDeletedFalse(plate.getId())).thenReturn(Optional.of(plate));
-        Mockito.when(cartonRepository.findByIdAndDeletedFalse(carton.getId())).thenReturn(Optional.of(carton));
+        Mockito.when(modelMapper.map(product, ProductDTO.class)).thenReturn(productDTO);
 
         ProductDTO result = productService.produceProduct(productId, producedQuantity);
 
-        assertEquals(60, product.getAvailableQuantity());
-        assertEquals(-10, aPackage.getAvailableQuantity());
-        assertEquals(90, plate.getAvailableQuantity());
-        assertEquals(90, carton.getAvailableQuantity());
+        assertEquals(productDTO, result);
+        verify(stockAdjustmentRepository).adjustOrReject(StockMovementReason.PRODUCTION, List.of(
+                new StockAdjustment(StockItemType.PRODUCT, productId, 10),
+                new StockAdjustment(StockItemType.PACKAGE, aPackage.getId(), -10),
+                new StockAdjustment(StockItemType.PLATE, plate.getId(), -10),
+                new StockAdjustment(StockItemType.CARTON, carton.getId(), -10)));
+        verify(productRepository, never()).save(any(Product.class));
+        verify(manufacturedProductRepository).save(argThat(manufacturedProduct -> manufacturedProduct.getQuantity() == 10));
+    }
+
+    @Test
+    void testProduceProduct_InsufficientMaterials() {
+        Product product = new Product();
+        product.setId(1L);
+        Package aPackage = new Package();
+        aPackage.setId(1L);
+        aPackage.setCartonId(new Carton());
+        aPackage.setPlateId(new Plate());
+        aPackage.setPiecesCarton(1);
+        product.setPackageId(aPackage);
+        Mockito.when(productRepository.findStockReportByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
+        doThrow(new InsufficientStockException(List.of(new StockAdjustment(StockItemType.PACKAGE, 1L, -10))))
+                .when(stockAdjustmentRepository).adjustOrReject(eq(StockMovementReason.PRODUCTION), anyList());
+
+        assertThrows(InsufficientStockException.class, () -> productService.produceProduct(1L, 10));
+        verify(manufacturedProductRepository, never()).save(any());
+    }
+
+    @Test
+    void testProduceProduct_NotFound() {
+        Mockito.when(productRepository.findStockReportByIdAndDeletedFalse(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ChangeSetPersister.NotFoundException.class, () -> productService.produceProduct(1L, 10));
+        verifyNoInteractions(stockAdjustmentRepository);
     }
     @Test
     void testGetProductByPackage_PackageExists() {
@@ -0,0 +1,188 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.config.ReadReplicaRoutingDataSource;
+import com.example.ludogoriesoft.lukeriaerpapi.config.ReplicaLagMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet replicaStatus;
+    @Mock
+    private ResultSetMetaData replicaStatusColumns;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), meterRegistry);
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(replicaStatus);
+        when(replicaStatus.getMetaData()).thenReturn(replicaStatusColumns);
+        when(replicaStatusColumns.getColumnCount()).thenReturn(2);
+        when(replicaStatusColumns.getColumnLabel(1)).thenReturn("Replica_IO_State");
+        when(replicaStatusColumns.getColumnLabel(2)).thenReturn("Seconds_Behind_Source");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesCurrentReplica() throws SQLException {
+        replicaBehindBy(2);
+        lagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertEquals(1.0, routedCount(ReadReplicaRoutingDataSource.REPLICA));
+        assertEquals(2.0, meterRegistry.get(ReplicaLagMonitor.LAG_METRIC).gauge().value());
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() throws SQLException {
+        replicaBehindBy(0);
+        lagMonitor.check();
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1.0, routedCount(ReadReplicaRoutingDataSource.PRIMARY));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() throws SQLException {
+        replicaBehindBy(30);
+        lagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertFalse(lagMonitor.isUsable());
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void testStoppedReplicationIsSkipped() throws SQLException {
+        when(replicaStatus.next()).thenReturn(true);
+        when(replicaStatus.getLong("Seconds_Behind_Source")).thenReturn(0L);
+        when(replicaStatus.wasNull()).thenReturn(true);
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isUsable());
+        assertTrue(Double.isNaN(meterRegistry.get(ReplicaLagMonitor.LAG_METRIC).gauge().value()));
+    }
+
+    @Test
+    void testStandaloneReplicaCountsAsCurrent() throws SQLException {
+        when(replicaStatus.next()).thenReturn(false);
+        lagMonitor.check();
+
+        assertTrue(lagMonitor.isUsable());
+    }
+
+    @Test
+    void testReplicaIsSkippedBeforeFirstCheck() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void testFailedReplicaConnectionFallsBackToPrimary() throws SQLException {
+        replicaBehindBy(0);
+        lagMonitor.check();
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertFalse(lagMonitor.isUsable());
+        assertEquals(1.0, meterRegistry.get(ReadReplicaRoutingDataSource.FALLBACK_METRIC).counter().count());
+        assertEquals(2.0, routedCount(ReadReplicaRoutingDataSource.PRIMARY));
+    }
+
+    @Test
+    void testUnreachableReplicaIsSkippedByCheck() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isUsable());
+    }
+
+    @Test
+    void testReplicaWithoutShowReplicaStatusFallsBackToShowSlaveStatus() throws SQLException {
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenThrow(new SQLSyntaxErrorException("You have an error in your SQL syntax", "42000", 1064));
+        when(replicaStatusColumns.getColumnLabel(2)).thenReturn("Seconds_Behind_Master");
+        when(replicaStatus.next()).thenReturn(true);
+        when(replicaStatus.getLong("Seconds_Behind_Master")).thenReturn(1L);
+        when(replicaStatus.wasNull()).thenReturn(false);
+
+        lagMonitor.check();
+        lagMonitor.check();
+
+        assertTrue(lagMonitor.isUsable());
+        verify(statement, times(1)).executeQuery("SHOW REPLICA STATUS");
+        verify(statement, times(2)).executeQuery("SHOW SLAVE STATUS");
+    }
+
+    @Test
+    void testReplicaRejectingBothStatusQueriesIsDisabledWithWarning(CapturedOutput output) throws SQLException {
+        when(statement.executeQuery(anyString())).thenThrow(new SQLSyntaxErrorException("You have an error in your SQL syntax", "42000", 1064));
+
+        lagMonitor.check();
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isUsable());
+        verify(replica, times(2)).getConnection();
+        assertTrue(output.getOut().contains("Read replica disabled until restart"));
+    }
+
+    private void replicaBehindBy(long seconds) throws SQLException {
+        when(replicaStatus.next()).thenReturn(true);
+        when(replicaStatus.getLong("Seconds_Behind_Source")).thenReturn(seconds);
+        when(replicaStatus.wasNull()).thenReturn(false);
+    }
+
+    private double routedCount(String pool) {
+        return meterRegistry.get(ReadReplicaRoutingDataSource.ROUTED_METRIC).tag("pool", pool).counter().count();
+    }
+}
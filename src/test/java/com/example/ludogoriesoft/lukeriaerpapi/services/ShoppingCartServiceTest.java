@@ -9,7 +9,6 @@ import com.example.ludogoriesoft.lukeriaerpapi.models.ClientUser;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
 import com.example.ludogoriesoft.lukeriaerpapi.models.ShoppingCart;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CartItemRepository;
-import com.example.ludogoriesoft.lukeriaerpapi.repository.ClientUserRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.CustomerCustomPriceRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ShoppingCartRepository;
@@ -36,12 +35,10 @@ import static org.mockito.Mockito.*;
 
 public class ShoppingCartServiceTest {
     @Mock
-    private UserService userService;
+    private CustomerContextResolver customerContextResolver;
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private ClientUserRepository clientUserRepository;
-    @Mock
     private ShoppingCartRepository shoppingCartRepository;
     @Mock
     private CartItemRepository cartItemRepository;
@@ -49,6 +46,8 @@ public class ShoppingCartServiceTest {
     private ModelMapper modelMapper;
     @Mock
     private CustomerCustomPriceRepository customerCustomPriceRepository;
+    @Mock
+    private StockReservations stockReservations;
 
     @InjectMocks
     private ShoppingCartService shoppingCartService;
@@ -56,6 +55,8 @@ public class ShoppingCartServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(stockReservations.reserve(any(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(2) <= invocation.<Integer>getArgument(3));
     }
 
     @Test
@@ -86,9 +87,7 @@ public class ShoppingCartServiceTest {
 
         shoppingCart.setItems(cartItems);
 
-        when(userService.findAuthenticatedUser()).thenReturn(user);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(user.getId())).thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client)).thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(user.getId(), client, shoppingCart));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
 
         // Act
@@ -128,9 +127,7 @@ public class ShoppingCartServiceTest {
 
         shoppingCart.setItems(cartItems);
 
-        when(userService.findAuthenticatedUser()).thenReturn(user);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(user.getId())).thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client)).thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(user.getId(), client, shoppingCart));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
 
         // Act & Assert
@@ -165,9 +162,7 @@ public class ShoppingCartServiceTest {
         product.setAvailableQuantity(10);
         product.setPrice(BigDecimal.valueOf(100.0));
 
-        when(userService.findAuthenticatedUser()).thenReturn(user);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(user.getId())).thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client)).thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(user.getId(), client, shoppingCart));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -185,7 +180,7 @@ public class ShoppingCartServiceTest {
     }
 
     @Test
-    void testAddToCart_ProductNotInCart_ExceedsAvailableQuantity() {
+    void testAddToCart_ProductNotInCart_ExceedsAvailableQuantity() throws ChangeSetPersister.NotFoundException {
         // Arrange
         Long productId = 1L;
         int quantityToAdd = 15;
@@ -207,9 +202,7 @@ public class ShoppingCartServiceTest {
         product.setId(productId);
         product.setAvailableQuantity(10);
 
-        when(userService.findAuthenticatedUser()).thenReturn(user);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(user.getId())).thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client)).thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(user.getId(), client, shoppingCart));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
 
         // Act & Assert
@@ -240,11 +233,7 @@ public class ShoppingCartServiceTest {
         product.setAvailableQuantity(10);
         product.setPrice(BigDecimal.valueOf(100.0));
 
-        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(userDTO.getId()))
-                .thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client))
-                .thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(userDTO.getId(), client, shoppingCart));
         when(productRepository.findById(productId))
                 .thenReturn(Optional.of(product));
 
@@ -255,7 +244,7 @@ public class ShoppingCartServiceTest {
     }
 
     @Test
-    void testAddToCart_InsufficientStock_ThrowsIllegalArgumentException() {
+    void testAddToCart_InsufficientStock_ThrowsIllegalArgumentException() throws ChangeSetPersister.NotFoundException {
         Long productId = 1L;
         int quantity = 15;
 
@@ -273,11 +262,7 @@ public class ShoppingCartServiceTest {
         product.setId(productId);
         product.setAvailableQuantity(10);
 
-        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(userDTO.getId()))
-                .thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client))
-                .thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(userDTO.getId(), client, shoppingCart));
         when(productRepository.findById(productId))
                 .thenReturn(Optional.of(product));
 
@@ -302,11 +287,7 @@ public class ShoppingCartServiceTest {
         CartItemDTO cartItemDTO1 = new CartItemDTO();
         CartItemDTO cartItemDTO2 = new CartItemDTO();
 
-        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(userDTO.getId()))
-                .thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client))
-                .thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(userDTO.getId(), client, shoppingCart));
         when(modelMapper.map(cartItem1, CartItemDTO.class)).thenReturn(cartItemDTO1);
         when(modelMapper.map(cartItem2, CartItemDTO.class)).thenReturn(cartItemDTO2);
 
@@ -319,9 +300,7 @@ public class ShoppingCartServiceTest {
         assertTrue(result.contains(cartItemDTO1));
         assertTrue(result.contains(cartItemDTO2));
 
-        verify(userService, times(1)).findAuthenticatedUser();
-        verify(clientUserRepository, times(1)).findByUserIdAndDeletedFalse(userDTO.getId());
-        verify(shoppingCartRepository, times(1)).findByClientId(client);
+        verify(customerContextResolver, times(1)).resolve();
         verify(modelMapper, times(2)).map(cartItem1, CartItemDTO.class);
         verify(modelMapper, times(2)).map(cartItem2, CartItemDTO.class);
     }
@@ -338,23 +317,24 @@ public class ShoppingCartServiceTest {
         clientUser.setClient(client);
 
         ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(3L);
+        Product product = new Product();
+        product.setId(7L);
         CartItem cartItem = new CartItem();
         cartItem.setId(cartItemId);
+        cartItem.setProductId(product);
         List<CartItem> cartItemList = new ArrayList<>();
         cartItemList.add(cartItem);
         shoppingCart.setItems(cartItemList);
 
-        when(userService.findAuthenticatedUser()).thenReturn(userDTO);
-        when(clientUserRepository.findByUserIdAndDeletedFalse(userDTO.getId()))
-                .thenReturn(Optional.of(clientUser));
-        when(shoppingCartRepository.findByClientId(client))
-                .thenReturn(Optional.of(shoppingCart));
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(userDTO.getId(), client, shoppingCart));
         when(cartItemRepository.findByIdAndDeletedFalse(cartItemId))
                 .thenReturn(Optional.of(cartItem));
 
         shoppingCartService.removeCartItem(cartItemId);
 
         assertTrue(cartItem.isDeleted());
+        verify(stockReservations).release(3L, 7L);
         verify(cartItemRepository, times(1)).save(cartItem);
         verify(shoppingCartRepository, times(1)).save(shoppingCart);
     }
@@ -365,11 +345,15 @@ public class ShoppingCartServiceTest {
         Long cartItemId = 1L;
         int newQuantity = 5;
         Product product = new Product();
+        product.setId(7L);
         product.setAvailableQuantity(5);
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(3L);
         CartItem cartItem = new CartItem();
         cartItem.setId(cartItemId);
         cartItem.setQuantity(2); // Current quantity
         cartItem.setProductId(product);
+        cartItem.setShoppingCartId(shoppingCart);
 
         when(cartItemRepository.findByIdAndDeletedFalse(cartItemId)).thenReturn(Optional.of(cartItem));
         when(cartItemRepository.save(cartItem)).thenReturn(cartItem);
@@ -379,6 +363,7 @@ public class ShoppingCartServiceTest {
 
         // Assert
         assertEquals(newQuantity, cartItem.getQuantity());
+        verify(stockReservations).reserve(3L, 7L, newQuantity, 5);
         verify(cartItemRepository, times(1)).findByIdAndDeletedFalse(cartItemId);
         verify(cartItemRepository, times(1)).save(cartItem);
     }
@@ -413,4 +398,43 @@ public class ShoppingCartServiceTest {
         verify(cartItemRepository, never()).save(any(CartItem.class));
     }
 
+    @Test
+    void testAddToCart_StockReservedByOtherCarts() throws ChangeSetPersister.NotFoundException {
+        Client client = new Client();
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(3L);
+        shoppingCart.setItems(new ArrayList<>());
+        Product product = new Product();
+        product.setId(7L);
+        product.setAvailableQuantity(10);
+
+        when(customerContextResolver.resolve()).thenReturn(new CustomerContext(1L, client, shoppingCart));
+        when(productRepository.findById(7L)).thenReturn(Optional.of(product));
+        when(stockReservations.reserve(3L, 7L, 4, 10)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> shoppingCartService.addToCart(7L, 4));
+        verify(cartItemRepository, never()).save(any(CartItem.class));
+    }
+
+    @Test
+    void testUpdateQuantityOfItem_StockReservedByOtherCarts() {
+        Product product = new Product();
+        product.setId(7L);
+        product.setAvailableQuantity(10);
+        ShoppingCart shoppingCart = new ShoppingCart();
+        shoppingCart.setId(3L);
+        CartItem cartItem = new CartItem();
+        cartItem.setId(1L);
+        cartItem.setQuantity(2);
+        cartItem.setProductId(product);
+        cartItem.setShoppingCartId(shoppingCart);
+
+        when(cartItemRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(cartItem));
+        when(stockReservations.reserve(3L, 7L, 6, 10)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> shoppingCartService.updateQuantityOfItem(1L, 6));
+        assertEquals(2, cartItem.getQuantity());
+        verify(cartItemRepository, never()).save(any(CartItem.class));
+    }
+
 }
@@ -0,0 +1,86 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.models.CatalogCacheRegions;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Carton;
+import com.example.ludogoriesoft.lukeriaerpapi.models.Product;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockLedgerRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockMovement;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockCacheSyncTest {
+
+    @Mock
+    private StockLedgerRepository stockLedgerRepository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private jakarta.persistence.Cache jpaCache;
+
+    @Mock
+    private Cache cache;
+
+    private StockCacheSync stockCacheSync;
+
+    @BeforeEach
+    void setUp() {
+        stockCacheSync = new StockCacheSync(stockLedgerRepository, entityManagerFactory);
+    }
+
+    @Test
+    void testFirstRefreshOnlyRecordsTheLatestMovement() {
+        when(stockLedgerRepository.latestMovementId()).thenReturn(1500L);
+
+        stockCacheSync.refresh();
+
+        verify(stockLedgerRepository, never()).movementsAfter(anyLong());
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    void testRefreshEvictsEachMovementOnceIncludingOnesThatCommittedLate() {
+        when(entityManagerFactory.getCache()).thenReturn(jpaCache);
+        when(jpaCache.unwrap(Cache.class)).thenReturn(cache);
+        StockMovement first = new StockMovement(1501L, StockItemType.PRODUCT, 7L);
+        StockMovement late = new StockMovement(1502L, StockItemType.CARTON, 8L);
+        StockMovement last = new StockMovement(1503L, StockItemType.PRODUCT, 9L);
+        when(stockLedgerRepository.latestMovementId()).thenReturn(1500L);
+        when(stockLedgerRepository.movementsAfter(500L)).thenReturn(List.of(first, last));
+        when(stockLedgerRepository.movementsAfter(503L)).thenReturn(List.of(first, late, last));
+
+        stockCacheSync.refresh();
+        stockCacheSync.refresh();
+        stockCacheSync.refresh();
+
+        verify(cache).evictEntityData(Product.class, 7L);
+        verify(cache).evictEntityData(Carton.class, 8L);
+        verify(cache).evictEntityData(Product.class, 9L);
+        verify(cache, times(2)).evictQueryRegion(CatalogCacheRegions.QUERIES);
+        verify(stockLedgerRepository).movementsAfter(500L);
+        verify(stockLedgerRepository).movementsAfter(503L);
+    }
+
+    @Test
+    void testRefreshWithoutNewMovementsEvictsNothing() {
+        when(stockLedgerRepository.latestMovementId()).thenReturn(0L);
+        when(stockLedgerRepository.movementsAfter(0L)).thenReturn(List.of());
+
+        stockCacheSync.refresh();
+        stockCacheSync.refresh();
+
+        verifyNoInteractions(entityManagerFactory);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReservationsTest {
+
+    private static final Long PRODUCT_ID = 7L;
+
+    private final AtomicLong now = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private StockReservations stockReservations;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockReservations = new StockReservations(Duration.ofMinutes(30), now::get, meterRegistry);
+    }
+
+    @Test
+    void testReserveWithinAvailableQuantity() {
+        assertTrue(stockReservations.reserve(1L, PRODUCT_ID, 4, 10));
+        assertTrue(stockReservations.reserve(2L, PRODUCT_ID, 6, 10));
+
+        assertEquals(10, stockReservations.reserved(PRODUCT_ID));
+        assertEquals(2.0, meterRegistry.get("stock.reservations.carts").gauge().value());
+    }
+
+    @Test
+    void testReserveFailsWhenOtherCartsHoldTheStock() {
+        stockReservations.reserve(1L, PRODUCT_ID, 8, 10);
+
+        assertFalse(stockReservations.reserve(2L, PRODUCT_ID, 3, 10));
+        assertEquals(8, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testReserveReplacesTheCartsOwnQuantity() {
+        stockReservations.reserve(1L, PRODUCT_ID, 8, 10);
+
+        assertTrue(stockReservations.reserve(1L, PRODUCT_ID, 10, 10));
+        assertTrue(stockReservations.reserve(1L, PRODUCT_ID, 3, 10));
+        assertEquals(3, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testFailedReserveKeepsThePreviousQuantity() {
+        stockReservations.reserve(1L, PRODUCT_ID, 4, 10);
+
+        assertFalse(stockReservations.reserve(1L, PRODUCT_ID, 11, 10));
+        assertEquals(4, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testNegativeQuantityIsRefused() {
+        assertFalse(stockReservations.reserve(1L, PRODUCT_ID, -3, 10));
+        assertEquals(0, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testRelease() {
+        stockReservations.reserve(1L, PRODUCT_ID, 4, 10);
+        stockReservations.reserve(1L, 8L, 2, 10);
+
+        stockReservations.release(1L, PRODUCT_ID);
+        assertEquals(0, stockReservations.reserved(PRODUCT_ID));
+        assertEquals(2, stockReservations.reserved(8L));
+
+        stockReservations.releaseCart(1L);
+        assertEquals(0, stockReservations.reserved(8L));
+        assertEquals(0.0, meterRegistry.get("stock.reservations.carts").gauge().value());
+    }
+
+    @Test
+    void testReleaseCartAfterCommitOutsideTransactionReleasesNow() {
+        stockReservations.reserve(1L, PRODUCT_ID, 4, 10);
+
+        stockReservations.releaseCartAfterCommit(1L);
+
+        assertEquals(0, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testExpiredReservationsAreReleased() {
+        stockReservations.reserve(1L, PRODUCT_ID, 4, 10);
+        now.addAndGet(Duration.ofMinutes(20).toNanos());
+        stockReservations.reserve(2L, PRODUCT_ID, 6, 10);
+        now.addAndGet(Duration.ofMinutes(15).toNanos());
+
+        stockReservations.releaseExpired();
+
+        assertEquals(6, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testCartActivityExtendsItsReservations() {
+        stockReservations.reserve(1L, PRODUCT_ID, 4, 10);
+        now.addAndGet(Duration.ofMinutes(20).toNanos());
+        stockReservations.reserve(1L, 8L, 1, 10);
+        now.addAndGet(Duration.ofMinutes(15).toNanos());
+
+        stockReservations.releaseExpired();
+
+        assertEquals(4, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testExpiredCartStartsOverOnNextReserve() {
+        stockReservations.reserve(1L, PRODUCT_ID, 4, 10);
+        now.addAndGet(Duration.ofMinutes(31).toNanos());
+
+        assertTrue(stockReservations.reserve(1L, 8L, 1, 10));
+
+        assertEquals(0, stockReservations.reserved(PRODUCT_ID));
+    }
+
+    @Test
+    void testConcurrentCartsNeverReserveMoreThanAvailable() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (long cartId = 1; cartId <= 200; cartId++) {
+                long cart = cartId;
+                attempts.add(executor.submit(() -> stockReservations.reserve(cart, PRODUCT_ID, 1, 50)));
+            }
+            int reserved = 0;
+            for (Future<Boolean> attempt : attempts) {
+                reserved += attempt.get() ? 1 : 0;
+            }
+            assertEquals(50, reserved);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(50, stockReservations.reserved(PRODUCT_ID));
+    }
+}
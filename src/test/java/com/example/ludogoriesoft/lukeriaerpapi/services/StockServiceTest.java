@@ -0,0 +1,47 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockLedgerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.crossstore.ChangeSetPersister;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class StockServiceTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 12, 15, 12, 0);
+
+    @Mock
+    private StockLedgerRepository stockLedgerRepository;
+
+    @InjectMocks
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetQuantityAt() throws ChangeSetPersister.NotFoundException {
+        when(stockLedgerRepository.quantityAt(StockItemType.PACKAGE, 3L, AT)).thenReturn(Optional.of(120));
+
+        assertEquals(120, stockService.getQuantityAt(StockItemType.PACKAGE, 3L, AT));
+    }
+
+    @Test
+    void testGetQuantityAt_BeforeFirstSnapshot() {
+        when(stockLedgerRepository.quantityAt(StockItemType.PACKAGE, 3L, AT)).thenReturn(Optional.empty());
+
+        assertThrows(ChangeSetPersister.NotFoundException.class, () -> stockService.getQuantityAt(StockItemType.PACKAGE, 3L, AT));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.repository.DeniedTokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.PasswordResetTokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.TokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtDenylist;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenPurgeJob;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenRevocationIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenPurgeJobTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Mock
+    private DeniedTokenRepository deniedTokenRepository;
+
+    @Mock
+    private TokenRevocationIndex revocationIndex;
+
+    @Mock
+    private JwtDenylist jwtDenylist;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenPurgeJob tokenPurgeJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenPurgeJob = new TokenPurgeJob(tokenRepository, passwordResetTokenRepository, deniedTokenRepository,
+                revocationIndex, jwtDenylist, meterRegistry, 2);
+    }
+
+    @Test
+    void testPurgeDeletesInChunksUntilABatchIsNotFull() {
+        when(tokenRepository.deleteExpired(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+        when(passwordResetTokenRepository.deleteExpired(any(LocalDateTime.class), eq(2))).thenReturn(0);
+        when(deniedTokenRepository.deleteExpired(any(LocalDateTime.class), eq(2))).thenReturn(1);
+
+        tokenPurgeJob.purgeExpiredTokens();
+
+        verify(tokenRepository, times(3)).deleteExpired(any(LocalDateTime.class), eq(2));
+        verify(passwordResetTokenRepository, times(1)).deleteExpired(any(LocalDateTime.class), eq(2));
+        verify(revocationIndex).purgeExpired();
+        verify(jwtDenylist).purgeExpired();
+        assertEquals(5.0, meterRegistry.get("tokens.purged").tag("table", "tokens").counter().count());
+        assertEquals(0.0, meterRegistry.get("tokens.purged").tag("table", "password_reset_token").counter().count());
+        assertEquals(1.0, meterRegistry.get("tokens.purged").tag("table", "token_denylist").counter().count());
+        assertEquals(1, meterRegistry.get("tokens.purge").timer().count());
+    }
+}
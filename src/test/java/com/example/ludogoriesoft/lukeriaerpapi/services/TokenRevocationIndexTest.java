@@ -0,0 +1,71 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenRevocationIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationIndexTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final TokenRevocationIndex revocationIndex = new TokenRevocationIndex(Duration.ofSeconds(30), nanoTime::get);
+
+    @Test
+    void testRegisteredTokenIsActive() {
+        revocationIndex.register(1L, "access", TokenType.ACCESS, Instant.now().plusSeconds(60));
+
+        assertTrue(revocationIndex.isActive("access"));
+        assertFalse(revocationIndex.isActive("unknown"));
+    }
+
+    @Test
+    void testRevokeAllForUserRemovesEveryTokenOfThatUser() {
+        revocationIndex.register(1L, "access", TokenType.ACCESS, Instant.now().plusSeconds(60));
+        revocationIndex.register(1L, "refresh", TokenType.REFRESH, Instant.now().plusSeconds(600));
+        revocationIndex.register(2L, "other", TokenType.ACCESS, Instant.now().plusSeconds(60));
+
+        revocationIndex.revokeAllForUser(1L);
+
+        assertFalse(revocationIndex.isActive("access"));
+        assertFalse(revocationIndex.isActive("refresh"));
+        assertTrue(revocationIndex.isActive("other"));
+    }
+
+    @Test
+    void testRevokeSingleToken() {
+        revocationIndex.register(1L, "access", TokenType.ACCESS, Instant.now().plusSeconds(60));
+
+        revocationIndex.revoke("access");
+
+        assertFalse(revocationIndex.isActive("access"));
+        assertEquals(0, revocationIndex.size());
+    }
+
+    @Test
+    void testExpiredTokenIsNotActiveAndIsPurged() {
+        revocationIndex.register(1L, "expired", TokenType.ACCESS, Instant.now().minusSeconds(1));
+
+        assertFalse(revocationIndex.isActive("expired"));
+        assertEquals(1, revocationIndex.purgeExpired());
+        assertEquals(0, revocationIndex.size());
+    }
+
+    @Test
+    void testTokenIsOnlyTrustedWithinTheTrustWindow() {
+        revocationIndex.register(1L, "access", TokenType.ACCESS, Instant.now().plusSeconds(600));
+
+        nanoTime.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertTrue(revocationIndex.isActive("access"));
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertFalse(revocationIndex.isActive("access"));
+
+        revocationIndex.register(1L, "access", TokenType.ACCESS, Instant.now().plusSeconds(600));
+        assertTrue(revocationIndex.isActive("access"));
+    }
+}
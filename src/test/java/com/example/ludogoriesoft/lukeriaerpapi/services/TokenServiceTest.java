@@ -4,7 +4,12 @@ import com.example.ludogoriesoft.lukeriaerpapi.enums.TokenType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Token;
 import com.example.ludogoriesoft.lukeriaerpapi.models.User;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.TokenRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtDenylist;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.JwtService;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenRevocationIndex;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.TokenServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -12,13 +17,16 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 class TokenServiceTest {
@@ -26,6 +34,15 @@ class TokenServiceTest {
     @Mock
     private TokenRepository tokenRepository;
 
+    @Mock
+    private TokenRevocationIndex revocationIndex;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private JwtDenylist jwtDenylist;
+
     @InjectMocks
     private TokenServiceImpl tokenService;
 
@@ -79,14 +96,13 @@ class TokenServiceTest {
     @Test
     void testRevokeAllUserTokens() {
         User user = new User();
-        Token token1 = new Token();
-        Token token2 = new Token();
-
-        when(tokenRepository.findAllByUser(user)).thenReturn(Arrays.asList(token1, token2));
+        user.setId(1L);
 
         tokenService.revokeAllUserTokens(user);
 
-        verify(tokenRepository, times(1)).deleteAll(anyList());
+        verify(tokenRepository, times(1)).deleteAllByUserId(1L);
+        verify(tokenRepository, never()).findAllByUser(any(User.class));
+        verify(tokenRepository, never()).deleteAll(anyList());
     }
 
     @Test
@@ -101,8 +117,7 @@ class TokenServiceTest {
         tokenService.logoutToken(jwtToken);
 
         verify(tokenRepository, times(1)).findByToken(jwtToken);
-        verify(tokenRepository, times(1)).findAllByUser(user);
-        verify(tokenRepository, times(1)).deleteAll(anyList());
+        verify(tokenRepository, times(1)).deleteAllByUserId(user.getId());
     }
 
     @Test
@@ -113,7 +128,66 @@ class TokenServiceTest {
 
         tokenService.logoutToken(jwtToken);
 
-        verify(tokenRepository, never()).findAllByUser(any(User.class));
-        verify(tokenRepository, never()).deleteAll(anyList());
+        verify(tokenRepository, never()).deleteAllByUserId(any());
+    }
+
+    @Test
+    void testIsTokenActive_KnownToIndex_SkipsDatabase() {
+        when(revocationIndex.isActive("activeJwt")).thenReturn(true);
+
+        assertTrue(tokenService.isTokenActive("activeJwt"));
+
+        verify(tokenRepository, never()).findActiveToken(anyString());
+    }
+
+    @Test
+    void testIsTokenActive_UnknownToIndex_FallsBackToDatabaseAndRegisters() {
+        TokenRepository.ActiveTokenView view = mock(TokenRepository.ActiveTokenView.class);
+        when(view.getUserId()).thenReturn(7L);
+        when(view.getTokenType()).thenReturn(TokenType.ACCESS);
+        when(revocationIndex.isActive("otherInstanceJwt")).thenReturn(false);
+        when(tokenRepository.findActiveToken("otherInstanceJwt")).thenReturn(Optional.of(view));
+
+        assertTrue(tokenService.isTokenActive("otherInstanceJwt"));
+
+        verify(revocationIndex).register(eq(7L), eq("otherInstanceJwt"), eq(TokenType.ACCESS), any());
+    }
+
+    @Test
+    void testIsTokenActive_RevokedToken_ReturnsFalse() {
+        when(revocationIndex.isActive("revokedJwt")).thenReturn(false);
+        when(tokenRepository.findActiveToken("revokedJwt")).thenReturn(Optional.empty());
+
+        assertFalse(tokenService.isTokenActive("revokedJwt"));
+
+        verify(revocationIndex, never()).register(any(), anyString(), any(), any());
+        verify(revocationIndex).revoke("revokedJwt");
+    }
+
+    @Test
+    void testRevokeAllUserTokens_RemovesUserFromIndex() {
+        User user = new User();
+        user.setId(3L);
+
+        tokenService.revokeAllUserTokens(user);
+
+        verify(revocationIndex).revokeAllForUser(3L);
+    }
+
+    @Test
+    void testRevokeAllUserTokens_StatelessMode_DeniesAccessTokenIds() {
+        User user = new User();
+        user.setId(4L);
+        Claims claims = new DefaultClaims();
+        claims.setId("jti-1");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtDenylist.isEnabled()).thenReturn(true);
+        when(tokenRepository.findTokensByUserIdAndTokenType(4L, TokenType.ACCESS)).thenReturn(List.of("accessJwt"));
+        when(jwtService.extractAllClaims("accessJwt")).thenReturn(claims);
+
+        tokenService.revokeAllUserTokens(user);
+
+        verify(jwtDenylist).deny(eq("jti-1"), any(Instant.class));
+        verify(tokenRepository).deleteAllByUserId(4L);
     }
 }
@@ -2,11 +2,17 @@ package com.example.ludogoriesoft.lukeriaerpapi.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
 import com.example.ludogoriesoft.lukeriaerpapi.models.Package;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.PackageRepository;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.ProductRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.repository.StockAdjustmentRepository;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -32,6 +38,8 @@ class UploadFromFileServiceTest {
 
   @Mock private CartonService cartonService;
 
+  @Mock private StockAdjustmentRepository stockAdjustmentRepository;
+
   @InjectMocks private UploadFromFileService uploadFromFileService;
 
   @BeforeEach
@@ -73,10 +81,12 @@ class UploadFromFileServiceTest {
   @Test
   void uploadSuccessfulFile() throws IOException {
     when(packageRepository.findAll()).thenReturn(Collections.emptyList());
+    when(packageRepository.save(any(Package.class))).thenAnswer(invocation -> invocation.getArgument(0));
     ResponseEntity<String> response = uploadFromFileService.packageUploadStatus(getTestFile());
 
     assertEquals("Successfully added all packages.", response.getBody());
       assertEquals(200, response.getStatusCodeValue());
+    verify(stockAdjustmentRepository, atLeastOnce()).recordOpeningQuantity(eq(StockItemType.PACKAGE), any(), any());
 
   }
 
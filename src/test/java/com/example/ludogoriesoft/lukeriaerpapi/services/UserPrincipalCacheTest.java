@@ -0,0 +1,78 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services;
+
+import com.example.ludogoriesoft.lukeriaerpapi.models.User;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserPrincipalCache userPrincipalCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userPrincipalCache = new UserPrincipalCache(meterRegistry, Duration.ofMinutes(5), 100);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testSecondLookupIsServedFromCache() {
+        userPrincipalCache.get("user@example.com", this::load);
+        Optional<User> user = userPrincipalCache.get("user@example.com", this::load);
+
+        assertTrue(user.isPresent());
+        assertEquals("user@example.com", user.get().getEmail());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserPrincipalCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UserPrincipalCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testEvictForcesReload() {
+        userPrincipalCache.get("user@example.com", this::load);
+        userPrincipalCache.evict("user@example.com");
+        userPrincipalCache.get("user@example.com", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testReturnedUserIsACopy() {
+        User first = userPrincipalCache.get("user@example.com", this::load).orElseThrow();
+        first.setFirstname("changed");
+
+        User second = userPrincipalCache.get("user@example.com", this::load).orElseThrow();
+
+        assertEquals("John", second.getFirstname());
+    }
+
+    @Test
+    void testMissingUserIsNotCached() {
+        assertTrue(userPrincipalCache.get("missing@example.com", email -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        userPrincipalCache.get("missing@example.com", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<User> load(String email) {
+        loads.incrementAndGet();
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        user.setFirstname("John");
+        return Optional.of(user);
+    }
+}
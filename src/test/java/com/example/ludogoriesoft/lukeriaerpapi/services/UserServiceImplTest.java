@@ -9,16 +9,20 @@ import com.example.ludogoriesoft.lukeriaerpapi.exeptions.UserNotFoundException;
 import com.example.ludogoriesoft.lukeriaerpapi.exeptions.common.AccessDeniedException;
 import com.example.ludogoriesoft.lukeriaerpapi.models.User;
 import com.example.ludogoriesoft.lukeriaerpapi.repository.UserRepository;
+import com.example.ludogoriesoft.lukeriaerpapi.services.security.UserPrincipalCache;
 import com.example.ludogoriesoft.lukeriaerpapi.services.security.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.modelmapper.ModelMapper;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +48,9 @@ class UserServiceImplTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Spy
+    private UserPrincipalCache userPrincipalCache = new UserPrincipalCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -2,8 +2,11 @@ package com.example.ludogoriesoft.lukeriaerpapi.services.controllers;
 
 import com.example.ludogoriesoft.lukeriaerpapi.controllers.MaterialOrderController;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialOrderDetailsDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.MaterialReceiptDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.exeptions.ApiExceptionHandler;
 import com.example.ludogoriesoft.lukeriaerpapi.services.MaterialOrderService;
+import com.example.ludogoriesoft.lukeriaerpapi.services.MaterialRequirementsService;
 import com.example.ludogoriesoft.lukeriaerpapi.slack.SlackService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ValidationException;
@@ -61,6 +64,8 @@ class MaterialOrderControllerIntegrationTest {
     @MockBean
     private MaterialOrderService materialOrderService;
     @MockBean
+    private MaterialRequirementsService materialRequirementsService;
+    @MockBean
     private SlackService slackService;
 
     private static String asJsonString(final Object obj) {
@@ -154,6 +159,33 @@ class MaterialOrderControllerIntegrationTest {
         Assertions.assertNotNull(response);
     }
 
+    @Test
+    void testReceiveMaterialOrders() throws Exception {
+        MaterialOrderDTO received = new MaterialOrderDTO();
+        received.setId(1L);
+        received.setReceivedQuantity(40);
+        when(materialOrderService.receiveMaterialOrders(anyList())).thenReturn(List.of(received));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/material-order/receive")
+                        .content("[{\"materialOrderId\": 1, \"receivedQuantity\": 40, \"arrivalDate\": \"2024-12-31\"}]")
+                        .header(HttpHeaders.AUTHORIZATION, "your-authorization-token")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].receivedQuantity").value(40));
+    }
+
+    @Test
+    void testReceiveMaterialOrdersWithUnknownOrderShouldReturnNotFound() throws Exception {
+        when(materialOrderService.receiveMaterialOrders(anyList())).thenThrow(new ChangeSetPersister.NotFoundException());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/v1/material-order/receive")
+                        .content(asJsonString(List.of(new MaterialReceiptDTO(99L, 10, null))))
+                        .header(HttpHeaders.AUTHORIZATION, "your-authorization-token")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testDeleteMaterialOrderById() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/material-order/{id}", 1)
@@ -298,4 +330,40 @@ class MaterialOrderControllerIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPurchasePlan() throws Exception {
+        MaterialOrderDTO purchase = new MaterialOrderDTO();
+        purchase.setMaterialId(3L);
+        purchase.setMaterialType("PLATE");
+        purchase.setOrderedQuantity(40);
+        when(materialRequirementsService.planPurchases()).thenReturn(List.of(purchase));
+
+        mockMvc.perform(get("/api/v1/material-order/purchase-plan")
+                        .header(HttpHeaders.AUTHORIZATION, "your-authorization-token")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].materialId").value(3))
+                .andExpect(jsonPath("$[0].materialType").value("PLATE"))
+                .andExpect(jsonPath("$[0].orderedQuantity").value(40));
+    }
+
+    @Test
+    void testGetAllMaterialOrderDetails() throws Exception {
+        MaterialOrderDetailsDTO details = new MaterialOrderDetailsDTO();
+        details.setId(1L);
+        details.setMaterialId(3L);
+        details.setMaterialType("PLATE");
+        details.setMaterialName("Plate 3");
+        details.setMaterialAvailableQuantity(25);
+        when(materialOrderService.getAllMaterialOrderDetails()).thenReturn(List.of(details));
+
+        mockMvc.perform(get("/api/v1/material-order/details")
+                        .header(HttpHeaders.AUTHORIZATION, "your-authorization-token")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].materialId").value(3))
+                .andExpect(jsonPath("$[0].materialName").value("Plate 3"))
+                .andExpect(jsonPath("$[0].materialAvailableQuantity").value(25));
+    }
+}
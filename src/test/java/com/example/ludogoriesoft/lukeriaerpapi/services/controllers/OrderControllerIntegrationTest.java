@@ -1,7 +1,10 @@
 package com.example.ludogoriesoft.lukeriaerpapi.services.controllers;
 
 import com.example.ludogoriesoft.lukeriaerpapi.controllers.OrderController;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.KeysetPageDTO;
 import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.dtos.OrderPageRequestDTO;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.OrderPageSort;
 import com.example.ludogoriesoft.lukeriaerpapi.exeptions.ApiExceptionHandler;
 import com.example.ludogoriesoft.lukeriaerpapi.services.OrderService;
 import com.example.ludogoriesoft.lukeriaerpapi.slack.SlackService;
@@ -25,6 +28,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -75,6 +79,42 @@ class OrderControllerIntegrationTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    void getOrdersPage_BindsCursorAndFilters() throws Exception {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setId(41L);
+        when(orderService.getOrdersPage(argThat(request -> request.getSort() == OrderPageSort.ORDER_DATE
+                && Long.valueOf(42L).equals(request.getCursorId())
+                && LocalDate.of(2024, 3, 1).equals(request.getCursorOrderDate())
+                && Long.valueOf(5L).equals(request.getClientId())
+                && Boolean.FALSE.equals(request.getInvoiced())
+                && Integer.valueOf(20).equals(request.getSize()))))
+                .thenReturn(new KeysetPageDTO<>(List.of(orderDTO), true));
+
+        mockMvc.perform(get("/api/v1/order/page")
+                        .header(HttpHeaders.AUTHORIZATION, "your-authorization-token")
+                        .param("sort", "ORDER_DATE")
+                        .param("cursorId", "42")
+                        .param("cursorOrderDate", "2024-03-01")
+                        .param("clientId", "5")
+                        .param("invoiced", "false")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(41))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void getOrdersPage_InvalidSize() throws Exception {
+        when(orderService.getOrdersPage(any(OrderPageRequestDTO.class)))
+                .thenThrow(new ValidationException("Page size must be between 1 and 500"));
+
+        mockMvc.perform(get("/api/v1/order/page")
+                        .header(HttpHeaders.AUTHORIZATION, "your-authorization-token")
+                        .param("size", "501"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void findLastOrder() throws Exception {
         OrderDTO orderDTO = new OrderDTO();
@@ -0,0 +1,71 @@
+package com.example.ludogoriesoft.lukeriaerpapi.services.controllers;
+
+import com.example.ludogoriesoft.lukeriaerpapi.controllers.StockController;
+import com.example.ludogoriesoft.lukeriaerpapi.enums.StockItemType;
+import com.example.ludogoriesoft.lukeriaerpapi.exeptions.ApiExceptionHandler;
+import com.example.ludogoriesoft.lukeriaerpapi.services.StockService;
+import com.example.ludogoriesoft.lukeriaerpapi.slack.SlackService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(value = StockController.class,
+        useDefaultFilters = false,
+        includeFilters = {
+                @ComponentScan.Filter(
+                        type = FilterType.ASSIGNABLE_TYPE,
+                        value = StockController.class),
+                @ComponentScan.Filter(
+                        type = FilterType.ASSIGNABLE_TYPE,
+                        value = ApiExceptionHandler.class),
+                @ComponentScan.Filter(
+                        type = FilterType.ASSIGNABLE_TYPE,
+                        value = SlackService.class
+                )
+        }
+)
+class StockControllerIntegrationTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 12, 15, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockService stockService;
+
+    @Test
+    void getQuantityAt_ShouldReturnQuantity() throws Exception {
+        when(stockService.getQuantityAt(StockItemType.PLATE, 7L, AT)).thenReturn(250);
+
+        mockMvc.perform(get("/api/v1/stock/PLATE/7")
+                        .param("at", "2024-12-15T12:00:00")
+                        .header("Authorization", "Bearer token"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("250"));
+    }
+
+    @Test
+    void getQuantityAt_BeforeFirstSnapshot_ShouldReturnNotFound() throws Exception {
+        when(stockService.getQuantityAt(StockItemType.PLATE, 7L, AT)).thenThrow(new ChangeSetPersister.NotFoundException());
+
+        mockMvc.perform(get("/api/v1/stock/PLATE/7")
+                        .param("at", "2024-12-15T12:00:00")
+                        .header("Authorization", "Bearer token"))
+                .andExpect(status().isNotFound());
+    }
+}